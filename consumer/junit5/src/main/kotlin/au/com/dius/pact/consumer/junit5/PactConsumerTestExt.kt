@@ -25,6 +25,7 @@ import au.com.dius.pact.core.support.Annotations
 import au.com.dius.pact.core.support.BuiltToolConfig
 import au.com.dius.pact.core.support.MetricEvent
 import au.com.dius.pact.core.support.Metrics
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.core.support.expressions.DataType
 import au.com.dius.pact.core.support.expressions.ExpressionParser
 import au.com.dius.pact.core.support.isNotEmpty
@@ -207,12 +208,14 @@ class PactConsumerTestExt : Extension, BeforeTestExecutionCallback, BeforeAllCal
   }
 
   override fun beforeAll(context: ExtensionContext) {
+    PactRuntimeConfig.refresh()
     val store = context.getStore(NAMESPACE)
     store.put("executedFragments", ConcurrentHashMap.newKeySet<Method>())
     store.put("pactsToWrite", ConcurrentHashMap<Pair<Consumer, Provider>, Pair<BasePact, PactSpecVersion>>())
   }
 
   override fun beforeTestExecution(context: ExtensionContext) {
+    PactRuntimeConfig.refresh()
     if (!ignoredTest(context)) {
       for ((providerInfo, pactMethods) in lookupProviderInfo(context)) {
         logger.debug { "providerInfo = $providerInfo" }
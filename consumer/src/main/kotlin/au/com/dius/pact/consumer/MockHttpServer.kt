@@ -20,6 +20,7 @@ import au.com.dius.pact.core.model.Request
 import au.com.dius.pact.core.model.Response
 import au.com.dius.pact.core.model.generators.GeneratorTestMode
 import au.com.dius.pact.core.model.queryStringToMap
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.core.support.Result
 import com.sun.net.httpserver.HttpExchange
 import com.sun.net.httpserver.HttpHandler
@@ -52,6 +53,7 @@ import java.util.zip.GZIPInputStream
  * Returns a mock server for the pact and config
  */
 fun mockServer(pact: BasePact, config: MockProviderConfig): BaseMockServer {
+  PactRuntimeConfig.refresh()
   return when (config) {
     is MockHttpsProviderConfig -> when (config.mockServerImplementation) {
       MockServerImplementation.KTorServer -> KTorMockServer(pact, config)
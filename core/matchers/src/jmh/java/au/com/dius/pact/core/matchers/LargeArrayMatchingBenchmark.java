@@ -0,0 +1,79 @@
+package au.com.dius.pact.core.matchers;
+
+import au.com.dius.pact.core.model.OptionalBody;
+import au.com.dius.pact.core.model.matchingrules.MatchingRuleCategory;
+import au.com.dius.pact.core.model.matchingrules.MinTypeMatcher;
+import au.com.dius.pact.core.model.matchingrules.RegexMatcher;
+import au.com.dius.pact.core.model.matchingrules.TypeMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Matches a large array of objects with an eachLike style matcher, comparing the elements sequentially and in
+ * parallel with the common fork/join pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LargeArrayMatchingBenchmark {
+
+  @State(Scope.Thread)
+  public static class BenchmarkState {
+    @Param({"1000", "20000"})
+    public int itemCount;
+
+    public OptionalBody expected;
+    public OptionalBody actual;
+    public MatchingContext sequential;
+    public MatchingContext parallel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      actual = OptionalBody.body(IntStream.range(0, itemCount)
+        .mapToObj(LargeArrayMatchingBenchmark::item)
+        .collect(Collectors.joining(",", "[", "]"))
+        .getBytes());
+      expected = OptionalBody.body(("[" + item(0) + "]").getBytes());
+
+      MatchingRuleCategory rules = new MatchingRuleCategory("body");
+      rules.addRule("$", new MinTypeMatcher(1));
+      rules.addRule("$[*].id", new RegexMatcher("\\d+"));
+      rules.addRule("$[*].name", TypeMatcher.INSTANCE);
+      rules.addRule("$[*].email", new RegexMatcher("[a-z0-9.]+@[a-z]+\\.com"));
+      sequential = new MatchingContext(rules, true);
+      parallel = new MatchingContext(rules, true, Map.of(), false, false, new ParallelMatching(256));
+    }
+  }
+
+  private static String item(int i) {
+    return "{\"id\":\"" + i + "\",\"name\":\"name " + i + "\",\"email\":\"user." + i + "@example.com\"}";
+  }
+
+  @Benchmark
+  public int sequential(BenchmarkState state) {
+    return JsonContentMatcher.INSTANCE.matchBody(state.expected, state.actual, state.sequential)
+      .getMismatches().size();
+  }
+
+  @Benchmark
+  public int parallel(BenchmarkState state) {
+    return JsonContentMatcher.INSTANCE.matchBody(state.expected, state.actual, state.parallel)
+      .getMismatches().size();
+  }
+}
@@ -0,0 +1,84 @@
+package au.com.dius.pact.core.matchers;
+
+import au.com.dius.pact.core.support.json.JsonValue;
+import au.com.dius.pact.core.support.regex.PatternCache;
+import kotlin.text.Regex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches every element of an array of UUIDs against a regex matcher. compileEachValue is how matchRegex worked
+ * before the pattern cache, compiling the regex for every value checked.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegexMatchingBenchmark {
+  private static final String UUID_REGEX =
+    "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}";
+
+  @State(Scope.Thread)
+  public static class BenchmarkState {
+    @Param({"100", "1000", "10000"})
+    public int itemCount;
+
+    public List<JsonValue> values;
+    public List<String> path = List.of("$", "ids", "*");
+
+    @Setup(Level.Trial)
+    public void setup() {
+      values = new ArrayList<>(itemCount);
+      for (int i = 0; i < itemCount; i++) {
+        values.add(new JsonValue.StringValue(new UUID(i, i * 31L).toString()));
+      }
+    }
+  }
+
+  @Benchmark
+  public int matchRegex(BenchmarkState state) {
+    int mismatches = 0;
+    for (JsonValue value : state.values) {
+      mismatches += MatcherExecutorKt.matchRegex(UUID_REGEX, state.path, value, value,
+        BodyMismatchFactory.INSTANCE).size();
+    }
+    return mismatches;
+  }
+
+  @Benchmark
+  public int compileEachValue(BenchmarkState state) {
+    int matches = 0;
+    for (JsonValue value : state.values) {
+      if (new Regex(UUID_REGEX).matches(value.asString())) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+
+  @Benchmark
+  public int patternCache(BenchmarkState state) {
+    int matches = 0;
+    for (JsonValue value : state.values) {
+      if (PatternCache.matches(UUID_REGEX, value.asString())) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+}
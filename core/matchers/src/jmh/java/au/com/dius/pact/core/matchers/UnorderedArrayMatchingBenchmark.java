@@ -0,0 +1,114 @@
+package au.com.dius.pact.core.matchers;
+
+import au.com.dius.pact.core.model.OptionalBody;
+import au.com.dius.pact.core.model.generators.Generator;
+import au.com.dius.pact.core.model.matchingrules.ArrayContainsMatcher;
+import au.com.dius.pact.core.model.matchingrules.EqualsIgnoreOrderMatcher;
+import au.com.dius.pact.core.model.matchingrules.MatchingRule;
+import au.com.dius.pact.core.model.matchingrules.MatchingRuleCategory;
+import au.com.dius.pact.core.model.matchingrules.MinEqualsIgnoreOrderMatcher;
+import au.com.dius.pact.core.model.matchingrules.RegexMatcher;
+import kotlin.Triple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Matches arrays with ignore-order and array contains matchers against adversarial actual arrays. Element i of the
+ * expected array has a regex matcher that accepts any number from i, so most of the elements can match each other.
+ * The last expected element has no match in the actual array, which is in reverse order, so every possible
+ * assignment of the elements has to be ruled out. The permutation search this replaced took O(n*2^n) time for these.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnorderedArrayMatchingBenchmark {
+
+  @State(Scope.Thread)
+  public static class BenchmarkState {
+    @Param({"10", "40", "200"})
+    public int itemCount;
+
+    public OptionalBody expected;
+    public OptionalBody actual;
+    public MatchingContext equalsIgnoreOrder;
+    public MatchingContext minEqualsIgnoreOrder;
+    public MatchingContext arrayContains;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      expected = body(IntStream.range(0, itemCount).boxed().collect(Collectors.toList()));
+      List<Integer> actualValues = IntStream.range(0, itemCount)
+        .map(i -> i == itemCount - 1 ? 0 : i)
+        .boxed()
+        .collect(Collectors.toList());
+      Collections.reverse(actualValues);
+      actual = body(actualValues);
+
+      equalsIgnoreOrder = context(EqualsIgnoreOrderMatcher.INSTANCE);
+      minEqualsIgnoreOrder = context(new MinEqualsIgnoreOrderMatcher(1));
+
+      List<Triple<Integer, MatchingRuleCategory, Map<String, Generator>>> variants = new ArrayList<>(itemCount);
+      for (int i = 0; i < itemCount; i++) {
+        MatchingRuleCategory variant = new MatchingRuleCategory("body");
+        variant.addRule("$", new RegexMatcher(atLeast(i)));
+        variants.add(new Triple<>(i, variant, Map.of()));
+      }
+      arrayContains = new MatchingContext(new MatchingRuleCategory("body"), true);
+      arrayContains.getMatchers().addRule("$", new ArrayContainsMatcher(variants));
+    }
+
+    private MatchingContext context(MatchingRule arrayMatcher) {
+      MatchingRuleCategory rules = new MatchingRuleCategory("body");
+      rules.addRule("$", arrayMatcher);
+      for (int i = 0; i < itemCount; i++) {
+        rules.addRule("$[" + i + "]", new RegexMatcher(atLeast(i)));
+      }
+      return new MatchingContext(rules, true);
+    }
+
+    private String atLeast(int value) {
+      return IntStream.range(value, itemCount).mapToObj(Integer::toString).collect(Collectors.joining("|"));
+    }
+
+    private static OptionalBody body(List<Integer> values) {
+      return OptionalBody.body(values.toString().getBytes());
+    }
+  }
+
+  @Benchmark
+  public int equalsIgnoreOrder(BenchmarkState state) {
+    return JsonContentMatcher.INSTANCE.matchBody(state.expected, state.actual, state.equalsIgnoreOrder)
+      .getMismatches().size();
+  }
+
+  @Benchmark
+  public int minEqualsIgnoreOrder(BenchmarkState state) {
+    return JsonContentMatcher.INSTANCE.matchBody(state.expected, state.actual, state.minEqualsIgnoreOrder)
+      .getMismatches().size();
+  }
+
+  @Benchmark
+  public int arrayContains(BenchmarkState state) {
+    return JsonContentMatcher.INSTANCE.matchBody(state.expected, state.actual, state.arrayContains)
+      .getMismatches().size();
+  }
+}
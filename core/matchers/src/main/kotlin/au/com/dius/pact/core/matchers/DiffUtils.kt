@@ -1,45 +1,189 @@
 package au.com.dius.pact.core.matchers
 
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.core.support.json.JsonValue
 import com.github.difflib.DiffUtils
 import com.github.difflib.patch.ChangeDelta
 
 private const val NEW_LINE = '\n'
 
-fun generateDiff(expectedBodyString: String, actualBodyString: String): List<String> {
-  val expectedLines = expectedBodyString.split(NEW_LINE)
-  val actualLines = actualBodyString.split(NEW_LINE)
-  val patch = DiffUtils.diff(expectedLines, actualLines)
+/**
+ * Limits on the diffs that are generated for mismatched bodies. Only the first maxBodySize characters of the bodies
+ * are diffed, and the diff is cut off after maxLines lines. A limit of zero or less means no limit.
+ */
+data class DiffLimits(val maxLines: Int, val maxBodySize: Int) {
+  /**
+   * If a diff should be generated for a body of the given size without being truncated
+   */
+  fun withinBodySize(length: Int) = maxBodySize <= 0 || length <= maxBodySize
+
+  companion object {
+    @JvmField
+    val UNLIMITED = DiffLimits(0, 0)
+
+    @JvmStatic
+    fun fromRuntimeConfig(config: PactRuntimeConfig) = DiffLimits(config.maxDiffLines, config.maxDiffBodySize)
+  }
+}
+
+private class BodyLines(val lines: List<String>, val truncated: Boolean)
+
+/**
+ * Splits the text into lines, the same as splitting it on new lines, but stops once maxSize characters have been read.
+ * Truncated is for text that has already been cut off before it was passed in.
+ */
+private fun readLines(text: String, maxSize: Int, truncated: Boolean = false): BodyLines {
+  val limit = if (maxSize > 0) minOf(maxSize, text.length) else text.length
+  val lines = mutableListOf<String>()
+  var start = 0
+  while (true) {
+    val end = text.indexOf(NEW_LINE, start)
+    if (end < 0 || end >= limit) {
+      lines.add(text.substring(start, limit))
+      return BodyLines(lines, truncated || limit < text.length)
+    }
+    lines.add(text.substring(start, end))
+    start = end + 1
+  }
+}
+
+/**
+ * Generates a diff of the expected and actual bodies, with the lines that have changed marked with - and +. The
+ * lines the bodies start and end with that are the same are skipped before looking for the changes, so the cost of
+ * the diff depends on the size of the part that changed.
+ */
+@JvmOverloads
+fun generateDiff(
+  expectedBodyString: String,
+  actualBodyString: String,
+  limits: DiffLimits = DiffLimits.fromRuntimeConfig(PactRuntimeConfig.current())
+): List<String> {
+  return generateDiff(
+    readLines(expectedBodyString, limits.maxBodySize),
+    readLines(actualBodyString, limits.maxBodySize),
+    limits
+  )
+}
+
+private fun generateDiff(expected: BodyLines, actual: BodyLines, limits: DiffLimits): List<String> {
+  val expectedLines = expected.lines
+  val actualLines = actual.lines
+
+  val maxCommon = minOf(expectedLines.size, actualLines.size)
+  var prefix = 0
+  while (prefix < maxCommon && expectedLines[prefix] == actualLines[prefix]) {
+    prefix++
+  }
+  var suffix = 0
+  while (suffix < maxCommon - prefix &&
+    expectedLines[expectedLines.size - suffix - 1] == actualLines[actualLines.size - suffix - 1]) {
+    suffix++
+  }
+  val patch = DiffUtils.diff(
+    expectedLines.subList(prefix, expectedLines.size - suffix),
+    actualLines.subList(prefix, actualLines.size - suffix)
+  )
 
   val diff = mutableListOf<String>()
+  val maxLines = if (limits.maxLines > 0) limits.maxLines else Int.MAX_VALUE
   var line = 0
-  patch.deltas.forEach { delta ->
-    when (delta) {
-      is ChangeDelta<*> -> {
-        if (delta.source.position >= 1 && (diff.isEmpty() ||
-            expectedLines[delta.source.position - 1] != diff.last())) {
-          diff.addAll(expectedLines.slice(line until delta.source.position))
-        }
-
-        delta.source.lines.forEach {
-          diff.add("-$it")
-        }
-        delta.target.lines.forEach {
-          diff.add("+$it")
-        }
-
-        line = delta.source.position + delta.source.lines.size
+  for (delta in patch.deltas) {
+    if (diff.size > maxLines) {
+      break
+    }
+    if (delta is ChangeDelta<*>) {
+      val position = delta.source.position + prefix
+      if (position >= 1 && (diff.isEmpty() || expectedLines[position - 1] != diff.last())) {
+        diff.addAll(expectedLines.subList(line, position))
+      }
+
+      delta.source.lines.forEach {
+        diff.add("-$it")
+      }
+      delta.target.lines.forEach {
+        diff.add("+$it")
       }
+
+      line = position + delta.source.lines.size
     }
   }
-  if (line < expectedLines.size) {
-    diff.addAll(expectedLines.listIterator(line).asSequence())
+  if (line < expectedLines.size && diff.size <= maxLines) {
+    diff.addAll(expectedLines.subList(line, minOf(expectedLines.size, line + maxLines - diff.size + 1)))
+  }
+
+  if (diff.size > maxLines) {
+    diff.subList(maxLines, diff.size).clear()
+    diff.add("... the diff has been truncated to $maxLines lines")
+  }
+  if (expected.truncated || actual.truncated) {
+    diff.add("... only the first ${limits.maxBodySize} characters of the bodies have been compared")
   }
   return diff
 }
 
-fun generateJsonDiff(expected: JsonValue, actual: JsonValue): String {
-  val actualJson = actual.prettyPrint()
-  val expectedJson = expected.prettyPrint()
-  return generateDiff(expectedJson, actualJson).joinToString(separator = NEW_LINE.toString())
+@JvmOverloads
+fun generateJsonDiff(
+  expected: JsonValue,
+  actual: JsonValue,
+  limits: DiffLimits = DiffLimits.fromRuntimeConfig(PactRuntimeConfig.current())
+): String {
+  val expectedLines = prettyPrintLines(expected, limits.maxBodySize)
+  val actualLines = prettyPrintLines(actual, limits.maxBodySize)
+  return generateDiff(expectedLines, actualLines, limits).joinToString(separator = NEW_LINE.toString())
+}
+
+/**
+ * Pretty prints the JSON and splits it into lines, stopping once maxSize characters have been printed so that the
+ * rest of a large body is not printed
+ */
+private fun prettyPrintLines(json: JsonValue, maxSize: Int): BodyLines {
+  val out = CappedAppendable(maxSize)
+  try {
+    json.prettyPrintTo(out)
+  } catch (_: BodySizeLimitReached) {
+    // the rest of the body is not needed for the diff
+  }
+  return readLines(out.toString(), 0, out.truncated)
+}
+
+/**
+ * Thrown to stop pretty printing once the maximum size has been reached
+ */
+private object BodySizeLimitReached : RuntimeException(null, null, false, false)
+
+/**
+ * Appends up to maxSize characters, zero or less for no limit. Once more than that have been appended, it is
+ * marked as truncated and BodySizeLimitReached is thrown.
+ */
+private class CappedAppendable(private val maxSize: Int) : Appendable {
+  private val builder = StringBuilder()
+  var truncated = false
+    private set
+
+  override fun append(csq: CharSequence?): Appendable {
+    val text = csq ?: "null"
+    return append(text, 0, text.length)
+  }
+
+  override fun append(csq: CharSequence?, start: Int, end: Int): Appendable {
+    val text = csq ?: "null"
+    if (maxSize > 0 && builder.length + end - start > maxSize) {
+      builder.append(text, start, start + maxSize - builder.length)
+      truncated = true
+      throw BodySizeLimitReached
+    }
+    builder.append(text, start, end)
+    return this
+  }
+
+  override fun append(c: Char): Appendable {
+    if (maxSize > 0 && builder.length >= maxSize) {
+      truncated = true
+      throw BodySizeLimitReached
+    }
+    builder.append(c)
+    return this
+  }
+
+  override fun toString() = builder.toString()
 }
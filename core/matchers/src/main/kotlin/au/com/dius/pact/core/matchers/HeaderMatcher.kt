@@ -3,6 +3,7 @@ package au.com.dius.pact.core.matchers
 import io.github.oshai.kotlinlogging.KotlinLogging
 
 private val logger = KotlinLogging.logger {}
+private val WHITESPACE_AFTER_COMMA = Regex(",\\s*")
 
 object HeaderMatcher {
 
@@ -38,7 +39,7 @@ object HeaderMatcher {
       .associate { it.first() to it.component2() }
   }
 
-  fun stripWhiteSpaceAfterCommas(str: String): String = Regex(",\\s*").replace(str, ",")
+  fun stripWhiteSpaceAfterCommas(str: String): String = WHITESPACE_AFTER_COMMA.replace(str, ",")
 
   /**
    * Compares the expected header value to the actual, delegating to any matching rules if present
@@ -7,7 +7,6 @@ import au.com.dius.pact.core.model.OptionalBody
 import au.com.dius.pact.core.model.constructPath
 import au.com.dius.pact.core.support.Json.toJson
 import au.com.dius.pact.core.support.Result
-import au.com.dius.pact.core.support.json.JsonParser
 import au.com.dius.pact.core.support.json.JsonValue
 import io.pact.plugins.jvm.core.InteractionContents
 import io.github.oshai.kotlinlogging.KLogging
@@ -33,8 +32,7 @@ object JsonContentMatcher : ContentMatcher, KLogging() {
         BodyMatchResult(null, listOf(BodyItemMatchResult("$",
           listOf(BodyMismatch(expected.valueAsString(), null, "Expected body '${expected.value}' but was missing")))))
       else -> {
-        BodyMatchResult(null, compare(listOf("$"), JsonParser.parseString(expected.valueAsString()),
-          JsonParser.parseString(actual.valueAsString()), context))
+        BodyMatchResult(null, compare(listOf("$"), expected.valueAsJson(), actual.valueAsJson(), context))
       }
     }
   }
@@ -69,6 +67,15 @@ object JsonContentMatcher : ContentMatcher, KLogging() {
     else -> value.javaClass.simpleName
   }
 
+  /**
+   * Returns a function that generates the diff of the values the first time it is called. It is shared by all the
+   * mismatches for the values, so the diff is only generated once when the mismatches are reported.
+   */
+  private fun diffGenerator(expected: JsonValue, actual: JsonValue): () -> String {
+    val diff = lazy { generateJsonDiff(expected, actual) }
+    return { diff.value }
+  }
+
   fun compare(
     path: List<String>,
     expected: JsonValue,
@@ -83,10 +90,9 @@ object JsonContentMatcher : ContentMatcher, KLogging() {
       expected is JsonValue.Object && actual !is JsonValue.Object ||
         expected is JsonValue.Array && actual !is JsonValue.Array ->
         listOf(BodyItemMatchResult(constructPath(path),
-          listOf(BodyMismatch(expected, actual, "Type mismatch: Expected " +
+          listOf(BodyMismatch.withLazyDiff(expected, actual, "Type mismatch: Expected " +
             "${valueOf(actual)} (${typeOf(actual)}) to be the same type as ${valueOf(expected)} (${typeOf(expected)})",
-            constructPath(path),
-          generateJsonDiff(expected, actual)))))
+            constructPath(path)) { generateJsonDiff(expected, actual) })))
       else -> compareValues(path, expected, actual, context)
     }
   }
@@ -100,7 +106,7 @@ object JsonContentMatcher : ContentMatcher, KLogging() {
     val expectedList = expectedValues.values
     val actualList = actualValues.values
     val result = mutableListOf<BodyItemMatchResult>()
-    val generateDiff = { generateJsonDiff(expectedValues, actualValues) }
+    val generateDiff = diffGenerator(expectedValues, actualValues)
     if (context.matcherDefined(path)) {
       logger.debug { "compareLists: Matcher defined for path $path" }
       val ruleGroup = context.selectBestMatcher(path)
@@ -108,21 +114,24 @@ object JsonContentMatcher : ContentMatcher, KLogging() {
         result.addAll(compareLists(path, matcher, expectedList, actualList, context, generateDiff, ruleGroup.cascaded) {
           p, expected, actual, context -> compare(p, expected, actual, context)
         })
+        if (context.shouldStop(result)) {
+          break
+        }
       }
     } else {
       if (expectedList.isEmpty() && actualList.isNotEmpty()) {
         result.add(BodyItemMatchResult(constructPath(path),
-          listOf(BodyMismatch(expectedValues, actualValues,
+          listOf(BodyMismatch.withLazyDiff(expectedValues, actualValues,
             "Expected an empty List but received ${valueOf(actualValues)}",
-            constructPath(path), generateJsonDiff(expectedValues, actualValues)))))
+            constructPath(path), generateDiff))))
       } else {
         result.addAll(compareListContent(expectedList, actualList, path, context, generateDiff) {
           p, expected, actual, context -> compare(p, expected, actual, context)
         })
-        if (expectedList.size != actualList.size) {
-          result.add(BodyItemMatchResult(constructPath(path), listOf(BodyMismatch(expectedList, actualList,
+        if (expectedList.size != actualList.size && !context.shouldStop(result)) {
+          result.add(BodyItemMatchResult(constructPath(path), listOf(BodyMismatch.withLazyDiff(expectedList, actualList,
             "Expected a List with ${expectedList.size} elements but received ${actualList.size} elements",
-            constructPath(path), generateJsonDiff(expectedValues, actualValues)))))
+            constructPath(path), generateDiff))))
         }
       }
     }
@@ -137,11 +146,13 @@ object JsonContentMatcher : ContentMatcher, KLogging() {
   ): List<BodyItemMatchResult> {
     return if (expectedValues.isEmpty() && actualValues.isNotEmpty() && !context.allowUnexpectedKeys) {
       listOf(BodyItemMatchResult(constructPath(path),
-        listOf(BodyMismatch(expectedValues, actualValues, "Expected an empty Map but received ${valueOf(actualValues)}",
-          constructPath(path), generateJsonDiff(expectedValues, actualValues)))))
+        listOf(BodyMismatch.withLazyDiff(expectedValues, actualValues,
+          "Expected an empty Map but received ${valueOf(actualValues)}", constructPath(path)) {
+          generateJsonDiff(expectedValues, actualValues)
+        })))
     } else {
       val result = mutableListOf<BodyItemMatchResult>()
-      val generateDiff = { generateJsonDiff(expectedValues, actualValues) }
+      val generateDiff = diffGenerator(expectedValues, actualValues)
       val expectedEntries = expectedValues.entries
       val actualEntries = actualValues.entries
       if (context.matcherDefined(path)) {
@@ -150,14 +161,16 @@ object JsonContentMatcher : ContentMatcher, KLogging() {
           result.addAll(Matchers.compareMaps(path, matcher, expectedEntries, actualEntries, context, generateDiff) {
             p, expected, actual, ctx -> compare(p, expected ?: JsonValue.Null, actual ?: JsonValue.Null, ctx)
           })
+          if (context.shouldStop(result)) {
+            break
+          }
         }
       } else {
         result.addAll(context.matchKeys(path, expectedEntries, actualEntries, generateDiff))
-        for ((key, value) in expectedEntries) {
-          val p = path + key
-          if (actualEntries.containsKey(key)) {
-            result.addAll(compare(p, value, actualEntries[key]!!, context))
-          }
+        if (!context.shouldStop(result)) {
+          result.addAll(context.compareElements(expectedEntries.keys.filter { actualEntries.containsKey(it) }) { key ->
+            compare(path + key, expectedEntries[key]!!, actualEntries[key]!!, context)
+          })
         }
       }
       result
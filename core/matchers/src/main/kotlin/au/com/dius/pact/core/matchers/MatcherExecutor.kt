@@ -32,6 +32,8 @@ import au.com.dius.pact.core.model.matchingrules.TimestampMatcher
 import au.com.dius.pact.core.model.matchingrules.TypeMatcher
 import au.com.dius.pact.core.model.matchingrules.ValuesMatcher
 import au.com.dius.pact.core.support.json.JsonValue
+import au.com.dius.pact.core.support.regex.PatternCache
+import au.com.dius.pact.core.support.time.DateTimeFormatterCache
 import com.github.zafarkhaja.semver.UnexpectedCharacterException
 import com.github.zafarkhaja.semver.Version
 import io.pact.plugins.jvm.core.CatalogueEntry
@@ -39,7 +41,7 @@ import io.pact.plugins.jvm.core.CatalogueEntryProviderType
 import io.pact.plugins.jvm.core.CatalogueEntryType
 import io.github.oshai.kotlinlogging.KotlinLogging
 import org.apache.commons.codec.binary.Hex
-import org.apache.commons.lang3.time.DateUtils
+import org.apache.commons.lang3.time.FastDateFormat
 import org.apache.tika.config.TikaConfig
 import org.apache.tika.io.TikaInputStream
 import org.apache.tika.metadata.Metadata
@@ -51,13 +53,16 @@ import org.w3c.dom.Text
 import java.math.BigDecimal
 import java.math.BigInteger
 import java.text.ParseException
+import java.text.ParsePosition
 import java.time.format.DateTimeFormatter
 import java.time.format.DateTimeParseException
+import java.util.Calendar
+import java.util.Date
+import java.util.Locale
+import java.util.TimeZone
+import java.util.regex.Pattern
 
 private val logger = KotlinLogging.logger {}
-private val integerRegex = Regex("^-?\\d+$")
-private val decimalRegex = Regex("^0|-?\\d+\\.\\d*$")
-private val booleanRegex = Regex("^true|false$")
 
 fun valueOf(value: Any?): String {
   return when (value) {
@@ -210,15 +215,25 @@ fun <M : Mismatch> matchEquality(
   }
 }
 
-@Suppress("ComplexCondition")
 fun <M : Mismatch> matchRegex(
   regex: String,
   path: List<String>,
   expected: Any?,
   actual: Any?,
   mismatchFactory: MismatchFactory<M>
+) = matchRegex(PatternCache.pattern(regex), path, expected, actual, mismatchFactory)
+
+@Suppress("ComplexCondition")
+fun <M : Mismatch> matchRegex(
+  pattern: Pattern,
+  path: List<String>,
+  expected: Any?,
+  actual: Any?,
+  mismatchFactory: MismatchFactory<M>
 ): List<M> {
-  val matches = if (actual == null || actual is JsonValue.Null) false else safeToString(actual).matches(Regex(regex))
+  val regex = pattern.pattern()
+  val matches = if (actual == null || actual is JsonValue.Null) false
+    else pattern.matcher(safeToString(actual)).matches()
   logger.debug { "comparing ${valueOf(actual)} with regexp $regex at $path -> $matches" }
   return if (matches ||
     expected is List<*> && actual is List<*> ||
@@ -231,7 +246,51 @@ fun <M : Mismatch> matchRegex(
   }
 }
 
-@Suppress("ComplexMethod", "ComplexCondition")
+/**
+ * Kind of a value for comparing types. Values are the same type if they are the same kind, with elements and
+ * attributes also needing the same name.
+ */
+private enum class ValueKind(val canBeEmpty: Boolean = false) {
+  NULL, NUMBER, BOOLEAN, JSON_NUMBER, JSON_BOOLEAN, ELEMENT, ATTRIBUTE,
+  STRING(true), LIST(true), ARRAY(true), BYTES(true), JSON_ARRAY(true), MAP(true), JSON_OBJECT(true),
+  OTHER
+}
+
+@Suppress("ComplexMethod")
+private fun kindOf(value: Any?): ValueKind = when (value) {
+  null -> ValueKind.NULL
+  is JsonValue -> when (value) {
+    is JsonValue.StringValue -> ValueKind.STRING
+    is JsonValue.Integer, is JsonValue.Decimal -> ValueKind.JSON_NUMBER
+    is JsonValue.True, is JsonValue.False -> ValueKind.JSON_BOOLEAN
+    is JsonValue.Array -> ValueKind.JSON_ARRAY
+    is JsonValue.Object -> ValueKind.JSON_OBJECT
+    is JsonValue.Null -> ValueKind.NULL
+  }
+  is String -> ValueKind.STRING
+  is Number -> ValueKind.NUMBER
+  is Boolean -> ValueKind.BOOLEAN
+  is Element -> ValueKind.ELEMENT
+  is Attr -> ValueKind.ATTRIBUTE
+  is List<*> -> ValueKind.LIST
+  is Map<*, *> -> ValueKind.MAP
+  is Array<*> -> ValueKind.ARRAY
+  is ByteArray -> ValueKind.BYTES
+  else -> ValueKind.OTHER
+}
+
+private fun isEmptyValue(value: Any?) = when (value) {
+  is String -> value.isEmpty()
+  is JsonValue.StringValue -> value.value.chars.isEmpty()
+  is List<*> -> value.isEmpty()
+  is Array<*> -> value.isEmpty()
+  is ByteArray -> value.isEmpty()
+  is Map<*, *> -> value.isEmpty()
+  is JsonValue.Array -> value.size == 0
+  is JsonValue.Object -> value.size == 0
+  else -> false
+}
+
 fun <M : Mismatch> matchType(
   path: List<String>,
   expected: Any?,
@@ -239,76 +298,29 @@ fun <M : Mismatch> matchType(
   mismatchFactory: MismatchFactory<M>,
   allowEmpty: Boolean
 ): List<M> {
-  val kotlinClass = if (actual != null) {
-    actual::class.qualifiedName
-  } else {
-    "NULL"
-  }
   logger.debug {
+    val kotlinClass = if (actual != null) actual::class.qualifiedName else "NULL"
     "comparing type of [$actual] ($kotlinClass, ${actual?.javaClass?.simpleName}) to " +
       "[$expected] (${expected?.javaClass?.simpleName}) at $path"
   }
-  return if (expected is Number && actual is Number ||
-    expected is Boolean && actual is Boolean ||
-    expected is Element && actual is Element && QualifiedName(actual) == QualifiedName(expected) ||
-    expected is Attr && actual is Attr && QualifiedName(actual) == QualifiedName(expected)
-  ) {
-    emptyList()
-  } else if (isString(expected) && isString(actual) ||
-    expected is List<*> && actual is List<*> ||
-    expected is Array<*> && actual is Array<*> ||
-    expected is ByteArray && actual is ByteArray ||
-    expected is JsonValue.Array && actual is JsonValue.Array ||
-    expected is Map<*, *> && actual is Map<*, *> ||
-    expected is JsonValue.Object && actual is JsonValue.Object) {
-    if (allowEmpty) {
-      emptyList()
-    } else {
-      val empty = when (actual) {
-        is String -> actual.isEmpty()
-        is JsonValue.StringValue -> actual.toString().isEmpty()
-        is List<*> -> actual.isEmpty()
-        is Array<*> -> actual.isEmpty()
-        is ByteArray -> actual.isEmpty()
-        is Map<*, *> -> actual.isEmpty()
-        is JsonValue.Array -> actual.size == 0
-        is JsonValue.Object -> actual.size == 0
-        else -> false
-      }
-      if (empty) {
-        listOf(mismatchFactory.create(expected, actual,
-          "Expected ${valueOf(actual)} (${typeOf(actual)}) to not be empty", path))
-      } else {
-        emptyList()
-      }
-    }
-  } else if (expected is JsonValue && actual is JsonValue &&
-    ((expected.isBoolean && actual.isBoolean) ||
-      (expected.isNumber && actual.isNumber) ||
-      (expected.isString && actual.isString))) {
-    if (allowEmpty) {
-      emptyList()
+  val expectedKind = kindOf(expected)
+  val actualKind = kindOf(actual)
+  val sameType = expectedKind == actualKind && when (expectedKind) {
+    ValueKind.ELEMENT -> QualifiedName(actual as Element) == QualifiedName(expected as Element)
+    ValueKind.ATTRIBUTE -> QualifiedName(actual as Attr) == QualifiedName(expected as Attr)
+    ValueKind.OTHER -> false
+    else -> true
+  }
+  return if (sameType) {
+    if (!allowEmpty && actualKind.canBeEmpty && isEmptyValue(actual)) {
+      listOf(mismatchFactory.create(expected, actual,
+        "Expected ${valueOf(actual)} (${typeOf(actual)}) to not be empty", path))
     } else {
-      val empty = when (actual) {
-        is JsonValue.Array -> actual.size == 0
-        is JsonValue.Object -> actual.size == 0
-        is JsonValue.StringValue -> actual.value.chars.isEmpty()
-        else -> false
-      }
-      if (empty) {
-        listOf(mismatchFactory.create(expected, actual,
-          "Expected ${valueOf(actual)} (${typeOf(actual)}) to not be empty", path))
-      } else {
-        emptyList()
-      }
-    }
-  } else if (expected == null || expected is JsonValue.Null) {
-    if (actual == null || actual is JsonValue.Null) {
       emptyList()
-    } else {
-      listOf(mismatchFactory.create(expected, actual,
-        "Expected ${valueOf(actual)} (${typeOf(actual)}) to be a null value", path))
     }
+  } else if (expectedKind == ValueKind.NULL) {
+    listOf(mismatchFactory.create(expected, actual,
+      "Expected ${valueOf(actual)} (${typeOf(actual)}) to be a null value", path))
   } else {
     listOf(mismatchFactory.create(expected, actual,
       "Expected ${valueOf(actual)} (${typeOf(actual)}) to be the same type as " +
@@ -362,13 +374,11 @@ fun matchDecimal(actual: Any?, context: MatchingContext? = null): Boolean {
     actual is Float -> true
     actual is Double -> true
     actual is BigDecimal && (actual == BigDecimal.ZERO || actual.scale() > 0) -> true
-    actual is JsonValue.Decimal -> {
-      val bigDecimal = actual.toBigDecimal()
-      bigDecimal == BigDecimal.ZERO || bigDecimal.scale() > 0
-    }
-    actual is JsonValue.Integer -> decimalRegex.matches(actual.toString())
-    isString(actual) && context?.coerceNumbers ?: false -> decimalRegex.matches(actual.toString())
-    actual is Node -> decimalRegex.matches(actual.nodeValue)
+    actual is JsonValue.Decimal -> actual.scale() > 0 || actual.scale() == 0 && actual.signum() == 0
+    actual is JsonValue.Integer -> ValueValidators.isDecimal(actual.value.chars)
+    actual is JsonValue.StringValue && context?.coerceNumbers ?: false -> ValueValidators.isDecimal(actual.value.chars)
+    actual is String && context?.coerceNumbers ?: false -> ValueValidators.isDecimal(actual)
+    actual is Node -> ValueValidators.isDecimal(actual.nodeValue)
     else -> false
   }
   logger.debug { "${valueOf(actual)} (${typeOf(actual)}) matches decimal number -> $result" }
@@ -382,9 +392,10 @@ fun matchInteger(actual: Any?, context: MatchingContext? = null): Boolean {
     actual is BigInteger -> true
     actual is JsonValue.Integer -> true
     actual is BigDecimal && actual.scale() == 0 -> true
-    actual is JsonValue.Decimal -> integerRegex.matches(actual.toString())
-    isString(actual) && context?.coerceNumbers ?: false -> integerRegex.matches(actual.toString())
-    actual is Node -> integerRegex.matches(actual.nodeValue)
+    actual is JsonValue.Decimal -> ValueValidators.isInteger(actual.value.chars)
+    actual is JsonValue.StringValue && context?.coerceNumbers ?: false -> ValueValidators.isInteger(actual.value.chars)
+    actual is String && context?.coerceNumbers ?: false -> ValueValidators.isInteger(actual)
+    actual is Node -> ValueValidators.isInteger(actual.nodeValue)
     else -> false
   }
   logger.debug { "${valueOf(actual)} (${typeOf(actual)}) matches integer -> $result" }
@@ -407,8 +418,9 @@ fun <M : Mismatch> matchBoolean(
     expected == null && actual == null -> emptyList()
     actual is Boolean -> emptyList()
     actual is JsonValue && actual.isBoolean -> emptyList()
-    actual is Attr && actual.nodeValue.matches(booleanRegex) -> emptyList()
-    isString(actual) && actual.toString().matches(booleanRegex) -> emptyList()
+    actual is Attr && ValueValidators.isBoolean(actual.nodeValue) -> emptyList()
+    actual is JsonValue.StringValue && ValueValidators.isBoolean(actual.value.chars) -> emptyList()
+    actual is String && ValueValidators.isBoolean(actual) -> emptyList()
     actual is List<*> -> emptyList()
     actual is Map<*, *> -> emptyList()
     else -> listOf(mismatchFactory.create(expected, actual,
@@ -430,7 +442,7 @@ fun <M : Mismatch> matchDate(
     emptyList()
   } else {
     try {
-      DateUtils.parseDate(safeToString(actual), pattern)
+      parseDate(safeToString(actual), pattern)
       emptyList<M>()
     } catch (e: ParseException) {
       listOf(mismatchFactory.create(expected, actual,
@@ -442,6 +454,27 @@ fun <M : Mismatch> matchDate(
 
 fun isCollection(value: Any?) = value is List<*> || value is Map<*, *>
 
+/**
+ * Parses the date the same way as DateUtils.parseDate, but with the parser for the pattern that FastDateFormat caches
+ * instead of building a new parser for every value
+ */
+private fun parseDate(value: String, pattern: String): Date {
+  val timeZone = TimeZone.getDefault()
+  val locale = Locale.getDefault()
+  val parser = FastDateFormat.getInstance(pattern, timeZone, locale)
+  val calendar = Calendar.getInstance(timeZone, locale)
+  calendar.isLenient = true
+  val position = ParsePosition(0)
+  try {
+    if (parser.parse(value, position, calendar) && position.index == value.length) {
+      return calendar.time
+    }
+  } catch (_: IllegalArgumentException) {
+    // the value does not match the pattern
+  }
+  throw ParseException("Unable to parse the date: $value", -1)
+}
+
 fun <M : Mismatch> matchTime(
   pattern: String,
   path: List<String>,
@@ -454,7 +487,7 @@ fun <M : Mismatch> matchTime(
     emptyList()
   } else {
     try {
-      DateUtils.parseDate(safeToString(actual), pattern)
+      parseDate(safeToString(actual), pattern)
       emptyList<M>()
     } catch (e: ParseException) {
       listOf(mismatchFactory.create(expected, actual,
@@ -470,22 +503,49 @@ fun <M : Mismatch> matchDateTime(
   expected: Any?,
   actual: Any?,
   mismatchFactory: MismatchFactory<M>
+): List<M> {
+  return if (isCollection(actual)) {
+    logger.debug { "comparing ${valueOf(actual)} to datetime pattern $pattern at $path" }
+    emptyList()
+  } else {
+    matchDateTime(pattern, dateTimeFormatter(pattern), path, expected, actual, mismatchFactory)
+  }
+}
+
+/**
+ * Returns the formatter to use for a datetime matcher pattern
+ */
+fun dateTimeFormatter(pattern: String): DateTimeFormatter {
+  return if (pattern.endsWith('Z')) {
+    logger.warn {
+      """Found unsupported UTC designator in pattern '$pattern'. Replacing non quote 'Z's with 'X's
+      This is in order to offer backwards compatibility for consumers using the ISO 8601 UTC designator 'Z'
+      Please update your patterns in your pact tests as this may not be supported in future versions."""
+    }
+    DateTimeFormatterCache.formatter(pattern.replace('Z', 'X'))
+  } else {
+    DateTimeFormatterCache.formatter(pattern)
+  }
+}
+
+/**
+ * Matches the value against a datetime pattern, using the formatter already created for the pattern
+ */
+@Suppress("LongParameterList")
+fun <M : Mismatch> matchDateTime(
+  pattern: String,
+  formatter: DateTimeFormatter,
+  path: List<String>,
+  expected: Any?,
+  actual: Any?,
+  mismatchFactory: MismatchFactory<M>
 ): List<M> {
   logger.debug { "comparing ${valueOf(actual)} to datetime pattern $pattern at $path" }
   return if (isCollection(actual)) {
     emptyList()
   } else {
-    var newPattern = pattern
     try {
-      if (pattern.endsWith('Z')) {
-        newPattern = pattern.replace('Z', 'X')
-        logger.warn {
-          """Found unsupported UTC designator in pattern '$pattern'. Replacing non quote 'Z's with 'X's
-          This is in order to offer backwards compatibility for consumers using the ISO 8601 UTC designator 'Z'
-          Please update your patterns in your pact tests as this may not be supported in future versions."""
-        }
-      }
-      DateTimeFormatter.ofPattern(newPattern).parse(safeToString(actual))
+      formatter.parse(safeToString(actual))
       emptyList<M>()
     } catch (e: DateTimeParseException) {
       try {
@@ -496,7 +556,7 @@ fun <M : Mismatch> matchDateTime(
           compatibility with versions < 4.1.1.
           Please update your patterns in your pact tests as this may not be supported in future versions."""
         }
-        DateUtils.parseDate(safeToString(actual), pattern)
+        parseDate(safeToString(actual), pattern)
         emptyList<M>()
       } catch (e: ParseException) {
         listOf(mismatchFactory.create(expected, actual,
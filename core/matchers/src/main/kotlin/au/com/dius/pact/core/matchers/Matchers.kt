@@ -1,7 +1,6 @@
 package au.com.dius.pact.core.matchers
 
-import au.com.dius.pact.core.matchers.util.IndicesCombination
-import au.com.dius.pact.core.matchers.util.LargestKeyValue
+import au.com.dius.pact.core.matchers.util.BipartiteMatching
 import au.com.dius.pact.core.matchers.util.memoizeFixed
 import au.com.dius.pact.core.matchers.util.padTo
 import au.com.dius.pact.core.model.DocPath
@@ -22,7 +21,6 @@ import au.com.dius.pact.core.model.matchingrules.ValuesMatcher
 import au.com.dius.pact.core.model.parsePath
 import au.com.dius.pact.core.support.Either
 import io.github.oshai.kotlinlogging.KotlinLogging
-import java.math.BigInteger
 import java.util.Comparator
 
 private val logger = KotlinLogging.logger {}
@@ -63,7 +61,8 @@ object Matchers {
     pathComparator: Comparator<String> = Comparator.naturalOrder()
   ): List<M> {
     val matcherDef = context.selectBestMatcher(path, pathComparator)
-    return domatch(matcherDef, path, expected, actual, mismatchFn, context)
+    return MatchingRuleEvaluator.forGroup(context.matchers, matcherDef)
+      .evaluate(path, expected, actual, mismatchFn, matcherDef.cascaded, context)
   }
 
   /**
@@ -91,9 +90,9 @@ object Matchers {
                 BodyItemMatchResult(
                   constructPath(path),
                   listOf(
-                    BodyMismatch(
+                    BodyMismatch.withLazyDiff(
                       expectedEntries, actualEntries,
-                      "Found an un-resolved reference ${it.value.name}", constructPath(path), generateDiff()
+                      "Found an un-resolved reference ${it.value.name}", constructPath(path), generateDiff
                     )
                   )
                 )
@@ -108,26 +107,25 @@ object Matchers {
             matcherPath to MatchingRuleGroup(associatedRules.toMutableList())
           )),
           context.allowUnexpectedKeys,
-          context.pluginConfiguration
+          context.pluginConfiguration,
+          parallelMatching = context.parallelMatching
         )
       } else {
         context
       }
-      actualEntries.entries.forEach { (key, value) ->
+      result.addAll(context.compareElements(actualEntries.entries.toList()) { (key, value) ->
         if (expectedEntries.containsKey(key)) {
-          result.addAll(callback(path + key, expectedEntries[key]!!, value, subContext))
+          callback(path + key, expectedEntries[key]!!, value, subContext)
         } else {
-          result.addAll(callback(path + key, expectedEntries.values.firstOrNull(), value, subContext))
+          callback(path + key, expectedEntries.values.firstOrNull(), value, subContext)
         }
-      }
+      })
     } else {
       result.addAll(context.matchKeys(path, expectedEntries, actualEntries, generateDiff))
-      if (matcher !is EachKeyMatcher) {
-        expectedEntries.entries.forEach { (key, value) ->
-          if (actualEntries.containsKey(key)) {
-            result.addAll(callback(path + key, value, actualEntries[key], context))
-          }
-        }
+      if (matcher !is EachKeyMatcher && !context.shouldStop(result)) {
+        result.addAll(context.compareElements(expectedEntries.keys.filter { actualEntries.containsKey(it) }) { key ->
+          callback(path + key, expectedEntries[key], actualEntries[key], context)
+        })
       }
     }
     return result
@@ -149,6 +147,9 @@ object Matchers {
       val matchResult = domatch(matcher, path, expectedList, actualList, BodyMismatchFactory, cascaded)
       if (matchResult.isNotEmpty()) {
         result.add(BodyItemMatchResult(constructPath(path), matchResult))
+        if (context.failFast) {
+          return result
+        }
       }
     }
     if (expectedList.isNotEmpty()) {
@@ -187,17 +188,17 @@ object Matchers {
               }
               if (noneMatched) {
                 result.add(BodyItemMatchResult(constructPath(path),
-                  listOf(BodyMismatch(expectedValue, actualList,
+                  listOf(BodyMismatch.withLazyDiff(expectedValue, actualList,
                     "Variant at index $index ($expectedValue) was not found in the actual list",
-                    constructPath(path), generateDiff()
+                    constructPath(path), generateDiff
                   ))
                 ))
               }
             } else {
               result.add(BodyItemMatchResult(constructPath(path),
-                listOf(BodyMismatch(expectedList, actualList,
+                listOf(BodyMismatch.withLazyDiff(expectedList, actualList,
                   "ArrayContains: variant $index is missing from the expected list, which has " +
-                    "${expectedList.size} items", constructPath(path), generateDiff()
+                    "${expectedList.size} items", constructPath(path), generateDiff
                 ))
               ))
             }
@@ -213,9 +214,9 @@ object Matchers {
                   BodyItemMatchResult(
                     constructPath(path),
                     listOf(
-                      BodyMismatch(
+                      BodyMismatch.withLazyDiff(
                         expectedList, actualList,
-                        "Found an un-resolved reference ${it.value.name}", constructPath(path), generateDiff()
+                        "Found an un-resolved reference ${it.value.name}", constructPath(path), generateDiff
                       )
                     )
                   )
@@ -230,7 +231,8 @@ object Matchers {
               matcherPath to MatchingRuleGroup(associatedRules.toMutableList())
             )),
             context.allowUnexpectedKeys,
-            context.pluginConfiguration
+            context.pluginConfiguration,
+            parallelMatching = context.parallelMatching
           )
           result.addAll(compareListContent(expectedList.padTo(actualList.size, expectedList.first()),
             actualList, path, newContext, generateDiff, callback))
@@ -265,7 +267,15 @@ object Matchers {
   }
 
   /**
-   * Compares every permutation of actual against expected.
+   * Compares the actual list against the expected list, ignoring the order of the elements.
+   *
+   * This is a maximum bipartite matching between the expected and actual elements, where an edge is a pair of
+   * elements that match. Every expected element must be matched with a different actual element. Any extra actual
+   * elements that are not matched must match the rules defined directly for their index. These are added to the graph
+   * as (actual size - expected size) placeholder expected elements that can be matched with those actual elements,
+   * so the list matches if all the expected elements (real and placeholder) can be matched. This takes O(n^2) compares
+   * and O(n^2.5) time in the worst case, and just O(n) compares if the lists are already in the same order. Working
+   * out which mismatches to report when the lists do not match takes O(n^3) time in the worst case.
    */
   @Suppress("LongParameterList")
   fun <T> compareListContentUnordered(
@@ -284,73 +294,58 @@ object Matchers {
       callback(path + expectedIndex.toString(), expectedList[expectedIndex], actualList[actualIndex], context)
     }.memoizeFixed(expectedList.size, actualList.size)
 
-    val longestMatch = LargestKeyValue<Int, IndicesCombination>()
-    val examinedActualIndicesCombos = HashSet<BigInteger>()
-    /**
-     * Determines if a matching permutation exists.
-     *
-     * Note: this algorithm seems to have a worst case O(n*2^n) time and O(2^n) space complexity
-     * if a lot of the actuals match a lot of the expected (e.g., if expected uses regex matching
-     * with something like [3|2|1, 2|1, 1]). Without the caching, the time complexity jumps to
-     * around O(2^2n). Caching/memoization is also used above for compare, to effectively achieve
-     * just O(n^2) calls instead of O(2^n).
-     *
-     * For most normal cases, average performance should be closer to O(n^2) time and O(n) space
-     * complexity if there aren't many duplicate matches. Best case is O(n)/O(n) if its already
-     * in order.
-     *
-     * @param expectedIndex index of expected being compared against
-     * @param actualIndices combination of remaining actual indices to compare
-     */
-    fun hasMatchingPermutation(
-      expectedIndex: Int = 0,
-      actualIndices: IndicesCombination = IndicesCombination.of(actualList.size)
-    ): Boolean {
-      return if (actualIndices.comboId in examinedActualIndicesCombos) {
-        false
-      } else {
-        examinedActualIndicesCombos.add(actualIndices.comboId)
-        longestMatch.useIfLarger(expectedIndex, actualIndices)
-        when {
-          expectedIndex < expectedList.size -> {
-            actualIndices.indices().any { actualIndex ->
-              memoizedCompare(expectedIndex, actualIndex).all {
-                it.result.isEmpty()
-              } && hasMatchingPermutation(expectedIndex + 1, actualIndices - actualIndex)
-            }
-          }
-          actualList.size > expectedList.size -> {
-            actualIndices.indices().all { actualIndex ->
-              memoizedActualCompare(actualIndex).all {
-                it.result.isEmpty()
-              }
-            }
-          }
-          else -> true
-        }
-      }
+    val matches = { expectedIndex: Int, actualIndex: Int ->
+      memoizedCompare(expectedIndex, actualIndex).all { it.result.isEmpty() }
+    }
+    val extraActualMatches = { actualIndex: Int -> memoizedActualCompare(actualIndex).all { it.result.isEmpty() } }
+
+    val inOrder = expectedList.size <= actualList.size && expectedList.indices.all { matches(it, it) } &&
+      (expectedList.size until actualList.size).all { extraActualMatches(it) }
+    if (inOrder) {
+      return emptyList()
     }
 
-    return if (hasMatchingPermutation()) {
+    val adjacency = expectedList.indices.map { expectedIndex ->
+      actualList.indices.filter { matches(expectedIndex, it) }.toIntArray()
+    }.toMutableList()
+    if (actualList.size > expectedList.size) {
+      val extraActualIndices = actualList.indices.filter { extraActualMatches(it) }.toIntArray()
+      repeat(actualList.size - expectedList.size) { adjacency.add(extraActualIndices) }
+    }
+    val matching = BipartiteMatching(adjacency, actualList.size)
+    val expectedMatched = matching.augment(expectedList.size)
+
+    return if (matching.augment() == adjacency.size) {
       emptyList()
     } else {
-      val smallestCombo = longestMatch.value ?: IndicesCombination.of(actualList.size)
-      val longestMatch = longestMatch.key ?: 0
+      // Report the mismatches for the expected elements after the longest prefix of the expected list that can be
+      // matched, against the actual elements that are left over
+      val (matchedExpected, remainingMatching) = if (expectedMatched < expectedList.size) {
+        val prefixMatching = BipartiteMatching(adjacency.subList(0, expectedList.size), actualList.size)
+        val prefix = expectedList.indices.first { prefixMatching.augment(it + 1) <= it }
+        prefix to prefixMatching
+      } else {
+        expectedList.size to matching
+      }
+      val remainingActual = actualList.indices.filter {
+        val expectedIndex = remainingMatching.leftMatch(it)
+        expectedIndex == BipartiteMatching.UNMATCHED || expectedIndex >= matchedExpected
+      }
 
-      val remainingErrors = smallestCombo.indices().map { actualIndex ->
-        (longestMatch until expectedList.size).map { expectedIndex ->
+      val remainingErrors = remainingActual.map { actualIndex ->
+        (matchedExpected until expectedList.size).map { expectedIndex ->
           memoizedCompare(expectedIndex, actualIndex).flatMap { it.result }
         }.flatten() + if (actualList.size > expectedList.size) {
           memoizedActualCompare(actualIndex).flatMap { it.result }
         } else emptyList()
-      }.toList().flatten()
+      }.flatten()
         .groupBy { it.path }
         .map { (path, mismatches) -> BodyItemMatchResult(path, mismatches) }
 
       listOf(BodyItemMatchResult(constructPath(path),
-        listOf(BodyMismatch(expectedList, actualList,
+        listOf(BodyMismatch.withLazyDiff(expectedList, actualList,
           "Expected $expectedList to match $actualList ignoring order of elements",
-          constructPath(path), generateDiff()
+          constructPath(path), generateDiff
         ))
       )) + remainingErrors
     }
@@ -364,17 +359,18 @@ object Matchers {
     generateDiff: () -> String,
     callback: (List<String>, T, T, MatchingContext) -> List<BodyItemMatchResult>
   ): List<BodyItemMatchResult> {
-    val result = mutableListOf<BodyItemMatchResult>()
-    for ((index, value) in expectedList.withIndex()) {
+    return context.compareElements(expectedList.indices.toList()) { index ->
+      val value = expectedList[index]
       if (index < actualList.size) {
-        result.addAll(callback(path + index.toString(), value, actualList[index], context))
+        callback(path + index.toString(), value, actualList[index], context)
       } else if (!context.matcherDefined(path)) {
-        result.add(BodyItemMatchResult(constructPath(path),
-          listOf(BodyMismatch(expectedList, actualList,
+        listOf(BodyItemMatchResult(constructPath(path),
+          listOf(BodyMismatch.withLazyDiff(expectedList, actualList,
             "Expected $value but was missing",
-            constructPath(path), generateDiff()))))
+            constructPath(path), generateDiff))))
+      } else {
+        emptyList()
       }
     }
-    return result
   }
 }
@@ -11,12 +11,14 @@ import au.com.dius.pact.core.model.matchingrules.EqualsIgnoreOrderMatcher
 import au.com.dius.pact.core.model.matchingrules.MatchingRule
 import au.com.dius.pact.core.model.matchingrules.MatchingRuleCategory
 import au.com.dius.pact.core.model.matchingrules.MatchingRuleGroup
+import au.com.dius.pact.core.model.matchingrules.MatchingRulePathIndex
 import au.com.dius.pact.core.model.matchingrules.MaxEqualsIgnoreOrderMatcher
 import au.com.dius.pact.core.model.matchingrules.MinEqualsIgnoreOrderMatcher
 import au.com.dius.pact.core.model.matchingrules.MinMaxEqualsIgnoreOrderMatcher
 import au.com.dius.pact.core.model.matchingrules.ValuesMatcher
 import au.com.dius.pact.core.model.parsePath
 import au.com.dius.pact.core.support.padTo
+import au.com.dius.pact.core.support.regex.PatternCache
 import io.pact.plugins.jvm.core.PluginConfiguration
 import io.github.oshai.kotlinlogging.KotlinLogging
 import org.apache.commons.codec.binary.Hex
@@ -28,18 +30,61 @@ data class MatchingContext @JvmOverloads constructor(
   val matchers: MatchingRuleCategory,
   val allowUnexpectedKeys: Boolean,
   val pluginConfiguration: Map<String, PluginConfiguration> = mapOf(),
-  val coerceNumbers: Boolean = false
+  val coerceNumbers: Boolean = false,
+  /** If matching can stop at the first mismatch, because only whether the values match is needed */
+  val failFast: Boolean = false,
+  /** If set, large arrays and objects have their elements compared in parallel */
+  val parallelMatching: ParallelMatching? = null
 ) {
+  /**
+   * If matching should stop because fail fast is enabled and the results contain a mismatch
+   */
+  fun shouldStop(results: List<BodyItemMatchResult>) = failFast && results.any { it.result.isNotEmpty() }
+
+  /**
+   * Compares the elements of an array or object, returning the results in the order of the elements. The elements are
+   * compared in parallel if parallel matching is enabled and there are enough of them, otherwise one after the other,
+   * stopping at the first mismatch when fail fast is enabled.
+   */
+  fun <T> compareElements(
+    elements: List<T>,
+    compare: (T) -> List<BodyItemMatchResult>
+  ): List<BodyItemMatchResult> {
+    return if (parallelMatching != null && !failFast && elements.size >= parallelMatching.threshold) {
+      parallelMatching.compare(elements, compare)
+    } else {
+      val result = mutableListOf<BodyItemMatchResult>()
+      for (element in elements) {
+        val itemResult = compare(element)
+        result.addAll(itemResult)
+        if (shouldStop(itemResult)) {
+          break
+        }
+      }
+      result
+    }
+  }
+
   @JvmOverloads
   fun matcherDefined(path: List<String>, pathComparator: Comparator<String> = Comparator.naturalOrder()): Boolean {
-    return resolveMatchers(path, pathComparator)
+    return if (isPathCategory()) {
+      matchers.matchingPaths(path).any {
+        it.ruleGroup.rules.isNotEmpty() && (it.ruleGroup.rules.none { rule -> rule is ValuesMatcher } ||
+          it.tokenCount == path.size)
+      }
+    } else {
+      resolveMatchers(path, pathComparator)
         .filter2 { (p, ruleGroup) -> ruleGroup.rules.none { it is ValuesMatcher } || parsePath(p).size == path.size }
         .isNotEmpty()
+    }
   }
 
+  private fun isPathCategory() = matchers.name == "body" || matchers.name == "content"
+
   private fun resolveMatchers(path: List<String>, pathComparator: Comparator<String>): MatchingRuleCategory {
     return when (matchers.name) {
-      "body", "content" -> matchers.filter { Matchers.matchesPath(it, path) > 0 }
+      "body", "content" -> matchers.copy(matchingRules = matchers.matchingPaths(path)
+        .associateTo(LinkedHashMap()) { it.pathExp to it.ruleGroup })
       "header", "query", "metadata" -> matchers.filter { key -> path.all { pathComparator.compare(key, it) == 0 } }
       else -> matchers
     }
@@ -50,15 +95,15 @@ data class MatchingContext @JvmOverloads constructor(
     path: List<String>,
     pathComparator: Comparator<String> = Comparator.naturalOrder()
   ): MatchingRuleGroup {
-    val matcherCategory = resolveMatchers(path, pathComparator)
-    return if (matchers.name == "body") {
-      val result = matcherCategory.matchingRules
-          .map { BestMatcherResult(path = path, pathExp = it.key, ruleGroup = it.value) }
-          .filter { it.pathWeight > 0 }
-          .maxWithOrNull(compareBy<BestMatcherResult> { it.pathWeight }.thenBy { it.pathExp.length })
-      result?.ruleGroup?.copy(cascaded = result.pathTokens.size < path.size) ?: MatchingRuleGroup()
-    } else {
-      matcherCategory.matchingRules.values.firstOrNull() ?: MatchingRuleGroup()
+    return when (matchers.name) {
+      "body" -> {
+        val result = matchers.matchingPaths(path)
+          .filter { it.ruleGroup.rules.none { rule -> rule is ValuesMatcher } || it.tokenCount == path.size }
+          .maxWithOrNull(compareBy<MatchingRulePathIndex.PathMatch> { it.weight }.thenBy { it.pathExp.length })
+        result?.ruleGroup?.copy(cascaded = result.tokenCount < path.size) ?: MatchingRuleGroup()
+      }
+      "content" -> matchers.matchingPaths(path).firstOrNull()?.ruleGroup ?: MatchingRuleGroup()
+      else -> resolveMatchers(path, pathComparator).matchingRules.values.firstOrNull() ?: MatchingRuleGroup()
     }
   }
 
@@ -70,8 +115,11 @@ data class MatchingContext @JvmOverloads constructor(
   }
 
   fun typeMatcherDefined(path: List<String>): Boolean {
-    val resolvedMatchers = resolveMatchers(path, Comparator.naturalOrder())
-    return resolvedMatchers.allMatchingRules().any { it.isTypeMatcher() }
+    return if (isPathCategory()) {
+      matchers.matchingPaths(path).any { match -> match.ruleGroup.rules.any { it.isTypeMatcher() } }
+    } else {
+      resolveMatchers(path, Comparator.naturalOrder()).allMatchingRules().any { it.isTypeMatcher() }
+    }
   }
 
   fun <T> matchKeys(
@@ -93,10 +141,10 @@ data class MatchingContext @JvmOverloads constructor(
         result.add(
           BodyItemMatchResult(
             constructPath(path), listOf(
-              BodyMismatch(
+              BodyMismatch.withLazyDiff(
                 expectedEntries, actualEntries,
                 "Actual map is missing the following keys: ${missingKeys.joinToString(", ")}",
-                constructPath(path), generateDiff()
+                constructPath(path), generateDiff
               )
             )
           )
@@ -105,11 +153,11 @@ data class MatchingContext @JvmOverloads constructor(
         result.add(
           BodyItemMatchResult(
             constructPath(path), listOf(
-              BodyMismatch(
+              BodyMismatch.withLazyDiff(
                 expectedEntries, actualEntries,
                 "Expected a Map with keys $expectedKeys " +
                   "but received one with keys $actualKeysSorted",
-                constructPath(path), generateDiff()
+                constructPath(path), generateDiff
               )
             )
           )
@@ -143,6 +191,15 @@ data class MatchingContext @JvmOverloads constructor(
     matchers: List<Class<out MatchingRule>> = emptyList(),
     pathComparator: Comparator<String> = Comparator.naturalOrder()
   ): Boolean {
+    if (isPathCategory()) {
+      val resolvedGroups = this.matchers.matchingPaths(path).filter { it.tokenCount == path.size }.map { it.ruleGroup }
+      return if (matchers.isEmpty()) {
+        resolvedGroups.any { it.rules.isNotEmpty() }
+      } else {
+        resolvedGroups.any { it.any(matchers) }
+      }
+    }
+
     val resolvedMatchers = resolveMatchers(path, pathComparator).filter {
       parsePath(it).size == path.size
     }
@@ -309,7 +366,7 @@ object Matching {
     return if (context.matcherDefined(emptyList())) {
       val mismatch = Matchers.domatch(context, emptyList(), expected.path, replacedActual, PathMismatchFactory)
       mismatch.firstOrNull()
-    } else if (expected.path == replacedActual || replacedActual.matches(Regex(expected.path))) null
+    } else if (expected.path == replacedActual || PatternCache.matches(expected.path, replacedActual)) null
     else PathMismatch(expected.path, replacedActual)
   }
 
@@ -2,6 +2,8 @@ package au.com.dius.pact.core.matchers
 
 import au.com.dius.pact.core.model.ContentType
 import au.com.dius.pact.core.model.plugins.PluginSupportRegistry
+import au.com.dius.pact.core.support.PactRuntimeConfig
+import au.com.dius.pact.core.support.regex.PatternCache
 import io.pact.plugins.jvm.core.CatalogueEntry
 import io.pact.plugins.jvm.core.CatalogueEntryProviderType
 import io.pact.plugins.jvm.core.CatalogueEntryType
@@ -56,12 +58,12 @@ object MatchingConfig {
   }
 
   private fun coreContentMatcher(contentType: String): ContentMatcher? {
-    return when (val override = System.getProperty("pact.content_type.override.$contentType")) {
+    return when (val override = PactRuntimeConfig.current().contentTypeOverride(contentType)) {
       "json" -> JsonContentMatcher
       "text" -> PlainTextContentMatcher()
       is String -> lookupContentMatcher(override)
       else -> {
-        val matcher = coreBodyMatchers.entries.find { contentType.matches(Regex(it.key)) }?.value
+        val matcher = coreBodyMatchers.entries.find { PatternCache.matches(it.key, contentType) }?.value
         if (matcher != null) {
           val clazz = Class.forName(matcher).kotlin
           (clazz.objectInstance ?: clazz.createInstance()) as ContentMatcher?
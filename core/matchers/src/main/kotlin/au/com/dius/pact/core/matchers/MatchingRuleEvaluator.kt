@@ -0,0 +1,280 @@
+package au.com.dius.pact.core.matchers
+
+import au.com.dius.pact.core.model.ContentType
+import au.com.dius.pact.core.model.matchingrules.ArrayContainsMatcher
+import au.com.dius.pact.core.model.matchingrules.BooleanMatcher
+import au.com.dius.pact.core.model.matchingrules.ContentTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.EachKeyMatcher
+import au.com.dius.pact.core.model.matchingrules.EachValueMatcher
+import au.com.dius.pact.core.model.matchingrules.EqualsMatcher
+import au.com.dius.pact.core.model.matchingrules.IncludeMatcher
+import au.com.dius.pact.core.model.matchingrules.MatchingRule
+import au.com.dius.pact.core.model.matchingrules.MatchingRuleCategory
+import au.com.dius.pact.core.model.matchingrules.MatchingRuleGroup
+import au.com.dius.pact.core.model.matchingrules.MatchingRuleGroupCompiler
+import au.com.dius.pact.core.model.matchingrules.MaxTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.MinMaxTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.MinTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.NotEmptyMatcher
+import au.com.dius.pact.core.model.matchingrules.NullMatcher
+import au.com.dius.pact.core.model.matchingrules.NumberTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.RegexMatcher
+import au.com.dius.pact.core.model.matchingrules.RuleLogic
+import au.com.dius.pact.core.model.matchingrules.TimestampMatcher
+import au.com.dius.pact.core.model.matchingrules.TypeMatcher
+import au.com.dius.pact.core.model.matchingrules.ValuesMatcher
+import au.com.dius.pact.core.support.regex.PatternCache
+import io.github.oshai.kotlinlogging.KotlinLogging
+import java.time.format.DateTimeFormatter
+import java.util.regex.Pattern
+
+private val logger = KotlinLogging.logger {}
+
+/**
+ * A matching rule (or group of rules) compiled into an evaluator. Any state the rule needs, like compiled regexes,
+ * date formatters or content types, is created once when it is compiled instead of for every value it is applied to.
+ * Evaluators are stateless, so can be shared between threads.
+ */
+interface MatchingRuleEvaluator {
+  /**
+   * Applies the rule to the actual value, returning any mismatches
+   */
+  @Suppress("LongParameterList")
+  fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ): List<M>
+
+  companion object {
+    /**
+     * Compiles a single matching rule
+     */
+    @JvmStatic
+    @Suppress("ComplexMethod")
+    fun compile(rule: MatchingRule): MatchingRuleEvaluator {
+      return when (rule) {
+        is RegexMatcher -> compileOrDefault(rule) { RegexEvaluator(PatternCache.pattern(rule.regex)) }
+        is TypeMatcher -> TypeEvaluator(true)
+        is NotEmptyMatcher -> TypeEvaluator(false)
+        is NumberTypeMatcher -> NumberEvaluator(rule.numberType)
+        is BooleanMatcher -> BooleanEvaluator
+        is TimestampMatcher -> compileOrDefault(rule) { DateTimeEvaluator(rule.format, dateTimeFormatter(rule.format)) }
+        is MinTypeMatcher -> MinMaxTypeEvaluator(rule.min, null)
+        is MaxTypeMatcher -> MinMaxTypeEvaluator(null, rule.max)
+        is MinMaxTypeMatcher -> MinMaxTypeEvaluator(rule.min, rule.max)
+        is IncludeMatcher -> IncludeEvaluator(rule.value)
+        is NullMatcher -> NullEvaluator
+        is EqualsMatcher -> EqualityEvaluator
+        is ContentTypeMatcher -> ContentTypeEvaluator(ContentType.fromString(rule.contentType))
+        is ArrayContainsMatcher, is EachKeyMatcher, is EachValueMatcher, is ValuesMatcher -> NoOpEvaluator
+        else -> RuleEvaluator(rule)
+      }
+    }
+
+    /**
+     * Compiles a group of matching rules, combined with the rule logic of the group
+     */
+    @JvmStatic
+    fun compile(group: MatchingRuleGroup): MatchingRuleEvaluator {
+      return when (group.rules.size) {
+        0 -> NoOpEvaluator
+        1 -> compile(group.rules.first())
+        else -> GroupEvaluator(group.rules.map { compile(it) }, group.ruleLogic)
+      }
+    }
+
+    /**
+     * Returns the compiled rule group, from the cache of the category. The group is compiled the first time it is
+     * used with the category.
+     */
+    @JvmStatic
+    fun forGroup(category: MatchingRuleCategory, group: MatchingRuleGroup): MatchingRuleEvaluator {
+      return category.compiledRuleGroup(group, groupCompiler)
+    }
+
+    private val groupCompiler = MatchingRuleGroupCompiler { compile(it) }
+
+    /**
+     * Rules with invalid definitions (like an invalid regex) are left to fail when they are applied to a value, the
+     * same as they would if they were not compiled
+     */
+    private fun compileOrDefault(rule: MatchingRule, compile: () -> MatchingRuleEvaluator): MatchingRuleEvaluator {
+      return try {
+        compile()
+      } catch (e: IllegalArgumentException) {
+        logger.debug(e) { "Failed to compile matching rule $rule" }
+        RuleEvaluator(rule)
+      }
+    }
+  }
+}
+
+/**
+ * Evaluator for the rules that do not have any state to compile. It calls domatch with the rule.
+ */
+private class RuleEvaluator(private val rule: MatchingRule) : MatchingRuleEvaluator {
+  override fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ) = domatch(rule, path, expected, actual, mismatchFn, cascaded, context)
+}
+
+private class GroupEvaluator(
+  private val evaluators: List<MatchingRuleEvaluator>,
+  private val ruleLogic: RuleLogic
+) : MatchingRuleEvaluator {
+  override fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ): List<M> {
+    val result = mutableListOf<M>()
+    for (evaluator in evaluators) {
+      val mismatches = evaluator.evaluate(path, expected, actual, mismatchFn, cascaded, context)
+      if (ruleLogic == RuleLogic.OR && mismatches.isEmpty()) {
+        return emptyList()
+      }
+      result.addAll(mismatches)
+    }
+    return result
+  }
+}
+
+private object NoOpEvaluator : MatchingRuleEvaluator {
+  override fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ) = emptyList<M>()
+}
+
+private class RegexEvaluator(private val pattern: Pattern) : MatchingRuleEvaluator {
+  override fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ) = matchRegex(pattern, path, expected, actual, mismatchFn)
+}
+
+private class TypeEvaluator(private val allowEmpty: Boolean) : MatchingRuleEvaluator {
+  override fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ) = matchType(path, expected, actual, mismatchFn, allowEmpty)
+}
+
+private class NumberEvaluator(private val numberType: NumberTypeMatcher.NumberType) : MatchingRuleEvaluator {
+  override fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ) = matchNumber(numberType, path, expected, actual, mismatchFn, context)
+}
+
+private object BooleanEvaluator : MatchingRuleEvaluator {
+  override fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ) = matchBoolean(path, expected, actual, mismatchFn)
+}
+
+private class DateTimeEvaluator(
+  private val pattern: String,
+  private val formatter: DateTimeFormatter
+) : MatchingRuleEvaluator {
+  override fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ) = matchDateTime(pattern, formatter, path, expected, actual, mismatchFn)
+}
+
+private class MinMaxTypeEvaluator(private val min: Int?, private val max: Int?) : MatchingRuleEvaluator {
+  override fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ): List<M> {
+    val minResult = if (min != null) matchMinType(min, path, expected, actual, mismatchFn, cascaded) else emptyList()
+    val maxResult = if (max != null) matchMaxType(max, path, expected, actual, mismatchFn, cascaded) else emptyList()
+    return if (maxResult.isEmpty()) minResult else minResult + maxResult
+  }
+}
+
+private class IncludeEvaluator(private val value: String) : MatchingRuleEvaluator {
+  override fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ) = matchInclude(value, path, expected, actual, mismatchFn)
+}
+
+private object NullEvaluator : MatchingRuleEvaluator {
+  override fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ) = matchNull(path, actual, mismatchFn)
+}
+
+private object EqualityEvaluator : MatchingRuleEvaluator {
+  override fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ) = matchEquality(path, expected, actual, mismatchFn)
+}
+
+private class ContentTypeEvaluator(private val contentType: ContentType) : MatchingRuleEvaluator {
+  override fun <M : Mismatch> evaluate(
+    path: List<String>,
+    expected: Any?,
+    actual: Any?,
+    mismatchFn: MismatchFactory<M>,
+    cascaded: Boolean,
+    context: MatchingContext?
+  ) = matchContentType(path, contentType, actual, mismatchFn)
+}
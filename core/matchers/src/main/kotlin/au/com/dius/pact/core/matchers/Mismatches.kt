@@ -4,6 +4,7 @@ import au.com.dius.pact.core.model.constructPath
 import au.com.dius.pact.core.model.matchingrules.HttpStatus
 import au.com.dius.pact.core.support.isNotEmpty
 import com.github.ajalt.mordant.TermColors
+import java.util.Objects
 
 /**
  * Interface to a factory class to create a mismatch
@@ -148,15 +149,46 @@ object HeaderMismatchFactory : MismatchFactory<HeaderMismatch> {
     HeaderMismatch(path.last(), expected.toString(), actual.toString(), message)
 }
 
-data class BodyMismatch @JvmOverloads constructor(
+/**
+ * Mismatch of a body. The diff can be generated lazily (see [withLazyDiff]), in which case it is only generated the
+ * first time [diff] is read (like when a report is rendered) instead of when the mismatch is created. The diff is
+ * left out of equals, hashCode and toString, so they never generate it.
+ */
+data class BodyMismatch(
   val expected: Any?,
   val actual: Any?,
   val mismatch: String,
-  val path: String = "/",
-  val diff: String? = null
+  val path: String,
+  private val lazyDiff: Lazy<String?>?
 ) : Mismatch() {
+  @JvmOverloads
+  constructor(expected: Any?, actual: Any?, mismatch: String, path: String = "/", diff: String? = null) :
+    this(expected, actual, mismatch, path, lazyOf(diff))
+
+  val diff: String?
+    get() = lazyDiff?.value
+
   override fun description() = mismatch
   override fun type() = "body"
+
+  override fun equals(other: Any?): Boolean {
+    if (this === other) return true
+    if (other !is BodyMismatch) return false
+    return expected == other.expected && actual == other.actual && mismatch == other.mismatch && path == other.path
+  }
+
+  override fun hashCode() = Objects.hash(expected, actual, mismatch, path)
+
+  override fun toString() = "BodyMismatch(expected=$expected, actual=$actual, mismatch=$mismatch, path=$path)"
+
+  companion object {
+    /**
+     * Creates a mismatch with a diff that is generated the first time it is used
+     */
+    @JvmStatic
+    fun withLazyDiff(expected: Any?, actual: Any?, mismatch: String, path: String, diff: () -> String?) =
+      BodyMismatch(expected, actual, mismatch, path, lazy(diff))
+  }
 }
 
 object BodyMismatchFactory : MismatchFactory<BodyMismatch> {
@@ -0,0 +1,82 @@
+package au.com.dius.pact.core.matchers
+
+import au.com.dius.pact.core.support.PactRuntimeConfig
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ForkJoinTask
+import java.util.concurrent.RecursiveTask
+
+/**
+ * Compares the elements of large arrays and objects in parallel with a fork/join pool. Each element comparison is
+ * independent, so the elements are split into ranges that are compared as separate tasks, and the results are joined
+ * in the order of the elements. The results are the same as comparing the elements one after the other.
+ *
+ * @param threshold minimum number of elements for them to be compared in parallel
+ * @param pool pool the comparisons run in
+ */
+class ParallelMatching @JvmOverloads constructor(
+  val threshold: Int,
+  val pool: ForkJoinPool = ForkJoinPool.commonPool()
+) {
+  init {
+    require(threshold > 0) { "The threshold for parallel matching must be greater than zero, got $threshold" }
+  }
+
+  /**
+   * Compares the items in parallel, returning the results in the order of the items
+   */
+  fun <T> compare(items: List<T>, compare: (T) -> List<BodyItemMatchResult>): List<BodyItemMatchResult> {
+    val task = CompareTask(items, 0, items.size, splitSize(items.size), compare)
+    // Nested arrays and objects are compared from a worker thread, so are forked in the same pool
+    return if (ForkJoinTask.getPool() === pool) task.invoke() else pool.invoke(task)
+  }
+
+  /**
+   * Splits the items into a few ranges for each thread, so that threads that finish early can steal the remaining ones
+   */
+  private fun splitSize(count: Int) = maxOf(MIN_SPLIT_SIZE, count / (pool.parallelism * RANGES_PER_THREAD))
+
+  private class CompareTask<T>(
+    private val items: List<T>,
+    private val from: Int,
+    private val to: Int,
+    private val splitSize: Int,
+    private val compare: (T) -> List<BodyItemMatchResult>
+  ) : RecursiveTask<List<BodyItemMatchResult>>() {
+    override fun compute(): List<BodyItemMatchResult> {
+      return if (to - from <= splitSize) {
+        (from until to).flatMap { compare(items[it]) }
+      } else {
+        val middle = (from + to) ushr 1
+        val second = CompareTask(items, middle, to, splitSize, compare)
+        second.fork()
+        val first = CompareTask(items, from, middle, splitSize, compare).compute()
+        first + second.join()
+      }
+    }
+  }
+
+  companion object {
+    private const val MIN_SPLIT_SIZE = 16
+    private const val RANGES_PER_THREAD = 4
+    private val pools = ConcurrentHashMap<Int, ForkJoinPool>()
+
+    /**
+     * Parallel matching as configured with `pact.matching.parallel.threshold` and `pact.matching.parallel.poolSize`,
+     * or null if it is not enabled. The pools are shared by all the matching with the same pool size.
+     */
+    @JvmStatic
+    fun fromRuntimeConfig(config: PactRuntimeConfig): ParallelMatching? {
+      return if (config.parallelMatchingThreshold > 0) {
+        val pool = if (config.parallelMatchingPoolSize > 0) {
+          pools.computeIfAbsent(config.parallelMatchingPoolSize) { ForkJoinPool(it) }
+        } else {
+          ForkJoinPool.commonPool()
+        }
+        ParallelMatching(config.parallelMatchingThreshold, pool)
+      } else {
+        null
+      }
+    }
+  }
+}
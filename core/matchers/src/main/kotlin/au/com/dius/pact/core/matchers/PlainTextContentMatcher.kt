@@ -4,8 +4,10 @@ import au.com.dius.pact.core.model.ContentType
 import au.com.dius.pact.core.model.OptionalBody
 import au.com.dius.pact.core.model.matchingrules.RegexMatcher
 import au.com.dius.pact.core.support.Result
+import au.com.dius.pact.core.support.regex.PatternCache
 import io.pact.plugins.jvm.core.InteractionContents
 import io.github.oshai.kotlinlogging.KLogging
+import java.util.regex.Pattern
 
 class PlainTextContentMatcher : ContentMatcher {
 
@@ -43,8 +45,8 @@ class PlainTextContentMatcher : ContentMatcher {
       }
     }
 
-    val regex = Regex(regexMatcher.regex, setOf(RegexOption.MULTILINE, RegexOption.DOT_MATCHES_ALL))
-    return if (regex.matches(actual)) {
+    val regex = PatternCache.pattern(regexMatcher.regex, Pattern.MULTILINE or Pattern.DOTALL)
+    return if (regex.matcher(actual).matches()) {
       emptyList()
     } else {
       listOf(BodyItemMatchResult("$", listOf(BodyMismatch(expected, actual,
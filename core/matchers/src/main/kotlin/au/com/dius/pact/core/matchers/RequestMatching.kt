@@ -3,7 +3,6 @@ package au.com.dius.pact.core.matchers
 import au.com.dius.pact.core.matchers.engine.MatchingConfiguration
 import au.com.dius.pact.core.matchers.engine.PlanMatchingContext
 import au.com.dius.pact.core.matchers.engine.V2MatchingEngine
-import au.com.dius.pact.core.matchers.engine.V2MatchingEngine.v2EngineEnabled
 import au.com.dius.pact.core.matchers.engine.resolvers.HttpRequestValueResolver
 import au.com.dius.pact.core.model.IRequest
 import au.com.dius.pact.core.model.Interaction
@@ -13,7 +12,7 @@ import au.com.dius.pact.core.model.Response
 import au.com.dius.pact.core.model.SynchronousRequestResponse
 import au.com.dius.pact.core.model.V4Pact
 import au.com.dius.pact.core.support.Json
-import au.com.dius.pact.core.support.Utils.lookupEnvironmentValue
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import io.github.oshai.kotlinlogging.KotlinLogging
 import io.pact.plugins.jvm.core.PluginConfiguration
 
@@ -68,17 +67,28 @@ data class PartialRequestMatch(val problems: Map<Interaction, RequestMatchResult
 
 object RequestMismatch : RequestMatch()
 
-class RequestMatching(private val expectedPact: Pact) {
+/**
+ * Matches requests against the interactions from the pact. The runtime configuration defaults to the snapshot that
+ * is current when this is created (i.e. when the mock server is started).
+ */
+class RequestMatching @JvmOverloads constructor(
+  private val expectedPact: Pact,
+  private val runtimeConfig: PactRuntimeConfig = PactRuntimeConfig.current()
+) {
+  /**
+   * Finds the interaction that best matches the request. The interactions are first compared with fail fast matching,
+   * which stops at the first mismatch. The full comparison is only done for the interactions that matched the method
+   * and path, when none of the interactions match the request, so the partial matches can be scored and reported.
+   */
   fun matchInteraction(actual: IRequest): RequestMatch {
     val pluginConfiguration = when (expectedPact) {
       is V4Pact -> expectedPact.pluginData()
       else -> emptyList()
     }
-    val matches = expectedPact.interactions
+    val candidates = expectedPact.interactions
       .filter { it.isSynchronousRequestResponse() }
       .map { interaction ->
-        val response = interaction.asSynchronousRequestResponse()!!
-        compareRequest(expectedPact, response, actual, pluginConfiguration.associate {
+        val config = pluginConfiguration.associate {
           it.name to PluginConfiguration(
             if (interaction.isV4()) {
               interaction.asV4Interaction().pluginConfiguration[it.name] ?: emptyMap()
@@ -87,8 +97,19 @@ class RequestMatching(private val expectedPact: Pact) {
             }.toMutableMap(),
             it.configuration.mapValues { (_, value) -> Json.toJson(value) }.toMutableMap()
           )
-        })
+        }
+        val request = interaction.asSynchronousRequestResponse()!!
+        Triple(request, config, requestMismatches(expectedPact, request, actual, config, runtimeConfig, true))
       }
+
+    val fullMatches = candidates.filter { it.third.matchedOk() }
+    val matches = if (fullMatches.isNotEmpty()) {
+      fullMatches.map { (interaction, _, result) -> FullRequestMatch(interaction, result) }
+    } else {
+      candidates
+        .filter { it.third.matchedMethodAndPath() }
+        .map { (interaction, config, _) -> compareRequest(expectedPact, interaction, actual, config, runtimeConfig) }
+    }
     return if (matches.isEmpty())
       RequestMismatch
     else
@@ -115,40 +136,51 @@ class RequestMatching(private val expectedPact: Pact) {
       pact: Pact,
       expected: SynchronousRequestResponse,
       actual: IRequest,
-      pluginConfiguration: Map<String, PluginConfiguration> = mapOf()
+      pluginConfiguration: Map<String, PluginConfiguration> = mapOf(),
+      runtimeConfig: PactRuntimeConfig = PactRuntimeConfig.current()
     ): RequestMatch {
-        val mismatches = requestMismatches(pact, expected, actual, pluginConfiguration)
+        val mismatches = requestMismatches(pact, expected, actual, pluginConfiguration, runtimeConfig)
         logger.debug { "Request mismatch: $mismatches" }
         return decideRequestMatch(expected, mismatches)
     }
 
+    /**
+     * Compares the actual request to the request of the interaction. With fail fast, the comparison stops at the first
+     * mismatch, so the result will only have the mismatches up to that point.
+     */
     @JvmStatic
     @JvmOverloads
+    @Suppress("LongMethod", "ReturnCount")
     fun requestMismatches(
       pact: Pact,
       interaction: SynchronousRequestResponse,
       actual: IRequest,
-      pluginConfiguration: Map<String, PluginConfiguration> = mapOf()
+      pluginConfiguration: Map<String, PluginConfiguration> = mapOf(),
+      runtimeConfig: PactRuntimeConfig = PactRuntimeConfig.current(),
+      failFast: Boolean = false
     ): RequestMatchResult {
       val expected = interaction.request
       logger.debug { "comparing to expected request: \n$expected" }
       logger.debug { "pluginConfiguration=$pluginConfiguration" }
 
-      if (v2EngineEnabled()) {
-        val config = MatchingConfiguration.fromEnv()
-          .copy(allowUnexpectedEntries = false)
+      if (runtimeConfig.v2MatchingEngine) {
+        val config = MatchingConfiguration.fromRuntimeConfig(runtimeConfig)
+          .copy(allowUnexpectedEntries = false, failFast = failFast)
         val context = PlanMatchingContext(pact.asV4Pact().unwrap(), interaction.asV4Interaction(), config)
 
         val plan = V2MatchingEngine.buildRequestPlan(expected, context)
         val valueResolver = HttpRequestValueResolver(actual)
 
         val executedPlan = plan.execute(context, valueResolver)
+        val result = executedPlan.intoRequestMatchResult()
 
-        if (config.logPlanSummary) {
+        // A fail fast pass that matched ran the whole plan, and is the result that is used for a full match. When it
+        // did not match, the summary is logged by the full comparison instead.
+        if (config.logPlanSummary && (!failFast || result.matchedOk())) {
           logger.info { executedPlan.generateSummary(config.colouredOutput) }
         }
 
-        return executedPlan.intoRequestMatchResult()
+        return result
       } else {
         val pathContext = MatchingContext(
           expected.matchingRules.rulesForCategory("path"),
@@ -158,7 +190,9 @@ class RequestMatching(private val expectedPact: Pact) {
         val bodyContext = MatchingContext(
           expected.matchingRules.rulesForCategory("body"),
           false,
-          pluginConfiguration
+          pluginConfiguration,
+          failFast = failFast,
+          parallelMatching = ParallelMatching.fromRuntimeConfig(runtimeConfig)
         )
         val queryContext = MatchingContext(
           expected.matchingRules.rulesForCategory("query"),
@@ -173,14 +207,41 @@ class RequestMatching(private val expectedPact: Pact) {
           true
         )
 
-        return RequestMatchResult(
-          Matching.matchMethod(expected.method, actual.method),
-          Matching.matchPath(expected, actual, pathContext),
-          Matching.matchQuery(expected, actual, queryContext),
-          Matching.matchCookies(expected.cookies(), actual.cookies(), headerContext),
-          Matching.matchRequestHeaders(expected, actual, headerContext),
-          Matching.matchBody(expected.asHttpPart(), actual.asHttpPart(), bodyContext)
-        )
+        if (!failFast) {
+          return RequestMatchResult(
+            Matching.matchMethod(expected.method, actual.method),
+            Matching.matchPath(expected, actual, pathContext),
+            Matching.matchQuery(expected, actual, queryContext),
+            Matching.matchCookies(expected.cookies(), actual.cookies(), headerContext),
+            Matching.matchRequestHeaders(expected, actual, headerContext),
+            Matching.matchBody(expected.asHttpPart(), actual.asHttpPart(), bodyContext)
+          )
+        }
+
+        // Each part is only compared if all the parts before it matched
+        val notCompared = BodyMatchResult(null, emptyList())
+        val method = Matching.matchMethod(expected.method, actual.method)
+        if (method != null) {
+          return RequestMatchResult(method, null, emptyList(), null, emptyList(), notCompared)
+        }
+        val path = Matching.matchPath(expected, actual, pathContext)
+        if (path != null) {
+          return RequestMatchResult(null, path, emptyList(), null, emptyList(), notCompared)
+        }
+        val query = Matching.matchQuery(expected, actual, queryContext)
+        if (query.any { it.result.isNotEmpty() }) {
+          return RequestMatchResult(null, null, query, null, emptyList(), notCompared)
+        }
+        val cookie = Matching.matchCookies(expected.cookies(), actual.cookies(), headerContext)
+        if (cookie != null) {
+          return RequestMatchResult(null, null, query, cookie, emptyList(), notCompared)
+        }
+        val headers = Matching.matchRequestHeaders(expected, actual, headerContext)
+        if (headers.any { it.result.isNotEmpty() }) {
+          return RequestMatchResult(null, null, query, null, headers, notCompared)
+        }
+        return RequestMatchResult(null, null, query, null, headers,
+          Matching.matchBody(expected.asHttpPart(), actual.asHttpPart(), bodyContext))
       }
     }
   }
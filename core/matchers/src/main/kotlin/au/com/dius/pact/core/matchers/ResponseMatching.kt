@@ -3,11 +3,11 @@ package au.com.dius.pact.core.matchers
 import au.com.dius.pact.core.matchers.engine.MatchingConfiguration
 import au.com.dius.pact.core.matchers.engine.PlanMatchingContext
 import au.com.dius.pact.core.matchers.engine.V2MatchingEngine
-import au.com.dius.pact.core.matchers.engine.V2MatchingEngine.v2EngineEnabled
 import au.com.dius.pact.core.matchers.engine.resolvers.HttpResponseValueResolver
 import au.com.dius.pact.core.model.IResponse
 import au.com.dius.pact.core.model.Pact
 import au.com.dius.pact.core.model.SynchronousRequestResponse
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import io.github.oshai.kotlinlogging.KLogging
 import io.pact.plugins.jvm.core.PluginConfiguration
 
@@ -35,12 +35,13 @@ object ResponseMatching : KLogging() {
     pact: Pact,
     interaction: SynchronousRequestResponse,
     actual: IResponse,
-    pluginConfiguration: Map<String, PluginConfiguration> = mapOf()
+    pluginConfiguration: Map<String, PluginConfiguration> = mapOf(),
+    runtimeConfig: PactRuntimeConfig = PactRuntimeConfig.current()
   ): List<Mismatch> {
     val expected = interaction.response
 
-    if (v2EngineEnabled()) {
-      val config = MatchingConfiguration.fromEnv()
+    if (runtimeConfig.v2MatchingEngine) {
+      val config = MatchingConfiguration.fromRuntimeConfig(runtimeConfig)
       val context = PlanMatchingContext(pact.asV4Pact().unwrap(), interaction.asV4Interaction(), config)
 
       val plan = V2MatchingEngine.buildResponsePlan(expected, context)
@@ -60,7 +61,7 @@ object ResponseMatching : KLogging() {
     val statusContext = MatchingContext(expected.matchingRules.rulesForCategory("status"),
       true, pluginConfiguration)
     val bodyContext = MatchingContext(expected.matchingRules.rulesForCategory("body"),
-      true, pluginConfiguration)
+      true, pluginConfiguration, parallelMatching = ParallelMatching.fromRuntimeConfig(runtimeConfig))
     val headerContext = MatchingContext(expected.matchingRules.rulesForCategory("header"),
       true, pluginConfiguration, true)
 
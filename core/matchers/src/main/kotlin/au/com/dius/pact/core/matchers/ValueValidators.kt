@@ -0,0 +1,61 @@
+package au.com.dius.pact.core.matchers
+
+/**
+ * Checks the format of number and boolean values by scanning their characters, so the characters of JSON tokens and
+ * XML node values can be checked without creating strings or running a regular expression.
+ *
+ * The formats are:
+ * - integer: an optional minus sign followed by one or more digits
+ * - decimal: `0`, or an optional minus sign followed by one or more digits, a decimal point and zero or more digits
+ * - boolean: `true` or `false`
+ */
+object ValueValidators {
+  @JvmStatic
+  fun isInteger(chars: CharArray) = scanInteger(chars.size) { chars[it] }
+
+  @JvmStatic
+  fun isInteger(value: CharSequence?) = value != null && scanInteger(value.length) { value[it] }
+
+  @JvmStatic
+  fun isDecimal(chars: CharArray) = scanDecimal(chars.size) { chars[it] }
+
+  @JvmStatic
+  fun isDecimal(value: CharSequence?) = value != null && scanDecimal(value.length) { value[it] }
+
+  @JvmStatic
+  fun isBoolean(chars: CharArray) = scanBoolean(chars.size) { chars[it] }
+
+  @JvmStatic
+  fun isBoolean(value: CharSequence?) = value != null && scanBoolean(value.length) { value[it] }
+
+  private inline fun scanInteger(length: Int, charAt: (Int) -> Char): Boolean {
+    val start = if (length > 0 && charAt(0) == '-') 1 else 0
+    return length > start && scanDigits(start, length, charAt) == length
+  }
+
+  private inline fun scanDecimal(length: Int, charAt: (Int) -> Char): Boolean {
+    if (length == 1 && charAt(0) == '0') {
+      return true
+    }
+    val start = if (length > 0 && charAt(0) == '-') 1 else 0
+    val point = scanDigits(start, length, charAt)
+    return point > start && point < length && charAt(point) == '.' && scanDigits(point + 1, length, charAt) == length
+  }
+
+  private inline fun scanBoolean(length: Int, charAt: (Int) -> Char) = when (length) {
+    4 -> charAt(0) == 't' && charAt(1) == 'r' && charAt(2) == 'u' && charAt(3) == 'e'
+    5 -> charAt(0) == 'f' && charAt(1) == 'a' && charAt(2) == 'l' && charAt(3) == 's' && charAt(4) == 'e'
+    else -> false
+  }
+
+  /**
+   * Returns the index of the first character from start that is not a digit, or the length if they all are
+   */
+  private inline fun scanDigits(start: Int, length: Int, charAt: (Int) -> Char): Int {
+    var index = start
+    while (index < length && charAt(index) in '0'..'9') {
+      index++
+    }
+    return index
+  }
+}
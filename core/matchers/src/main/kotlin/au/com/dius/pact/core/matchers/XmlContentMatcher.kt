@@ -207,19 +207,20 @@ object XmlContentMatcher : ContentMatcher {
     val actualAttrs = attributesToMap(actual.attributes)
 
     return if (expectedAttrs.isEmpty() && actualAttrs.isNotEmpty() && !context.allowUnexpectedKeys) {
-      listOf(BodyItemMatchResult(path.joinToString("."), listOf(BodyMismatch(expected, actual,
+      listOf(BodyItemMatchResult(path.joinToString("."), listOf(BodyMismatch.withLazyDiff(expected, actual,
         "Expected a Tag with at least ${expectedAttrs.size} attributes but " +
           "received ${actual.attributes.length} attributes",
-        path.joinToString("."), generateAttrDiff(expected, actual)))))
+        path.joinToString(".")) { generateAttrDiff(expected, actual) })))
     } else {
       val mismatches = if (expectedAttrs.size > actualAttrs.size) {
-        listOf(BodyMismatch(expected, actual, "Expected a Tag with at least ${expected.attributes.length} " +
-          "attributes but received ${actual.attributes.length} attributes",
-          path.joinToString("."), generateAttrDiff(expected, actual)))
+        listOf(BodyMismatch.withLazyDiff(expected, actual,
+          "Expected a Tag with at least ${expected.attributes.length} attributes but received " +
+            "${actual.attributes.length} attributes",
+          path.joinToString(".")) { generateAttrDiff(expected, actual) })
       } else if (!context.allowUnexpectedKeys && expectedAttrs.size != actualAttrs.size) {
-        listOf(BodyMismatch(expected, actual, "Expected a Tag with ${expected.attributes.length} " +
+        listOf(BodyMismatch.withLazyDiff(expected, actual, "Expected a Tag with ${expected.attributes.length} " +
           "attributes but received ${actual.attributes.length} attributes",
-          path.joinToString("."), generateAttrDiff(expected, actual)))
+          path.joinToString(".")) { generateAttrDiff(expected, actual) })
       } else {
         emptyList()
       }
@@ -234,15 +235,15 @@ object XmlContentMatcher : ContentMatcher {
               Matchers.domatch(context, attrPath, attr.value, actualVal, BodyMismatchFactory)
             }
             attr.value.nodeValue != actualVal?.nodeValue ->
-              listOf(BodyMismatch(expected, actual, "Expected ${attr.key}='${attr.value.nodeValue}' " +
+              listOf(BodyMismatch.withLazyDiff(expected, actual, "Expected ${attr.key}='${attr.value.nodeValue}' " +
                 "but received ${attr.key}='${actualVal?.nodeValue}'",
-                attrPath.joinToString("."), generateAttrDiff(expected, actual)))
+                attrPath.joinToString(".")) { generateAttrDiff(expected, actual) })
             else -> emptyList()
           }
         } else {
-          listOf(BodyMismatch(expected, actual, "Expected ${attr.key}='${attr.value.nodeValue}' " +
+          listOf(BodyMismatch.withLazyDiff(expected, actual, "Expected ${attr.key}='${attr.value.nodeValue}' " +
             "but was missing",
-            appendAttribute(path, attr.key).joinToString("."), generateAttrDiff(expected, actual)))
+            appendAttribute(path, attr.key).joinToString(".")) { generateAttrDiff(expected, actual) })
         }
       }))
     }
@@ -19,7 +19,7 @@ import au.com.dius.pact.core.model.matchingrules.MatchingRuleGroup
 import au.com.dius.pact.core.model.matchingrules.RegexMatcher
 import au.com.dius.pact.core.model.matchingrules.RuleLogic
 import au.com.dius.pact.core.model.v4.MessageContents
-import au.com.dius.pact.core.support.Utils.lookupEnvironmentValue
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.core.support.json.JsonValue
 import kotlin.collections.map
 
@@ -651,8 +651,11 @@ object V2MatchingEngine: MatchingEngine {
     return planNode
   }
 
+  /**
+   * If the V2 matching engine is enabled in the current runtime configuration (pact.matching.engine set to v2)
+   */
   @JvmStatic
-  fun v2EngineEnabled(): Boolean = lookupEnvironmentValue("pact.matching.engine")?.lowercase() == "v2"
+  fun v2EngineEnabled(): Boolean = PactRuntimeConfig.current().v2MatchingEngine
 }
 
 fun buildMatchingRuleNode(
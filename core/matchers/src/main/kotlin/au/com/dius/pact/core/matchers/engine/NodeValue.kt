@@ -2,8 +2,8 @@ package au.com.dius.pact.core.matchers.engine
 
 import au.com.dius.pact.core.matchers.BodyItemMatchResult
 import au.com.dius.pact.core.matchers.BodyMismatchFactory
+import au.com.dius.pact.core.matchers.MatchingRuleEvaluator
 import au.com.dius.pact.core.matchers.Matchers.compareLists
-import au.com.dius.pact.core.matchers.domatch
 import au.com.dius.pact.core.model.Into
 import au.com.dius.pact.core.model.XmlUtils.renderXml
 import au.com.dius.pact.core.model.constructPath
@@ -348,7 +348,8 @@ sealed class NodeValue: Into<NodeValue> {
       matcher: MatchingRule,
       cascaded: Boolean,
       actionPath: List<String>,
-      context: PlanMatchingContext
+      context: PlanMatchingContext,
+      evaluator: MatchingRuleEvaluator = MatchingRuleEvaluator.compile(matcher)
     ): String? {
       return when (expected) {
         is JSON -> {
@@ -358,7 +359,7 @@ sealed class NodeValue: Into<NodeValue> {
             } else {
               JsonValue.Null
             }
-            val result = domatch(matcher, listOf("$"), expected.json, actualJson,
+            val result = evaluator.evaluate(listOf("$"), expected.json, actualJson,
               BodyMismatchFactory, cascaded, context.matchingContext)
             if (result.isNotEmpty()) {
               result.joinToString(", ") { it.mismatch }
@@ -378,7 +379,7 @@ sealed class NodeValue: Into<NodeValue> {
           val result = compareLists(actionPath, matcher, expected.items, items,
             context.matchingContext, { "" }, cascaded) {
               p, expected, actual, context ->
-            val result = domatch(matcher, p, expected, actual, BodyMismatchFactory, cascaded, context)
+            val result = evaluator.evaluate(p, expected, actual, BodyMismatchFactory, cascaded, context)
             listOf(BodyItemMatchResult(constructPath(p), result))
           }.flatMap { it.result }
           if (result.isNotEmpty()) {
@@ -388,7 +389,7 @@ sealed class NodeValue: Into<NodeValue> {
           }
         }
         is MMAP -> {
-          val result = domatch(matcher, actionPath, expected.entries, actual.unwrap(),
+          val result = evaluator.evaluate(actionPath, expected.entries, actual.unwrap(),
             BodyMismatchFactory, cascaded, context.matchingContext)
           if (result.isNotEmpty()) {
             result.joinToString(", ") { it.mismatch }
@@ -405,7 +406,7 @@ sealed class NodeValue: Into<NodeValue> {
           val result = compareLists(actionPath, matcher, expected.items, items,
             context.matchingContext, { "" }, cascaded) {
               p, expected, actual, context ->
-            val result = domatch(matcher, p, expected, actual, BodyMismatchFactory, cascaded, context)
+            val result = evaluator.evaluate(p, expected, actual, BodyMismatchFactory, cascaded, context)
             listOf(BodyItemMatchResult(constructPath(p), result))
           }.flatMap { it.result }
           if (result.isNotEmpty()) {
@@ -416,7 +417,7 @@ sealed class NodeValue: Into<NodeValue> {
         }
         is STRING -> {
           if (actual is STRING) {
-            val result = domatch(matcher, actionPath, expected.string, actual.string,
+            val result = evaluator.evaluate(actionPath, expected.string, actual.string,
               BodyMismatchFactory, cascaded, context.matchingContext)
             if (result.isNotEmpty()) {
               result.joinToString(", ") { it.mismatch }
@@ -427,7 +428,7 @@ sealed class NodeValue: Into<NodeValue> {
             val result = compareLists(actionPath, matcher, listOf(expected.string), actual.items,
               context.matchingContext, { "" }, cascaded) {
                 p, expected, actual, context ->
-                  val result = domatch(matcher, p, expected, actual, BodyMismatchFactory, cascaded, context)
+                  val result = evaluator.evaluate(p, expected, actual, BodyMismatchFactory, cascaded, context)
                   listOf(BodyItemMatchResult(constructPath(p), result))
             }.flatMap { it.result }
             if (result.isNotEmpty()) {
@@ -440,7 +441,7 @@ sealed class NodeValue: Into<NodeValue> {
           }
         }
         else -> {
-          val result = domatch(matcher, actionPath, expected.unwrap(), actual.unwrap(),
+          val result = evaluator.evaluate(actionPath, expected.unwrap(), actual.unwrap(),
             BodyMismatchFactory, cascaded, context.matchingContext)
           if (result.isNotEmpty()) {
             result.joinToString(", ") { it.mismatch }
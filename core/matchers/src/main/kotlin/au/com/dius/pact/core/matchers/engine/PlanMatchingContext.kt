@@ -7,7 +7,7 @@ import au.com.dius.pact.core.model.V4Interaction
 import au.com.dius.pact.core.model.V4Pact
 import au.com.dius.pact.core.model.matchingrules.MatchingRuleCategory
 import au.com.dius.pact.core.model.matchingrules.MatchingRuleGroup
-import au.com.dius.pact.core.support.Utils.lookupEnvironmentValue
+import au.com.dius.pact.core.support.PactRuntimeConfig
 
 /** Configuration for driving behaviour of the execution */
 data class MatchingConfiguration @JvmOverloads constructor(
@@ -20,43 +20,48 @@ data class MatchingConfiguration @JvmOverloads constructor(
   /** If output should be coloured */
   val colouredOutput: Boolean = true,
   /** If the raw plan should be logged (before it is executed) */
-  val logRawPlan: Boolean = false
+  val logRawPlan: Boolean = false,
+  /** If the plan should stop executing at the first mismatch, because only whether the values match is needed */
+  val failFast: Boolean = false
 ) {
   companion object {
     /**
-     * Loads the matching engine configuration from system properties or environment variables:
+     * Loads the matching engine configuration from the current runtime configuration snapshot, which is read from
+     * system properties or environment variables:
      * `pact.matching.v2.logExecutedPlan` or `PACT_V2_MATCHING_LOG_EXECUTED_PLAN` - Enable to log the executed plan.
      * `pact.matching.v2.logRawPlan` or `PACT_V2_MATCHING_LOG_RAW_PLAN` - Enable to log the plan before it is executed.
      * `pact.matching.v2.logPlanSummary` or `PACT_V2_MATCHING_LOG_PLAN_SUMMARY` - Enable to log a summary of the
      * executed plan.
      * `pact.matching.v2.ColouredOutput` or `PACT_V2_MATCHING_COLOURED_OUTPUT` - Enables coloured output.
      */
-    fun fromEnv(): MatchingConfiguration {
+    @JvmStatic
+    fun fromEnv() = fromRuntimeConfig(PactRuntimeConfig.current())
+
+    /**
+     * Creates the matching engine configuration from the runtime configuration
+     */
+    @JvmStatic
+    fun fromRuntimeConfig(runtimeConfig: PactRuntimeConfig): MatchingConfiguration {
       var config = MatchingConfiguration()
 
-      if (envVarSet("pact.matching.v2.logExecutedPlan") || envVarSet("PACT_V2_MATCHING_LOG_EXECUTED_PLAN")) {
+      if (runtimeConfig.logExecutedPlan) {
         config = config.copy(logExecutedPlan = true)
       }
 
-      if (envVarSet("pact.matching.v2.logRawPlan") || envVarSet("PACT_V2_MATCHING_LOG_RAW_PLAN")) {
+      if (runtimeConfig.logRawPlan) {
         config = config.copy(logRawPlan = true)
       }
 
-      if (envVarSet("pact.matching.v2.logPlanSummary") || envVarSet("PACT_V2_MATCHING_LOG_PLAN_SUMMARY")) {
+      if (runtimeConfig.logPlanSummary) {
         config = config.copy(logPlanSummary = true)
       }
 
-      if (envVarSet("pact.matching.v2.ColouredOutput") || envVarSet("PACT_V2_MATCHING_COLOURED_OUTPUT")) {
+      if (runtimeConfig.colouredOutput) {
         config = config.copy(colouredOutput = true)
       }
 
       return config
     }
-
-    private fun envVarSet(key: String): Boolean {
-      val value = lookupEnvironmentValue(key)?.lowercase()
-      return value == "true" || value == "1"
-    }
   }
 }
 
@@ -14,7 +14,6 @@ import au.com.dius.pact.core.model.matchingrules.ValuesMatcher
 import au.com.dius.pact.core.support.json.JsonParser
 import au.com.dius.pact.core.support.json.JsonValue
 import io.github.oshai.kotlinlogging.KotlinLogging
-import java.io.ByteArrayInputStream
 
 private val logger = KotlinLogging.logger {}
 
@@ -28,7 +27,7 @@ object JsonPlanBuilder: PlanBodyBuilder  {
     content: ByteArray,
     context: PlanMatchingContext
   ): ExecutionPlanNode {
-    val expectedJson = JsonParser.parseStream(ByteArrayInputStream(content))
+    val expectedJson = JsonParser.parseBytes(content)
     val bodyNode = ExecutionPlanNode.action("tee")
     bodyNode
       .add(ExecutionPlanNode.action("json:parse")
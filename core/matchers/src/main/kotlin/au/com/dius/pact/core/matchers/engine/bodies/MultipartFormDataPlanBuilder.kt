@@ -8,7 +8,6 @@ import au.com.dius.pact.core.model.ContentType
 import au.com.dius.pact.core.model.DocPath
 import au.com.dius.pact.core.support.json.JsonParser
 import io.github.oshai.kotlinlogging.KotlinLogging
-import java.io.ByteArrayInputStream
 import javax.mail.internet.ContentDisposition
 import javax.mail.internet.MimeMultipart
 import javax.mail.util.ByteArrayDataSource
@@ -62,7 +61,7 @@ object MultipartFormDataPlanBuilder : PlanBodyBuilder {
       if (isJson) {
         // Delegate to JsonPlanBuilder so paths are $.partname, $.partname.field etc.,
         // matching the body matching rules defined at those paths.
-        val json = JsonParser.parseStream(ByteArrayInputStream(partBytes))
+        val json = JsonParser.parseBytes(partBytes)
         val subNode = ExecutionPlanNode.container(partPath.toString())
         JsonPlanBuilder.processBodyNode(context, json, partPath, subNode)
         presenceCheck.add(subNode)
@@ -1,5 +1,6 @@
 package au.com.dius.pact.core.matchers.engine.interpreter
 
+import au.com.dius.pact.core.matchers.MatchingRuleEvaluator
 import au.com.dius.pact.core.matchers.engine.ExecutionPlanNode
 import au.com.dius.pact.core.matchers.engine.NodeResult
 import au.com.dius.pact.core.matchers.engine.NodeValue
@@ -25,6 +26,7 @@ import au.com.dius.pact.core.model.XmlUtils.resolvePath
 import au.com.dius.pact.core.model.matchingrules.EachKeyMatcher
 import au.com.dius.pact.core.model.matchingrules.EachValueMatcher
 import au.com.dius.pact.core.model.matchingrules.MatchingRule
+import au.com.dius.pact.core.model.matchingrules.MatchingRuleGroup
 import au.com.dius.pact.core.support.Json
 import au.com.dius.pact.core.support.Either
 import au.com.dius.pact.core.support.Result
@@ -36,7 +38,6 @@ import au.com.dius.pact.core.support.isNotEmpty
 import io.github.oshai.kotlinlogging.KotlinLogging
 import org.w3c.dom.Element
 import org.w3c.dom.Node
-import java.io.ByteArrayInputStream
 import java.util.TreeMap
 import javax.mail.internet.ContentDisposition
 import javax.mail.internet.MimeMultipart
@@ -54,6 +55,10 @@ class ExecutionPlanInterpreter(
 ) {
   /** Stack of intermediate values (used by the pipeline operator and apply action) */
   private val valueStack: MutableList<NodeResult?> = mutableListOf()
+  /** Matching rules created for the match actions, keyed by the matcher name and parameters */
+  private val matchActionRules: MutableMap<Pair<String, JsonValue>, MatchingRule> = mutableMapOf()
+  /** Compiled evaluators for the matching rules used by this plan */
+  private val ruleEvaluators: MutableMap<MatchingRule, MatchingRuleEvaluator> = mutableMapOf()
 
    /** Walks the tree from a given node, executing all visited nodes */
    @Suppress("LongMethod", "CyclomaticComplexMethod")
@@ -87,6 +92,11 @@ class ExecutionPlanInterpreter(
               loopItems.addFirst(item)
             }
           }
+          if (context.config.failFast && hasError(childResult)) {
+            logger.trace { "walk_tree ==> Fail fast, skipping the rest of the container, path = $childPath" }
+            result.addAll(loopItems)
+            break
+          }
         }
 
         ExecutionPlanNode(
@@ -387,9 +397,10 @@ class ExecutionPlanInterpreter(
             children = (listOf(firstNode, secondNode, thirdNode) + optional).toMutableList())
         }
 
-        when (val result = handleWith<MatchingRule> { MatchingRule.create(matcher, matcherParams) }) {
+        when (val result = matchActionRule(matcher, matcherParams)) {
           is Result.Ok -> {
-            val matchResult = NodeValue.doMatch(expectedValue, actualValue, result.value, false, actionPath, context)
+            val matchResult = NodeValue.doMatch(expectedValue, actualValue, result.value, false, actionPath, context,
+              evaluatorFor(result.value))
             if (matchResult == null) {
               return node.copy(result = NodeResult.VALUE(NodeValue.BOOL(true)),
                 children = (listOf(firstNode, secondNode, thirdNode) + optional).toMutableList())
@@ -425,6 +436,31 @@ class ExecutionPlanInterpreter(
     }
   }
 
+  /**
+   * Creates the matching rule for a match action. The rules are cached, as the same match action is executed for
+   * every value it applies to.
+   */
+  private fun matchActionRule(matcher: String, matcherParams: JsonValue): Result<MatchingRule, Exception> {
+    val key = matcher to matcherParams
+    val cached = matchActionRules[key]
+    return if (cached != null) {
+      Result.Ok(cached)
+    } else {
+      val result = handleWith<MatchingRule> { MatchingRule.create(matcher, matcherParams) }
+      if (result is Result.Ok) {
+        matchActionRules[key] = result.value
+      }
+      result
+    }
+  }
+
+  /**
+   * Returns the compiled evaluator for the rule, from the cache of the matching rules category
+   */
+  private fun evaluatorFor(rule: MatchingRule) = ruleEvaluators.getOrPut(rule) {
+    MatchingRuleEvaluator.forGroup(context.matchingContext.matchers, MatchingRuleGroup(mutableListOf(rule)))
+  }
+
   @Suppress("CyclomaticComplexMethod")
   private fun executeMatchValues(
     valueResolver: ValueResolver,
@@ -512,7 +548,7 @@ class ExecutionPlanInterpreter(
         for (key in actualObject.entries.keys) {
           for (rule in innerRules) {
             val mismatch = NodeValue.doMatch(NodeValue.STRING(""), NodeValue.STRING(key),
-              rule, false, actionPath, context)
+              rule, false, actionPath, context, evaluatorFor(rule))
             if (mismatch != null) {
               hasError = true
               children.add(ExecutionPlanNode.action("each-key:$key").copy(result = NodeResult.ERROR(mismatch)))
@@ -584,7 +620,7 @@ class ExecutionPlanInterpreter(
         var hasError = false
         items.forEachIndexed { index, item ->
           for (rule in innerRules) {
-            val mismatch = NodeValue.doMatch(expectedItem, item, rule, false, actionPath, context)
+            val mismatch = NodeValue.doMatch(expectedItem, item, rule, false, actionPath, context, evaluatorFor(rule))
             if (mismatch != null) {
               hasError = true
               children.add(ExecutionPlanNode.action("each-value:$index").copy(result = NodeResult.ERROR(mismatch)))
@@ -862,7 +898,7 @@ class ExecutionPlanInterpreter(
           when (argValue) {
             is NodeValue.BARRAY -> {
               val jsonResult = handleWith<JsonValue> {
-                JsonParser.parseStream(ByteArrayInputStream(argValue.bytes))
+                JsonParser.parseBytes(argValue.bytes)
               }
               when (jsonResult) {
                 is Result.Ok -> Result.Ok(NodeResult.VALUE(NodeValue.JSON(jsonResult.value)))
@@ -943,7 +979,7 @@ class ExecutionPlanInterpreter(
                 val bytes = part.inputStream.readAllBytes()
                 // Try JSON first; fall back to raw bytes for binary parts
                 val value = try {
-                  NodeValue.JSON(JsonParser.parseStream(ByteArrayInputStream(bytes)))
+                  NodeValue.JSON(JsonParser.parseBytes(bytes))
                 } catch (_: Exception) {
                   NodeValue.BARRAY(bytes)
                 }
@@ -1895,6 +1931,10 @@ class ExecutionPlanInterpreter(
     }
   }
 
+  /** If the node or any of its children resulted in an error */
+  private fun hasError(node: ExecutionPlanNode): Boolean =
+    node.result is NodeResult.ERROR || node.children.any { hasError(it) }
+
   private fun evaluateChildren(
     valueResolver: ValueResolver,
     node: ExecutionPlanNode,
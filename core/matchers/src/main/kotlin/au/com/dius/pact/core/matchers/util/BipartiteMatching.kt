@@ -0,0 +1,99 @@
+package au.com.dius.pact.core.matchers.util
+
+/**
+ * Maximum matching of a bipartite graph, found with the Hopcroft-Karp algorithm in O(E√V) time.
+ *
+ * @param adjacency for each left vertex, the right vertices it has an edge to
+ * @param rightSize number of right vertices
+ */
+class BipartiteMatching(private val adjacency: List<IntArray>, rightSize: Int) {
+  private val matchLeft = IntArray(adjacency.size) { UNMATCHED }
+  private val matchRight = IntArray(rightSize) { UNMATCHED }
+  private val distance = IntArray(adjacency.size)
+
+  /**
+   * Number of left vertices that have been matched
+   */
+  var size = 0
+    private set
+
+  /**
+   * Extends the matching with augmenting paths that start from the left vertices below leftCount. Left vertices that
+   * are already matched stay matched, so calling this first with a smaller count gives priority to those vertices.
+   *
+   * @return the number of matched left vertices
+   */
+  @JvmOverloads
+  fun augment(leftCount: Int = adjacency.size): Int {
+    while (buildLayers(leftCount)) {
+      for (left in 0 until leftCount) {
+        if (matchLeft[left] == UNMATCHED && augmentFrom(left)) {
+          size++
+        }
+      }
+    }
+    return size
+  }
+
+  /**
+   * Right vertex the left vertex is matched with, or -1 if it is not matched
+   */
+  fun rightMatch(left: Int) = matchLeft[left]
+
+  /**
+   * Left vertex the right vertex is matched with, or -1 if it is not matched
+   */
+  fun leftMatch(right: Int) = matchRight[right]
+
+  /**
+   * Breadth first search from the free left vertices, layering the graph by the length of the alternating paths.
+   * Returns true if a free right vertex can be reached.
+   */
+  private fun buildLayers(leftCount: Int): Boolean {
+    val queue = ArrayDeque<Int>()
+    for (left in adjacency.indices) {
+      if (left < leftCount && matchLeft[left] == UNMATCHED) {
+        distance[left] = 0
+        queue.addLast(left)
+      } else {
+        distance[left] = INFINITE
+      }
+    }
+
+    var found = false
+    while (queue.isNotEmpty()) {
+      val left = queue.removeFirst()
+      for (right in adjacency[left]) {
+        val next = matchRight[right]
+        if (next == UNMATCHED) {
+          found = true
+        } else if (distance[next] == INFINITE) {
+          distance[next] = distance[left] + 1
+          queue.addLast(next)
+        }
+      }
+    }
+    return found
+  }
+
+  /**
+   * Depth first search along the layers for an augmenting path, flipping the matched edges along it
+   */
+  private fun augmentFrom(left: Int): Boolean {
+    for (right in adjacency[left]) {
+      val next = matchRight[right]
+      if (next == UNMATCHED || (distance[next] == distance[left] + 1 && augmentFrom(next))) {
+        matchLeft[left] = right
+        matchRight[right] = left
+        return true
+      }
+    }
+    distance[left] = INFINITE
+    return false
+  }
+
+  companion object {
+    const val UNMATCHED = -1
+    private const val INFINITE = Int.MAX_VALUE
+  }
+}
@@ -1,5 +1,6 @@
 package au.com.dius.pact.core.matchers
 
+import au.com.dius.pact.core.support.json.JsonParser
 import spock.lang.Specification
 
 class DiffUtilsKtSpec extends Specification {
@@ -52,4 +53,65 @@ class DiffUtilsKtSpec extends Specification {
       |  }
       |]'''.stripMargin()
   }
+
+  def 'generates the same diff when the bodies have the same start and end'() {
+    given:
+    def lines = (1..20).collect { "line $it".toString() }
+    def expected = lines.join('\n')
+    def actual = (lines[0..8] + ['changed 10', 'changed 11'] + lines[11..19]).join('\n')
+
+    expect:
+    DiffUtilsKt.generateDiff(expected, actual, DiffLimits.UNLIMITED) ==
+      lines[0..8] + ['-line 10', '-line 11', '+changed 10', '+changed 11'] + lines[11..19]
+  }
+
+  def 'truncates the diff to the maximum number of lines'() {
+    given:
+    def expected = (1..20).collect { "line $it" }.join('\n')
+    def actual = (1..20).collect { it == 2 ? 'changed' : "line $it" }.join('\n')
+
+    expect:
+    DiffUtilsKt.generateDiff(expected, actual, new DiffLimits(5, 0)) ==
+      ['line 1', '-line 2', '+changed', 'line 3', 'line 4', '... the diff has been truncated to 5 lines']
+  }
+
+  def 'only diffs the start of bodies larger than the maximum body size'() {
+    given:
+    def expected = 'line 1\nline 2\n' + 'x' * 100
+    def actual = 'line 1\nchanged\n' + 'y' * 100
+
+    expect:
+    DiffUtilsKt.generateDiff(expected, actual, new DiffLimits(0, 20)) == [
+      'line 1', '-line 2', '-xxxxxx', '+changed', '+yyyyy',
+      '... only the first 20 characters of the bodies have been compared'
+    ]
+  }
+
+  def 'only pretty prints the start of JSON bodies larger than the maximum body size'() {
+    given:
+    def expected = JsonParser.parseString('[' + (1..100).join(',') + ']')
+    def actual = JsonParser.parseString('[1,"two",' + (3..100).join(',') + ']')
+    def limits = new DiffLimits(0, 30)
+
+    when:
+    def diff = DiffUtilsKt.generateJsonDiff(expected, actual, limits)
+
+    then:
+    diff == DiffUtilsKt.generateDiff(expected.prettyPrint(0, false), actual.prettyPrint(0, false), limits).join('\n')
+    diff.endsWith('... only the first 30 characters of the bodies have been compared')
+  }
+
+  def 'body mismatches only generate the diff when it is used'() {
+    given:
+    def generated = 0
+    def mismatch = BodyMismatch.withLazyDiff('a', 'b', 'mismatch', '$') { generated++; 'diff' }
+
+    expect:
+    mismatch == new BodyMismatch('a', 'b', 'mismatch', '$')
+    mismatch.toString() == new BodyMismatch('a', 'b', 'mismatch', '$').toString()
+    generated == 0
+    mismatch.diff == 'diff'
+    generated == 1
+    new BodyMismatch('a', 'b', 'mismatch', '$', 'given').diff == 'given'
+  }
 }
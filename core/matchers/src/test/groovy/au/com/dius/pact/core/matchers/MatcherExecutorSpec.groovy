@@ -177,6 +177,9 @@ class MatcherExecutorSpec extends Specification {
     '01-01-1970' | '01011970'   | 'dd-MM-yyyy' || false
     '12/30/1970' | '01/14/2001' | 'MM/dd/yyyy' || true
     '2014-01-01' | null         | null         || false
+    '12/30/1970' | '02/30/2001' | 'MM/dd/yyyy' || true
+    '12/30/1970' | '01/14/2001' | 'MM/dd/yy'   || true
+    '12/30/1970' | '01/14/2001Z' | 'MM/dd/yyyy' || false
 
     matcher = pattern ? new DateMatcher(pattern) : new DateMatcher()
   }
@@ -1,5 +1,6 @@
 package au.com.dius.pact.core.matchers
 
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import spock.lang.Specification
 import spock.util.environment.RestoreSystemProperties
 
@@ -26,10 +27,17 @@ class MatchingConfigSpec extends Specification {
     System.setProperty('pact.content_type.override.application/x-thrift', 'json')
     System.setProperty('pact.content_type.override.application/x-other', 'text')
     System.setProperty('pact.content_type.override.text/plain', 'application/xml')
+    PactRuntimeConfig.refresh()
 
     expect:
     MatchingConfig.lookupContentMatcher(contentType).class.name == matcherClass
 
+    cleanup:
+    System.clearProperty('pact.content_type.override.application/x-thrift')
+    System.clearProperty('pact.content_type.override.application/x-other')
+    System.clearProperty('pact.content_type.override.text/plain')
+    PactRuntimeConfig.refresh()
+
     where:
     contentType                              | matcherClass
     'application/x-thrift'                   | 'au.com.dius.pact.core.matchers.JsonContentMatcher'
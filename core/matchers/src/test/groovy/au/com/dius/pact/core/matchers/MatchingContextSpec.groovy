@@ -18,6 +18,7 @@ import au.com.dius.pact.core.model.matchingrules.ValuesMatcher
 import kotlin.Triple
 import spock.lang.Issue
 import spock.lang.Specification
+import spock.lang.Timeout
 import spock.lang.Unroll
 
 import static au.com.dius.pact.core.support.json.JsonParser.parseString
@@ -306,6 +307,44 @@ class MatchingContextSpec extends Specification {
     rules.rules == []
   }
 
+  @Timeout(10)
+  def 'unordered lists with many partial matches are compared in polynomial time'() {
+    given:
+    def expected = (0..<40).toList()
+    def actual = (0..<40).collect { it == 39 ? 0 : it }.reverse()
+    def callback = { path, e, a, context ->
+      [new BodyItemMatchResult(path.join('.'), a >= e ? [] : [new BodyMismatch(e, a, "$a < $e".toString(), path.join('.'))])]
+    }
+    def context = new MatchingContext(new MatchingRuleCategory('body'), true)
+
+    when:
+    def result = Matchers.INSTANCE.compareListContentUnordered(expected, actual, ['$'], context, { -> '' },
+      callback)
+    def inAnyOrder = Matchers.INSTANCE.compareListContentUnordered(expected, expected.reverse(), ['$'], context,
+      { -> '' }, callback)
+
+    then:
+    result*.key == ['$', '$.39']
+    result[1].result*.mismatch == ['0 < 39']
+    inAnyOrder.empty
+  }
+
+  def 'unordered lists require extra actual values to match the rules for their index'() {
+    given:
+    def callback = { path, e, a, context ->
+      [new BodyItemMatchResult(path.join('.'), e == a ? [] : [new BodyMismatch(e, a, "$a != $e".toString())])]
+    }
+    def context = new MatchingContext(new MatchingRuleCategory('body', [
+      '$[2]': new MatchingRuleGroup([new IncludeMatcher('x')])
+    ]), true)
+
+    expect:
+    Matchers.INSTANCE.compareListContentUnordered(['a', 'b'], ['b', 'x', 'a'], ['$'], context, { -> '' }, callback)
+      .empty
+    !Matchers.INSTANCE.compareListContentUnordered(['x', 'b'], ['b', 'x', 'a'], ['$'], context, { -> '' }, callback)
+      .empty
+  }
+
   @Issue('#1367')
   def 'array contains matcher with simple values'() {
     given:
@@ -362,4 +401,53 @@ class MatchingContextSpec extends Specification {
     result2.size() == 1
     result3.size() == 2
   }
+
+  @Unroll
+  def 'selects the same matcher as comparing every path expression - #path'() {
+    given:
+    def category = new MatchingRuleCategory('body')
+    ['$', '$.a', '$.a.b', '$.*', '$.*.b', '$.a[*]', '$.a[1]', '$.a[*].b', '$[*]', '$[0]', '$.a.*', "\$['a'].b"]
+      .eachWithIndex { key, i -> category.addRule(key, new IncludeMatcher(i.toString())) }
+    category.addRule('$.v', ValuesMatcher.INSTANCE)
+    def context = new MatchingContext(category, true)
+    def expected = category.matchingRules
+      .findAll { Matchers.INSTANCE.matchesPath(it.key, path) > 0 }
+      .collect { new MatchingContext.BestMatcherResult(path, it.key, it.value) }
+      .findAll { it.pathWeight > 0 }
+      .inject(null) { best, result ->
+        best == null || result.pathWeight > best.pathWeight ||
+          (result.pathWeight == best.pathWeight && result.pathExp.length() > best.pathExp.length()) ? result : best
+      }
+
+    expect:
+    context.selectBestMatcher(path) == (expected == null ? new MatchingRuleGroup() :
+      expected.ruleGroup.copy(expected.ruleGroup.rules, expected.ruleGroup.ruleLogic,
+        expected.pathTokens.size() < path.size()))
+    context.matcherDefined(path) == (expected != null)
+
+    where:
+    path << [
+      ['$'], ['$', 'a'], ['$', 'a', 'b'], ['$', 'a', '1'], ['$', 'a', '1', 'b'], ['$', 'a', '2', 'b', 'c'],
+      ['$', 'c', 'b'], ['$', '0'], ['$', '1', 'x'], ['$', 'v'], ['$', 'v', 'x'], ['a'], []
+    ]
+  }
+
+  def 'rules added after matching are used'() {
+    given:
+    def category = new MatchingRuleCategory('body')
+    category.addRule('$.a', TypeMatcher.INSTANCE)
+    def context = new MatchingContext(category, true)
+
+    expect:
+    !context.matcherDefined(['$', 'b'])
+
+    when:
+    category.addRule('$.b', NullMatcher.INSTANCE)
+    category.setRule('$.a', EqualsMatcher.INSTANCE)
+
+    then:
+    context.selectBestMatcher(['$', 'b']).rules == [NullMatcher.INSTANCE]
+    context.selectBestMatcher(['$', 'a']).rules == [EqualsMatcher.INSTANCE]
+    !context.typeMatcherDefined(['$', 'a'])
+  }
 }
@@ -0,0 +1,115 @@
+package au.com.dius.pact.core.matchers
+
+import au.com.dius.pact.core.model.matchingrules.BooleanMatcher
+import au.com.dius.pact.core.model.matchingrules.ContentTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.DateMatcher
+import au.com.dius.pact.core.model.matchingrules.EqualsMatcher
+import au.com.dius.pact.core.model.matchingrules.IncludeMatcher
+import au.com.dius.pact.core.model.matchingrules.MatchingRuleCategory
+import au.com.dius.pact.core.model.matchingrules.MatchingRuleGroup
+import au.com.dius.pact.core.model.matchingrules.MaxTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.MinMaxTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.MinTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.NotEmptyMatcher
+import au.com.dius.pact.core.model.matchingrules.NullMatcher
+import au.com.dius.pact.core.model.matchingrules.NumberTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.RegexMatcher
+import au.com.dius.pact.core.model.matchingrules.RuleLogic
+import au.com.dius.pact.core.model.matchingrules.TimestampMatcher
+import au.com.dius.pact.core.model.matchingrules.TypeMatcher
+import au.com.dius.pact.core.support.json.JsonValue
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class MatchingRuleEvaluatorSpec extends Specification {
+
+  static final List VALUES = [
+    null, JsonValue.Null.INSTANCE, 'abc', '', '100', new JsonValue.StringValue('2020-01-01T10:00:00'),
+    new JsonValue.Integer(100), new JsonValue.Decimal(1.5), JsonValue.True.INSTANCE, 1.0,
+    [1, 2, 3], new JsonValue.Array([new JsonValue.Integer(1)]), [a: 'b'], new JsonValue.Object(), '1.2.3'
+  ]
+
+  static final List RULES = [
+    new RegexMatcher('\\d+'), TypeMatcher.INSTANCE, NotEmptyMatcher.INSTANCE,
+    new NumberTypeMatcher(NumberTypeMatcher.NumberType.INTEGER),
+    new NumberTypeMatcher(NumberTypeMatcher.NumberType.DECIMAL), BooleanMatcher.INSTANCE,
+    new DateMatcher('yyyy-MM-dd'), new TimestampMatcher("yyyy-MM-dd'T'HH:mm:ss"), new MinTypeMatcher(2),
+    new MaxTypeMatcher(2), new MinMaxTypeMatcher(1, 2), new IncludeMatcher('b'), NullMatcher.INSTANCE,
+    EqualsMatcher.INSTANCE
+  ]
+
+  @Unroll
+  def 'compiled rules give the same result as domatch - #rule'() {
+    given:
+    def evaluator = MatchingRuleEvaluator.compile(rule)
+    def expected = [1]
+
+    expect:
+    VALUES.every { actual ->
+      evaluator.evaluate(['$', 'a'], expected, actual, BodyMismatchFactory.INSTANCE, cascaded, null) ==
+        MatcherExecutorKt.domatch(rule, ['$', 'a'], expected, actual, BodyMismatchFactory.INSTANCE, cascaded, null)
+    }
+
+    where:
+    [rule, cascaded] << [RULES, [true, false]].combinations()
+  }
+
+  @Unroll
+  def 'compiled rule groups give the same result as domatch - #ruleLogic'() {
+    given:
+    def group = new MatchingRuleGroup([new RegexMatcher('\\d+'), new NumberTypeMatcher(
+      NumberTypeMatcher.NumberType.INTEGER), TypeMatcher.INSTANCE], ruleLogic)
+    def evaluator = MatchingRuleEvaluator.compile(group)
+
+    expect:
+    VALUES.every { actual ->
+      evaluator.evaluate(['$'], 'a', actual, BodyMismatchFactory.INSTANCE, false, null) ==
+        MatcherExecutorKt.domatch(group, ['$'], 'a', actual, BodyMismatchFactory.INSTANCE, null)
+    }
+
+    where:
+    ruleLogic << [RuleLogic.AND, RuleLogic.OR]
+  }
+
+  def 'invalid rules still fail when they are applied'() {
+    given:
+    def evaluator = MatchingRuleEvaluator.compile(new RegexMatcher('[a-'))
+
+    when:
+    evaluator.evaluate(['$'], 'a', 'a', BodyMismatchFactory.INSTANCE, false, null)
+
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def 'compiled groups are cached on the category'() {
+    given:
+    def category = new MatchingRuleCategory('body')
+    category.addRule('$.a', new RegexMatcher('\\d+'))
+    def group = category.matchingRules['$.a']
+
+    when:
+    def evaluator = MatchingRuleEvaluator.forGroup(category, group)
+
+    then:
+    MatchingRuleEvaluator.forGroup(category, group).is(evaluator)
+    MatchingRuleEvaluator.forGroup(category, group.copy(group.rules, group.ruleLogic, group.cascaded)).is(evaluator)
+
+    when:
+    group.rules.add(new IncludeMatcher('1'))
+    def updated = MatchingRuleEvaluator.forGroup(category, group)
+
+    then:
+    !updated.is(evaluator)
+    !updated.evaluate(['$', 'a'], '1', '22', BodyMismatchFactory.INSTANCE, false, null).empty
+  }
+
+  def 'content type rules are compiled with the parsed content type'() {
+    given:
+    def evaluator = MatchingRuleEvaluator.compile(new ContentTypeMatcher('application/json'))
+
+    expect:
+    evaluator.evaluate(['$'], null, '{"a": 1}'.bytes, BodyMismatchFactory.INSTANCE, false, null).empty
+    !evaluator.evaluate(['$'], null, 'a'.bytes, BodyMismatchFactory.INSTANCE, false, null).empty
+  }
+}
@@ -0,0 +1,119 @@
+package au.com.dius.pact.core.matchers
+
+import au.com.dius.pact.core.model.OptionalBody
+import au.com.dius.pact.core.model.matchingrules.MatchingRuleCategory
+import au.com.dius.pact.core.model.matchingrules.MinTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.RegexMatcher
+import au.com.dius.pact.core.model.matchingrules.TypeMatcher
+import au.com.dius.pact.core.model.matchingrules.ValuesMatcher
+import au.com.dius.pact.core.support.Json
+import au.com.dius.pact.core.support.PactRuntimeConfig
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.ForkJoinPool
+
+class ParallelMatchingSpec extends Specification {
+
+  @Shared
+  ForkJoinPool pool = new ForkJoinPool(4)
+
+  def cleanupSpec() {
+    pool.shutdown()
+  }
+
+  def 'returns the results in the order of the items'() {
+    given:
+    def parallelMatching = new ParallelMatching(10, pool)
+    def items = (0..<1000).toList()
+
+    when:
+    def result = parallelMatching.compare(items) { item ->
+      [new BodyItemMatchResult(item.toString(), [])]
+    }
+
+    then:
+    result*.key == items*.toString()
+  }
+
+  def 'comparing a large array in parallel gives the same result as comparing it sequentially'() {
+    given:
+    def rules = new MatchingRuleCategory('body')
+    rules.addRule('$', new MinTypeMatcher(1))
+    rules.addRule('$[*].id', new RegexMatcher('\\d+'))
+    rules.addRule('$[*].name', TypeMatcher.INSTANCE)
+    rules.addRule('$[*].tags', new MinTypeMatcher(1))
+    def expected = body([[id: '1', name: 'one', tags: ['a']]])
+    def actual = body((0..<500).collect { i ->
+      [id: i % 97 == 0 ? 'id-' + i : i.toString(), name: i % 89 == 0 ? i : 'name ' + i, tags: (0..(i % 3))*.toString()]
+    })
+
+    when:
+    def sequential = JsonContentMatcher.INSTANCE.matchBody(expected, actual, new MatchingContext(rules, true))
+    def parallel = JsonContentMatcher.INSTANCE.matchBody(expected, actual,
+      new MatchingContext(rules, true, [:], false, false, new ParallelMatching(10, pool)))
+
+    then:
+    describe(parallel) == describe(sequential)
+    sequential.mismatches.size() == 12
+  }
+
+  def 'comparing a large object in parallel gives the same result as comparing it sequentially'() {
+    given:
+    def rules = new MatchingRuleCategory('body')
+    rules.addRule('$.values', ValuesMatcher.INSTANCE)
+    rules.addRule('$.values.*', new RegexMatcher('v\\d+'))
+    def values = (0..<300).collectEntries { ['key' + it, 'v' + it] }
+    def expected = body([values: [a: 'v1'], fields: values])
+    def actual = body([
+      values: (0..<300).collectEntries { ['key' + it, (it % 50 == 0 ? 'x' : 'v') + it] },
+      fields: values.collectEntries { k, v -> [k, k == 'key150' ? 'changed' : v] }
+    ])
+
+    when:
+    def sequential = JsonContentMatcher.INSTANCE.matchBody(expected, actual, new MatchingContext(rules, true))
+    def parallel = JsonContentMatcher.INSTANCE.matchBody(expected, actual,
+      new MatchingContext(rules, true, [:], false, false, new ParallelMatching(10, pool)))
+
+    then:
+    describe(parallel) == describe(sequential)
+    sequential.mismatches.size() == 7
+  }
+
+  def 'fail fast matching compares the elements sequentially'() {
+    given:
+    def context = new MatchingContext(new MatchingRuleCategory('body'), true, [:], false, true,
+      new ParallelMatching(1, pool))
+    def compared = []
+
+    when:
+    def result = context.compareElements((0..<100).toList()) { item ->
+      compared << item
+      [new BodyItemMatchResult(item.toString(), item == 5 ? [new BodyMismatch(1, 2, 'Mismatch')] : [])]
+    }
+
+    then:
+    compared == (0..5).toList()
+    result.size() == 6
+  }
+
+  def 'parallel matching is only enabled when a threshold is configured'() {
+    expect:
+    ParallelMatching.fromRuntimeConfig(new PactRuntimeConfig()) == null
+    ParallelMatching.fromRuntimeConfig(config(100, 0)).pool.is(ForkJoinPool.commonPool())
+    ParallelMatching.fromRuntimeConfig(config(100, 3)).pool.parallelism == 3
+    ParallelMatching.fromRuntimeConfig(config(100, 3)).pool.is(ParallelMatching.fromRuntimeConfig(config(50, 3)).pool)
+  }
+
+  private static PactRuntimeConfig config(int threshold, int poolSize) {
+    new PactRuntimeConfig().withParallelMatching(threshold, poolSize)
+  }
+
+  private static OptionalBody body(Object value) {
+    OptionalBody.body(Json.INSTANCE.toJson(value).serialise().bytes)
+  }
+
+  private static List describe(BodyMatchResult result) {
+    result.bodyResults.collect { [it.key, it.result*.description()] }
+  }
+}
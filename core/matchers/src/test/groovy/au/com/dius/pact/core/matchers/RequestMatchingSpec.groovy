@@ -10,6 +10,7 @@ import au.com.dius.pact.core.model.RequestResponseInteraction
 import au.com.dius.pact.core.model.RequestResponsePact
 import au.com.dius.pact.core.model.Response
 import au.com.dius.pact.core.model.matchingrules.RegexMatcher
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import spock.lang.IgnoreIf
 import spock.lang.Specification
 
@@ -277,4 +278,44 @@ class RequestMatchingSpec extends Specification {
     then:
     !actualResponse
   }
+
+  def 'fail fast matching stops at the first mismatch'() {
+    given:
+    interaction = new RequestResponseInteraction('test interaction', testState, request, response, null)
+    def actual = request.copy()
+    actual.body = OptionalBody.body('{"test": false, "extra": false}'.bytes)
+    def wrongMethod = actual.copy()
+    wrongMethod.method = 'POST'
+
+    when:
+    def full = RequestMatching.requestMismatches(pact, interaction, actual)
+    def failFast = RequestMatching.requestMismatches(pact, interaction, actual, [:],
+      PactRuntimeConfig.current(), true)
+    def failFastMethod = RequestMatching.requestMismatches(pact, interaction, wrongMethod, [:],
+      PactRuntimeConfig.current(), true)
+
+    then:
+    full.mismatches.size() == 2
+    failFast.mismatches.size() == 1
+    failFastMethod.mismatches*.class == [MethodMismatch]
+    failFastMethod.body.bodyResults.empty
+  }
+
+  def 'partial matches report all the mismatches'() {
+    given:
+    interaction = new RequestResponseInteraction('test interaction', testState, request, response, null)
+    def other = new RequestResponseInteraction('other interaction', testState,
+      new Request('POST', '/other'), response, null)
+    pact.interactions = [ other, interaction ]
+    def actual = request.copy()
+    actual.body = OptionalBody.body('{"test": false, "extra": false}'.bytes)
+
+    when:
+    def match = new RequestMatching(pact).matchInteraction(actual)
+
+    then:
+    match instanceof PartialRequestMatch
+    match.problems.keySet()*.description == ['test interaction']
+    match.problems.values().first().mismatches.size() == 2
+  }
 }
@@ -0,0 +1,33 @@
+package au.com.dius.pact.core.matchers
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ValueValidatorsSpec extends Specification {
+
+  static final List<String> VALUES = [
+    '', '-', '0', '-0', '1', '100', '-100', '1.', '-1.', '1.5', '-1.50', '0.0', '.5', '-.5', '1.2.3', '1e10', '1.0e5',
+    '01', '00', '+1', ' 1', '1 ', 'a', '1a', '१२', 'true', 'false', 'True', 'FALSE', 'tru', 'falsey', ' true'
+  ]
+
+  @Unroll
+  def 'matches the same values as the regular expression - #value'() {
+    expect:
+    ValueValidators.isInteger(value) == (value ==~ /^-?\d+$/)
+    ValueValidators.isInteger(value.toCharArray()) == (value ==~ /^-?\d+$/)
+    ValueValidators.isDecimal(value) == (value ==~ /^0|-?\d+\.\d*$/)
+    ValueValidators.isDecimal(value.toCharArray()) == (value ==~ /^0|-?\d+\.\d*$/)
+    ValueValidators.isBoolean(value) == (value ==~ /^true|false$/)
+    ValueValidators.isBoolean(value.toCharArray()) == (value ==~ /^true|false$/)
+
+    where:
+    value << VALUES
+  }
+
+  def 'null values are not valid'() {
+    expect:
+    !ValueValidators.isInteger((CharSequence) null)
+    !ValueValidators.isDecimal((CharSequence) null)
+    !ValueValidators.isBoolean((CharSequence) null)
+  }
+}
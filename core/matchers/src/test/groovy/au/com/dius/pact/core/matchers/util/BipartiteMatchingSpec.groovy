@@ -0,0 +1,40 @@
+package au.com.dius.pact.core.matchers.util
+
+import spock.lang.Specification
+
+class BipartiteMatchingSpec extends Specification {
+  def 'finds a maximum matching'() {
+    given:
+    def matching = new BipartiteMatching([[0, 1] as int[], [0] as int[], [1, 2] as int[], [2] as int[]], 3)
+    def perfect = new BipartiteMatching([[0, 1] as int[], [0] as int[], [1, 2] as int[]], 3)
+
+    expect:
+    matching.augment() == 3
+    [0, 1, 2].every { matching.rightMatch(matching.leftMatch(it)) == it }
+    perfect.augment() == 3
+    [0, 1, 2].collect { perfect.rightMatch(it) } == [1, 0, 2]
+  }
+
+  def 'left vertices matched first stay matched'() {
+    given:
+    def matching = new BipartiteMatching([[0] as int[], [0] as int[]], 1)
+
+    when:
+    matching.augment(1)
+    matching.augment()
+
+    then:
+    matching.size == 1
+    matching.rightMatch(0) == 0
+    matching.rightMatch(1) == BipartiteMatching.UNMATCHED
+  }
+
+  def 'matches large dense graphs'() {
+    given:
+    def n = 2000
+    def adjacency = (0..<n).collect { left -> (left..<n).toArray() as int[] }
+
+    expect:
+    new BipartiteMatching(adjacency, n).augment() == n
+  }
+}
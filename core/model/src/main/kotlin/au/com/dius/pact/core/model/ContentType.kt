@@ -1,5 +1,6 @@
 package au.com.dius.pact.core.model
 
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.core.support.isNotEmpty
 import io.github.oshai.kotlinlogging.KotlinLogging
 import org.apache.tika.mime.MediaType
@@ -12,13 +13,15 @@ private val jsonRegex = Regex(".*json")
 private val xmlRegex = Regex(".*xml")
 private val logger = KotlinLogging.logger {}
 
+private fun contentTypeOverride(contentType: String) = PactRuntimeConfig.current().contentTypeOverride(contentType)
+
 class ContentType(val contentType: MediaType?) {
 
   constructor(contentType: String) : this(MediaType.parse(contentType))
 
   fun isJson(): Boolean {
     return if (contentType != null) {
-      when (System.getProperty("pact.content_type.override.${contentType.baseType}")) {
+      when (contentTypeOverride(contentType.baseType.toString())) {
         "json" -> true
         else -> {
           if ("vnd.schemaregistry.v1+json" == contentType.subtype)
@@ -36,7 +39,7 @@ class ContentType(val contentType: MediaType?) {
 
   fun isText(): Boolean {
     return if (contentType != null) {
-      when (System.getProperty("pact.content_type.override.${contentType.baseType}")) {
+      when (contentTypeOverride(contentType.baseType.toString())) {
         "text" -> true
         else -> {
           val superType = registry.getSupertype(contentType) ?: MediaType.OCTET_STREAM
@@ -49,14 +52,14 @@ class ContentType(val contentType: MediaType?) {
   }
 
   fun isXml(): Boolean = if (contentType != null) {
-    when (System.getProperty("pact.content_type.override.${contentType.baseType}")) {
+    when (contentTypeOverride(contentType.baseType.toString())) {
       "xml" -> true
       else -> xmlRegex.matches(contentType.subtype.lowercase(Locale.getDefault()))
     }
   } else false
 
   fun isKafkaSchemaRegistryJson(): Boolean = if (contentType != null) {
-    when (System.getProperty("pact.content_type.override.${contentType.baseType}")) {
+    when (contentTypeOverride(contentType.baseType.toString())) {
       "kafkaSchemaRegistryJson" -> true
       else -> contentType.subtype == "vnd.schemaregistry.v1+json"
     }
@@ -97,8 +100,8 @@ class ContentType(val contentType: MediaType?) {
       val superType = registry.getSupertype(contentType) ?: MediaType.OCTET_STREAM
       val type = contentType.type
       val baseType = superType.type
-      val override = System.getProperty("pact.content_type.override.$type.${contentType.subtype}")
-        ?: System.getProperty("pact.content_type.override.$type/${contentType.subtype}")
+      val override = contentTypeOverride("$type.${contentType.subtype}")
+        ?: contentTypeOverride("$type/${contentType.subtype}")
       when {
         override.isNotEmpty() -> override == "binary"
         type == "text" || baseType == "text" -> false
@@ -6,6 +6,7 @@ import au.com.dius.pact.core.model.ContentType.Companion.UNKNOWN
 import au.com.dius.pact.core.model.ContentType.Companion.XMLREGEXP
 import au.com.dius.pact.core.model.ContentType.Companion.XMLREGEXP2
 import au.com.dius.pact.core.support.json.JsonParser
+import au.com.dius.pact.core.support.json.JsonValue
 import io.github.oshai.kotlinlogging.KotlinLogging
 import org.apache.commons.codec.binary.Hex
 import org.apache.tika.config.TikaConfig
@@ -47,6 +48,9 @@ data class OptionalBody @JvmOverloads constructor(
     MISSING, EMPTY, NULL, PRESENT
   }
 
+  @Volatile
+  private var sharedJson: Pair<ContentType, JsonValue>? = null
+
   fun isMissing(): Boolean {
     return state == State.MISSING
   }
@@ -126,6 +130,34 @@ data class OptionalBody @JvmOverloads constructor(
     }
   }
 
+  /**
+   * Parses the body as a JSON document. UTF-8 encoded bodies are parsed directly from the bytes, and as the body
+   * keeps the bytes, string values are only decoded from them when they are accessed.
+   */
+  fun valueAsJson(): JsonValue {
+    return if (state == State.PRESENT && contentType.asCharset() == Charsets.UTF_8) {
+      JsonParser.parseBytes(value!!, true)
+    } else {
+      JsonParser.parseString(valueAsString())
+    }
+  }
+
+  /**
+   * Parses the body as a JSON document the first time it is called, and then returns the same document. The
+   * document is shared, so must not be modified. Use valueAsJson for a document that can be, or CopyOnWriteJson to
+   * apply changes without modifying the shared document.
+   */
+  fun valueAsSharedJson(): JsonValue {
+    val cached = sharedJson
+    return if (cached != null && cached.first == contentType) {
+      cached.second
+    } else {
+      val json = valueAsJson()
+      sharedJson = contentType to json
+      json
+    }
+  }
+
   fun detectContentType(): ContentType? = when {
     this.isPresent() -> {
       if (tika != null) {
@@ -179,7 +211,7 @@ data class OptionalBody @JvmOverloads constructor(
               )
             } else {
               mapOf(
-                "content" to JsonParser.parseString(valueAsString()),
+                "content" to valueAsJson(),
                 "contentType" to contentType.toString(),
                 "encoded" to false
               )
@@ -25,11 +25,11 @@ import org.apache.hc.core5.http.ContentType
 import org.apache.hc.core5.http.io.entity.EntityUtils
 import java.io.File
 import java.io.InputStream
-import java.io.InputStreamReader
 import java.io.Reader
 import java.net.URI
 import java.net.URL
 import java.net.URLDecoder
+import java.nio.ByteBuffer
 import java.util.Locale
 import kotlin.collections.set
 
@@ -343,7 +343,7 @@ object DefaultPactReader : PactReader {
     if (source is ClosurePactSource) {
       return loadFile(source.closure.get(), options)
     } else if (source is FileSource) {
-      return source.file.bufferedReader().use { JsonParser.parseReader(it).downcast<JsonValue.Object>() to source }
+      return parsePactFile(source.file) to source
     } else if (source is InputStream || source is Reader || source is File) {
       return loadPactFromFile(source)
     } else if (source is BrokerUrlSource) {
@@ -376,7 +376,7 @@ object DefaultPactReader : PactReader {
       return loadPactFromClasspath(source.substring(CLASSPATH_URI_START.length))
     } else if (source is String && fileExists(source)) {
       val file = File(source)
-      return file.bufferedReader().use { JsonParser.parseReader(it).downcast<JsonValue.Object>() to FileSource(file) }
+      return parsePactFile(file) to FileSource(file)
     } else if (source is StringSource) {
       return JsonParser.parseString(source.pactJson).downcast<JsonValue.Object>() to source
     } else {
@@ -392,16 +392,39 @@ object DefaultPactReader : PactReader {
 
   private fun loadPactFromFile(source: Any): Pair<JsonValue.Object, PactSource> {
     return when (source) {
-      is InputStream -> JsonParser.parseReader(InputStreamReader(source)).downcast<JsonValue.Object>() to
-        InputStreamPactSource
+      is InputStream -> parsePactStream(source) to InputStreamPactSource
       is Reader -> JsonParser.parseReader(source).downcast<JsonValue.Object>() to ReaderPactSource
-      is File -> source.bufferedReader().use {
-        JsonParser.parseReader(it).downcast<JsonValue.Object>() } to FileSource(source)
+      is File -> parsePactFile(source) to FileSource(source)
       else -> throw IllegalArgumentException("loadPactFromFile expects either an InputStream, Reader or File. " +
         "Got a ${source.javaClass.name} instead")
     }
   }
 
+  private fun parsePactFile(file: File): JsonValue.Object {
+    return JsonParser.parseFile(file, parallelThreshold = parallelParseThreshold()).downcast()
+  }
+
+  private fun parsePactStream(stream: InputStream): JsonValue.Object {
+    val threshold = parallelParseThreshold()
+    return if (threshold == Long.MAX_VALUE) {
+      JsonParser.parseStream(stream).downcast()
+    } else {
+      val bytes = stream.readAllBytes()
+      if (bytes.size >= threshold) {
+        JsonParser.parseParallel(ByteBuffer.wrap(bytes)).downcast()
+      } else {
+        JsonParser.parseBytes(bytes).downcast()
+      }
+    }
+  }
+
+  /**
+   * Pact files at least this size (in bytes) have their interactions parsed in parallel. Disabled by default, set
+   * the pact.reader.parallelParseThreshold system property to enable it.
+   */
+  private fun parallelParseThreshold() =
+    System.getProperty("pact.reader.parallelParseThreshold")?.toLongOrNull() ?: Long.MAX_VALUE
+
   private fun loadPactFromS3Bucket(source: String): Pair<JsonValue.Object, PactSource> {
     val amazonS3URIClass = Class.forName("com.amazonaws.services.s3.AmazonS3URI")
     val s3Uri = amazonS3URIClass.getConstructor(String::class.java).newInstance(source)
@@ -416,7 +439,7 @@ object DefaultPactReader : PactReader {
       .invoke(s3Client, bucket, key)
     val s3ObjectClass = Class.forName("com.amazonaws.services.s3.model.S3Object")
     val objectContent = s3ObjectClass.getMethod("getObjectContent").invoke(s3Pact) as InputStream
-    return JsonParser.parseReader(InputStreamReader(objectContent)).downcast<JsonValue.Object>() to S3PactSource(source)
+    return JsonParser.parseStream(objectContent).downcast<JsonValue.Object>() to S3PactSource(source)
   }
 
   private fun loadPactFromClasspath(source: String): Pair<JsonValue.Object, PactSource> {
@@ -1,16 +1,21 @@
 package au.com.dius.pact.core.model
 
 import au.com.dius.pact.core.support.Json
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.core.support.Result
 import au.com.dius.pact.core.support.json.JsonParser
 import au.com.dius.pact.core.support.json.JsonValue
 import io.github.oshai.kotlinlogging.KotlinLogging
-import java.io.ByteArrayOutputStream
 import java.io.File
+import java.io.IOException
 import java.io.PrintWriter
 import java.io.RandomAccessFile
-import java.io.StringWriter
-import java.nio.charset.Charset
+import java.io.Writer
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.Files
+import java.nio.file.NoSuchFileException
+import java.nio.file.StandardCopyOption
+import java.nio.file.attribute.BasicFileAttributes
 
 private val logger = KotlinLogging.logger {}
 
@@ -59,13 +64,15 @@ object DefaultPactWriter : PactWriter {
    */
   override fun writePact(pact: Pact, writer: PrintWriter, pactSpecVersion: PactSpecVersion) : Result<Int, Throwable> {
     val json = if (pactSpecVersion >= PactSpecVersion.V4) {
-      Json.prettyPrint(pact.sortInteractions().asV4Pact()
+      Json.toJson(pact.sortInteractions().asV4Pact()
         .expect { "Failed to upcast to a V4 pact" }.toMap(pactSpecVersion))
     } else {
-      Json.prettyPrint(pact.sortInteractions().toMap(pactSpecVersion))
+      Json.toJson(pact.sortInteractions().toMap(pactSpecVersion))
     }
-    writer.println(json)
-    return Result.Ok(json.toByteArray().size)
+    val countingWriter = CountingWriter(writer)
+    json.prettyPrintTo(countingWriter)
+    writer.println()
+    return Result.Ok(countingWriter.bytes)
   }
 
   /**
@@ -87,12 +94,11 @@ object DefaultPactWriter : PactWriter {
   override fun writePact(pactFile: File, pact: Pact, pactSpecVersion: PactSpecVersion) : Result<Int, Throwable> {
     pactFile.parentFile.mkdirs()
     return if (pactWriteMode() == PactWriteMode.MERGE) {
-      val raf = RandomAccessFile(pactFile, "rw")
-      val lock = raf.channel.lock()
-      try {
+      withPactFileLock(pactFile) {
         val pactToWrite = if (pactFile.length() > 0) {
           val source = FileSource(pactFile)
-          val json: JsonValue.Object = JsonParser.parseString(readFileUtf8(raf)).downcast()
+          // The file is replaced below, so it must not be memory mapped
+          val json: JsonValue.Object = JsonParser.parseFile(pactFile, Long.MAX_VALUE).downcast()
           val existingPact = DefaultPactReader.pactFromJson(json, source)
           val result = PactMerge.merge(pact, existingPact)
           if (!result.ok) {
@@ -102,41 +108,115 @@ object DefaultPactWriter : PactWriter {
         } else {
           pact
         }
-        raf.seek(0)
-        val swriter = StringWriter()
-        val writer = PrintWriter(swriter)
-        writePact(pactToWrite, writer, pactSpecVersion)
-        val bytes = swriter.toString().toByteArray()
-        raf.write(bytes)
-        raf.setLength(bytes.size.toLong())
-        Result.Ok(bytes.size)
-      } finally {
-        lock.release()
-        raf.close()
+        replacePactFile(pactFile, pactToWrite, pactSpecVersion)
       }
     } else {
       pactFile.printWriter().use { writePact(pact, it, pactSpecVersion) }
     }
   }
 
+  /**
+   * Runs the block while holding a lock on a lock file next to the pact file, which is deleted again afterwards. The
+   * pact file is replaced by the merged one, so the lock can not be held on the pact file itself, as a writer waiting
+   * on it would end up with a lock on the old file. For the same reason, a writer that was waiting on the lock file
+   * checks that it has not been deleted or replaced by the time it gets the lock, and tries again if it has.
+   */
+  private fun <T> withPactFileLock(pactFile: File, block: () -> T): T {
+    val lockFile = File(pactFile.parentFile, pactFile.name + ".lock")
+    while (true) {
+      RandomAccessFile(lockFile, "rw").use { raf ->
+        val key = fileKey(lockFile)
+        raf.channel.lock().use {
+          if (lockFile.exists() && key == fileKey(lockFile)) {
+            try {
+              return block()
+            } finally {
+              lockFile.delete()
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private fun fileKey(file: File) = try {
+    Files.readAttributes(file.toPath(), BasicFileAttributes::class.java).fileKey()
+  } catch (_: NoSuchFileException) {
+    null
+  }
+
+  /**
+   * Writes the pact to a temporary file in the same directory and then moves it over the pact file, so that readers
+   * never see a partly written pact file
+   */
+  private fun replacePactFile(pactFile: File, pact: Pact, pactSpecVersion: PactSpecVersion): Result<Int, Throwable> {
+    val tempFile = Files.createTempFile(pactFile.parentFile.toPath(), pactFile.name, ".tmp")
+    try {
+      PrintWriter(Files.newBufferedWriter(tempFile, Charsets.UTF_8)).use { writer ->
+        writePact(pact, writer, pactSpecVersion)
+        writer.flush()
+        if (writer.checkError()) {
+          throw IOException("Failed to write pact file $pactFile")
+        }
+      }
+      val size = Files.size(tempFile)
+      try {
+        Files.move(tempFile, pactFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING)
+      } catch (_: AtomicMoveNotSupportedException) {
+        Files.move(tempFile, pactFile.toPath(), StandardCopyOption.REPLACE_EXISTING)
+      }
+      return Result.Ok(size.toInt())
+    } finally {
+      Files.deleteIfExists(tempFile)
+    }
+  }
+
   private fun pactWriteMode(): PactWriteMode {
-    return when (System.getProperty("pact.writer.overwrite")) {
-      "true" -> PactWriteMode.OVERWRITE
-      else -> PactWriteMode.MERGE
+    return if (PactRuntimeConfig.current().overwritePactFiles) {
+      PactWriteMode.OVERWRITE
+    } else {
+      PactWriteMode.MERGE
     }
   }
+}
+
+/**
+ * Writer that passes everything through, keeping a count of the number of UTF-8 bytes written
+ */
+private class CountingWriter(private val writer: Writer) : Writer() {
+  var bytes = 0
+    private set
+
+  override fun write(c: Int) {
+    writer.write(c)
+    count(c.toChar())
+  }
 
-  private fun readFileUtf8(file: RandomAccessFile): String {
-    val buffer = ByteArray(128)
-    val data = ByteArrayOutputStream()
+  override fun write(str: String, off: Int, len: Int) {
+    writer.write(str, off, len)
+    for (i in off until off + len) {
+      count(str[i])
+    }
+  }
 
-    file.seek(0)
-    var count = file.read(buffer)
-    while (count > 0) {
-      data.write(buffer, 0, count)
-      count = file.read(buffer)
+  override fun write(cbuf: CharArray, off: Int, len: Int) {
+    writer.write(cbuf, off, len)
+    for (i in off until off + len) {
+      count(cbuf[i])
     }
+  }
 
-    return String(data.toByteArray(), Charset.forName("UTF-8"))
+  private fun count(c: Char) {
+    bytes += when {
+      c.code < 0x80 -> 1
+      c.code < 0x800 -> 2
+      c.isHighSurrogate() -> 4
+      c.isLowSurrogate() -> 0
+      else -> 3
+    }
   }
+
+  override fun flush() = writer.flush()
+
+  override fun close() = writer.close()
 }
@@ -3,6 +3,7 @@ package au.com.dius.pact.core.model
 import au.com.dius.pact.core.support.Json
 import au.com.dius.pact.core.support.Utils.jsonSafeValue
 import au.com.dius.pact.core.support.json.JsonValue
+import au.com.dius.pact.core.support.regex.PatternCache
 import org.apache.commons.lang3.builder.HashCodeBuilder
 
 /**
@@ -34,7 +35,7 @@ data class ProviderState @JvmOverloads constructor(val name: String?, val params
     }
   }
 
-  fun matches(state: String) = name?.matches(Regex(state)) ?: false
+  fun matches(state: String) = name?.let { PatternCache.matches(state, it) } ?: false
 
   fun uniqueKey(): Int {
     val builder = HashCodeBuilder().append(name)
@@ -1,7 +1,6 @@
 package au.com.dius.pact.core.model
 
 import au.com.dius.pact.core.support.Json
-import au.com.dius.pact.core.support.json.JsonParser
 import io.github.oshai.kotlinlogging.KotlinLogging
 import java.net.URLEncoder
 import java.util.Locale
@@ -153,7 +152,7 @@ open class RequestResponseInteraction @JvmOverloads constructor(
     private fun setupBodyForJson(httpPart: HttpPart): Any? {
       val contentType = httpPart.determineContentType()
       return if (contentType.isJson()) {
-        val body = Json.fromJson(JsonParser.parseString(httpPart.body.valueAsString()))
+        val body = Json.fromJson(httpPart.body.valueAsJson())
         if (body is String) {
           httpPart.body.valueAsString()
         } else {
@@ -1,5 +1,6 @@
 package au.com.dius.pact.core.model.generators
 
+import au.com.dius.pact.core.support.BoundedCache
 import au.com.dius.pact.core.support.Result
 import au.com.dius.pact.core.support.generators.expressions.Adjustment
 import au.com.dius.pact.core.support.generators.expressions.DateBase
@@ -18,10 +19,15 @@ private val logger = KotlinLogging.logger {}
 data class ParsedDateExpression(val base: DateBase, val adjustments: MutableList<Adjustment<DateOffsetType>>)
 
 object DateExpression {
+  /** Maximum number of parsed expressions kept by [parseDateExpressionCached] */
+  const val CACHE_SIZE = 256
+
+  private val cache = BoundedCache<String, Result<ParsedDateExpression, String>>(CACHE_SIZE)
+
   @Suppress("NestedBlockDepth")
   fun executeDateExpression(base: OffsetDateTime, expression: String?): Result<OffsetDateTime, String> {
     return if (!expression.isNullOrEmpty()) {
-      return when (val result = parseDateExpression(expression)) {
+      return when (val result = parseDateExpressionCached(expression)) {
         is Result.Err -> result
         is Result.Ok -> {
           var date = baseDate(result, base)
@@ -140,6 +146,14 @@ object DateExpression {
     return result
   }
 
+  /**
+   * Parses the expression, returning the same result for an expression that has been recently parsed. The parsed
+   * expressions are not modified when they are executed, so can be shared between threads.
+   */
+  fun parseDateExpressionCached(expression: String): Result<ParsedDateExpression, String> {
+    return cache.getOrPut(expression) { parseDateExpression(expression) }
+  }
+
   private fun parseDateExpression(expression: String): Result<ParsedDateExpression, String> {
     val lexer = DateExpressionLexer(expression)
     val parser = DateExpressionParser(lexer)
@@ -7,6 +7,7 @@ import java.lang.Integer.parseInt
 import java.time.OffsetDateTime
 
 private val logger = KotlinLogging.logger {}
+private val ERROR_INDEX = Regex("index (\\d+)")
 
 object DateTimeExpression {
   fun executeExpression(base: OffsetDateTime, expression: String?): Result<OffsetDateTime, String> {
@@ -20,14 +21,14 @@ object DateTimeExpression {
           TimeExpression.executeTimeExpression(base, split[1])
         when {
           datePart is Result.Err<String> && timePart is Result.Err<String> -> datePart.mapError { "$it, " +
-            Regex("index (\\d+)").replace(timePart.error) { mr ->
+            ERROR_INDEX.replace(timePart.error) { mr ->
               val pos = parseInt(mr.groupValues[1])
               "index ${pos + split[0].length + 1}"
             }
           }
           datePart is Result.Err<String> -> datePart
           timePart is Result.Err<String> -> timePart.mapError {
-            Regex("index (\\d+)").replace(timePart.error) { mr ->
+            ERROR_INDEX.replace(timePart.error) { mr ->
               val pos = parseInt(mr.groupValues[1])
               "index ${pos + split[0].length + 1}"
             }
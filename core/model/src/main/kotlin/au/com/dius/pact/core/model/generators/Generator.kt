@@ -13,30 +13,26 @@ import au.com.dius.pact.core.support.expressions.MapValueResolver
 import au.com.dius.pact.core.support.getOr
 import au.com.dius.pact.core.support.isNotEmpty
 import au.com.dius.pact.core.support.json.JsonValue
+import au.com.dius.pact.core.support.regex.PatternCache
+import au.com.dius.pact.core.support.time.DateTimeFormatterCache
 import io.github.oshai.kotlinlogging.KotlinLogging
-import org.apache.commons.lang3.RandomStringUtils
-import org.apache.commons.lang3.RandomUtils
 import java.math.BigDecimal
 import java.net.URLDecoder
 import java.nio.charset.Charset
 import java.time.OffsetDateTime
 import java.time.ZoneId
 import java.time.format.DateTimeFormatter
-import java.util.UUID
-import java.util.concurrent.ThreadLocalRandom
 import java.util.regex.PatternSyntaxException
-import kotlin.reflect.full.companionObject
-import kotlin.reflect.full.companionObjectInstance
-import kotlin.reflect.full.declaredMemberFunctions
 
 private val logger = KotlinLogging.logger {}
 
 const val DEFAULT_GENERATOR_PACKAGE = "au.com.dius.pact.core.model.generators"
 
 /**
- * Looks up the generator class in the configured generator packages. By default it will look for generators in
- * au.com.dius.pact.model.generators package, but this can be extended by adding a comma separated list to the
- * pact.generators.packages system property. The generator class name needs to be <Type>Generator.
+ * Looks up the generator for the generator JSON. The built-in generators and generators registered with the
+ * ServiceLoader are found in the [GeneratorRegistry]. Other generators are looked up in the packages from the
+ * pact.generators.packages system property (a comma separated list), and the class name needs to be
+ * <Type>Generator.
  */
 fun lookupGenerator(generatorJson: JsonValue?): Generator? {
   var generator: Generator? = null
@@ -69,47 +65,15 @@ fun lookupGenerator(generatorJson: JsonValue?): Generator? {
 private fun pluginGeneratorValues(json: JsonValue.Object) =
   json.entries.filterKeys { it != "type" }
 
-fun createGenerator(type: String, generatorJson: JsonValue): Generator {
-  val generatorClass = findGeneratorClass(type).kotlin
-  val (instance, fromJson) = when {
-    generatorClass.companionObject != null ->
-      generatorClass.companionObjectInstance to generatorClass.companionObject?.declaredMemberFunctions?.find {
-        it.name == "fromJson"
-      }
-    generatorClass.objectInstance != null ->
-      generatorClass.objectInstance to generatorClass.declaredMemberFunctions.find { it.name == "fromJson" }
-    else -> null to null
-  }
-  if (fromJson != null) {
-    return fromJson.call(instance, generatorJson) as Generator
-  } else {
-    throw InvalidGeneratorException("Could not invoke generator class 'fromJson' for generator config '$generatorJson'")
-  }
-}
+/**
+ * Creates the generator of the given type from its JSON form. See [GeneratorRegistry].
+ */
+fun createGenerator(type: String, generatorJson: JsonValue): Generator =
+  GeneratorRegistry.createGenerator(type, generatorJson)
 
 class InvalidGeneratorException(message: String) : RuntimeException(message)
 
-fun findGeneratorClass(generatorType: String): Class<*> {
-  val generatorPackages = System.getProperty("pact.generators.packages")
-  return when {
-    generatorPackages.isNullOrBlank() -> Class.forName("$DEFAULT_GENERATOR_PACKAGE.${generatorType}Generator")
-    else -> {
-      val packages = generatorPackages.split(",").map { it.trim() } + DEFAULT_GENERATOR_PACKAGE
-      var generatorClass: Class<*>? = null
-
-      packages.find {
-        try {
-          generatorClass = Class.forName("$it.${generatorType}Generator")
-          true
-        } catch (_: ClassNotFoundException) {
-          false
-        }
-      }
-
-      generatorClass ?: throw ClassNotFoundException("No generator found for type '$generatorType'")
-    }
-  }
-}
+fun findGeneratorClass(generatorType: String): Class<*> = GeneratorRegistry.findGeneratorClass(generatorType)
 
 /**
  * Interface that all Generators need to implement
@@ -134,7 +98,7 @@ data class RandomIntGenerator(val min: Int, val max: Int) : Generator {
 
   override fun generate(context: MutableMap<String, Any>, exampleValue: Any?): Any {
     logger.debug { "Applying Generator $this" }
-    return RandomUtils.nextInt(min, max)
+    return Random.nextInt(min, max)
   }
 
   companion object {
@@ -171,13 +135,13 @@ data class RandomDecimalGenerator(val digits: Int) : Generator {
     logger.debug { "Applying Generator $this" }
     return when {
       digits < 1 -> throw UnsupportedOperationException("RandomDecimalGenerator digits must be > 0, got $digits")
-      digits == 1 -> BigDecimal(RandomUtils.nextInt(0, 9))
-      digits == 2 -> BigDecimal("${RandomUtils.nextInt(0, 9)}.${RandomUtils.nextInt(0, 9)}")
+      digits == 1 -> BigDecimal(Random.nextInt(0, 9))
+      digits == 2 -> BigDecimal("${Random.nextInt(0, 9)}.${Random.nextInt(0, 9)}")
       else -> {
-        val sampleDigits = RandomStringUtils.randomNumeric(digits + 1)
-        val pos = RandomUtils.nextInt(1, digits - 1)
+        val sampleDigits = Random.randomNumeric(digits + 1)
+        val pos = Random.nextInt(1, digits - 1)
         val selectedDigits = if (sampleDigits.startsWith("00")) {
-          RandomUtils.nextInt(1, 9).toString() + sampleDigits.substring(1, digits)
+          Random.nextInt(1, 9).toString() + sampleDigits.substring(1, digits)
         } else if (pos != 1 && sampleDigits.startsWith('0')) {
           sampleDigits.substring(1)
         } else {
@@ -219,7 +183,7 @@ data class RandomHexadecimalGenerator(val digits: Int) : Generator {
 
   override fun generate(context: MutableMap<String, Any>, exampleValue: Any?): Any {
     logger.debug { "Applying Generator $this" }
-    return RandomStringUtils.random(digits, "0123456789abcdef")
+    return Random.randomString(digits, "0123456789abcdef")
   }
 
   companion object {
@@ -248,7 +212,7 @@ data class RandomStringGenerator(val size: Int = 20) : Generator {
 
   override fun generate(context: MutableMap<String, Any>, exampleValue: Any?): Any {
     logger.debug { "Applying Generator $this" }
-    return RandomStringUtils.randomAlphanumeric(size)
+    return Random.randomAlphanumeric(size)
   }
 
   companion object {
@@ -280,6 +244,11 @@ data class RegexGenerator(val regex: String) : Generator {
     return Random.generateRandomString(regex)
   }
 
+  /**
+   * Generates a number of values at once, only parsing the regular expression once
+   */
+  fun generate(count: Int): List<String> = Random.generateRandomStrings(regex, count)
+
   companion object {
     fun fromJson(json: JsonValue.Object) = RegexGenerator(Json.toString(json["regex"]))
   }
@@ -347,13 +316,13 @@ data class UuidGenerator @JvmOverloads constructor(val format: UuidFormat? = nul
     logger.debug { "Applying Generator $this" }
     return if (format != null) {
       when (format) {
-        UuidFormat.Simple -> UUID.randomUUID().toString().replace("-", "")
-        UuidFormat.LowerCaseHyphenated -> UUID.randomUUID().toString().lowercase()
-        UuidFormat.UpperCaseHyphenated -> UUID.randomUUID().toString().uppercase()
-        UuidFormat.Urn -> "urn:uuid:" + UUID.randomUUID().toString()
+        UuidFormat.Simple -> Random.randomUUID().toString().replace("-", "")
+        UuidFormat.LowerCaseHyphenated -> Random.randomUUID().toString().lowercase()
+        UuidFormat.UpperCaseHyphenated -> Random.randomUUID().toString().uppercase()
+        UuidFormat.Urn -> "urn:uuid:" + Random.randomUUID().toString()
       }
     } else {
-      UUID.randomUUID().toString()
+      Random.randomUUID().toString()
     }
   }
 
@@ -394,7 +363,7 @@ data class DateGenerator @JvmOverloads constructor(
       else OffsetDateTime.now()
     val date = DateExpression.executeDateExpression(base, expression).getOr(base)
     return if (!format.isNullOrEmpty()) {
-      date.format(DateTimeFormatter.ofPattern(format))
+      date.format(DateTimeFormatterCache.formatter(format))
     } else {
       date.format(DateTimeFormatter.ISO_LOCAL_DATE)
     }
@@ -436,9 +405,9 @@ data class TimeGenerator @JvmOverloads constructor(
     val base = if (context.containsKey("baseTime")) context["baseTime"] as OffsetDateTime else OffsetDateTime.now()
     val time = TimeExpression.executeTimeExpression(base, expression).getOr(base)
     return if (!format.isNullOrEmpty()) {
-      time.format(DateTimeFormatter.ofPattern(format))
+      time.format(DateTimeFormatterCache.formatter(format))
     } else {
-      time.format(DateTimeFormatter.ofPattern("HH:mm:ss"))
+      time.format(DateTimeFormatterCache.formatter("HH:mm:ss"))
     }
   }
 
@@ -479,7 +448,7 @@ data class DateTimeGenerator @JvmOverloads constructor(
       else OffsetDateTime.now()
     val datetime = DateTimeExpression.executeExpression(base, expression).getOr(base)
     return if (!format.isNullOrEmpty()) {
-      datetime.toZonedDateTime().format(DateTimeFormatter.ofPattern(format).withZone(ZoneId.systemDefault()))
+      datetime.toZonedDateTime().format(DateTimeFormatterCache.formatter(format).withZone(ZoneId.systemDefault()))
     } else {
       datetime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
     }
@@ -508,7 +477,7 @@ object RandomBooleanGenerator : Generator {
 
   override fun generate(context: MutableMap<String, Any>, exampleValue: Any?): Any {
     logger.debug { "Applying Generator $this" }
-    return ThreadLocalRandom.current().nextBoolean()
+    return Random.nextBoolean()
   }
 
   override fun equals(other: Any?) = other is RandomBooleanGenerator
@@ -591,8 +560,7 @@ data class MockServerURLGenerator(
         val href = mockServerDetails["href"]?.toString()
         if (href.isNotEmpty()) {
           try {
-            val regex = Regex(regex)
-            val match = regex.matchEntire(example)
+            val match = PatternCache.regex(regex).matchEntire(example)
             if (match != null) {
               URLDecoder.decode(buildUrl(href!!, match.groupValues[1]).toString(), Charset.defaultCharset())
             } else {
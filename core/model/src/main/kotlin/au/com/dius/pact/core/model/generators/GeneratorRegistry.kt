@@ -0,0 +1,196 @@
+package au.com.dius.pact.core.model.generators
+
+import au.com.dius.pact.core.support.json.JsonValue
+import io.github.oshai.kotlinlogging.KotlinLogging
+import java.util.Optional
+import java.util.ServiceConfigurationError
+import java.util.ServiceLoader
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.reflect.KFunction
+import kotlin.reflect.full.companionObject
+import kotlin.reflect.full.companionObjectInstance
+import kotlin.reflect.full.declaredMemberFunctions
+
+private val logger = KotlinLogging.logger {}
+
+/**
+ * Creates generators of a particular type from their JSON form. Generators provided by other modules can be added by
+ * registering an implementation of this interface with the ServiceLoader
+ * (META-INF/services/au.com.dius.pact.core.model.generators.GeneratorFactory).
+ */
+interface GeneratorFactory {
+  /**
+   * Generator type, as used in the type attribute of the generator JSON
+   */
+  val type: String
+
+  fun fromJson(json: JsonValue.Object): Generator
+}
+
+/**
+ * Registry of the factories used to create generators from JSON. The built-in generators are registered directly,
+ * other generators are loaded with the ServiceLoader or registered with [register]. Generator classes in the packages
+ * from the pact.generators.packages system property are looked up with reflection, but only once per type.
+ */
+object GeneratorRegistry {
+  private class FunctionGeneratorFactory(
+    override val type: String,
+    private val factory: (JsonValue.Object) -> Generator
+  ) : GeneratorFactory {
+    override fun fromJson(json: JsonValue.Object) = factory(json)
+  }
+
+  /**
+   * Factory for the built-in generators that do not have a JSON form of their own
+   */
+  private class UnsupportedGeneratorFactory(
+    override val type: String,
+    private val reason: String
+  ) : GeneratorFactory {
+    override fun fromJson(json: JsonValue.Object): Generator {
+      throw InvalidGeneratorException("The $type generator can not be created from generator config '$json', $reason")
+    }
+  }
+
+  /**
+   * Calls the fromJson function of a generator class found by name
+   */
+  private class ReflectiveGeneratorFactory(
+    override val type: String,
+    private val instance: Any?,
+    private val fromJson: KFunction<*>?
+  ) : GeneratorFactory {
+    override fun fromJson(json: JsonValue.Object) = create(json)
+
+    fun create(json: JsonValue): Generator {
+      if (fromJson != null) {
+        return fromJson.call(instance, json) as Generator
+      } else {
+        throw InvalidGeneratorException("Could not invoke generator class 'fromJson' for generator config '$json'")
+      }
+    }
+  }
+
+  private val factories = ConcurrentHashMap<String, GeneratorFactory>()
+  private val packageLookups = ConcurrentHashMap<Pair<String, String>, Optional<ReflectiveGeneratorFactory>>()
+
+  init {
+    listOf(
+      FunctionGeneratorFactory("RandomInt", RandomIntGenerator::fromJson),
+      FunctionGeneratorFactory("RandomDecimal", RandomDecimalGenerator::fromJson),
+      FunctionGeneratorFactory("RandomHexadecimal", RandomHexadecimalGenerator::fromJson),
+      FunctionGeneratorFactory("RandomString", RandomStringGenerator::fromJson),
+      FunctionGeneratorFactory("Regex", RegexGenerator::fromJson),
+      FunctionGeneratorFactory("Uuid", UuidGenerator::fromJson),
+      FunctionGeneratorFactory("Date", DateGenerator::fromJson),
+      FunctionGeneratorFactory("Time", TimeGenerator::fromJson),
+      FunctionGeneratorFactory("DateTime", DateTimeGenerator::fromJson),
+      FunctionGeneratorFactory("RandomBoolean", RandomBooleanGenerator::fromJson),
+      FunctionGeneratorFactory("ProviderState", ProviderStateGenerator::fromJson),
+      FunctionGeneratorFactory("MockServerURL", MockServerURLGenerator::fromJson),
+      UnsupportedGeneratorFactory("ArrayContains", "as it is created from the variants of an arrayContains matcher"),
+      UnsupportedGeneratorFactory("Null", "as it is only used in place of generators that could not be loaded"),
+      UnsupportedGeneratorFactory("Plugin", "as plugin generators are created for the types that are not known")
+    ).forEach { factories[it.type] = it }
+
+    try {
+      ServiceLoader.load(GeneratorFactory::class.java, GeneratorFactory::class.java.classLoader).forEach {
+        logger.debug { "Registering generator factory ${it.javaClass.name} for type '${it.type}'" }
+        factories[it.type] = it
+      }
+    } catch (e: ServiceConfigurationError) {
+      logger.warn(e) { "Failed to load the generator factories from the ServiceLoader" }
+    }
+  }
+
+  /**
+   * Registers the factory for its generator type, replacing any existing factory for the type
+   */
+  @JvmStatic
+  fun register(factory: GeneratorFactory) {
+    factories[factory.type] = factory
+  }
+
+  /**
+   * Returns the factory registered for the generator type, if there is one
+   */
+  @JvmStatic
+  fun factory(type: String): GeneratorFactory? = factories[type]
+
+  /**
+   * Creates the generator of the given type from its JSON form. Throws a ClassNotFoundException if there is no
+   * generator for the type.
+   */
+  @JvmStatic
+  fun createGenerator(type: String, generatorJson: JsonValue): Generator {
+    val generatorPackages = System.getProperty("pact.generators.packages")
+    if (!generatorPackages.isNullOrBlank()) {
+      val factory = lookupFactory(type, generatorPackages, generatorPackages.split(",").map { it.trim() })
+      if (factory != null) {
+        return factory.create(generatorJson)
+      }
+    }
+
+    val factory = factories[type]
+    return if (factory != null && generatorJson is JsonValue.Object) {
+      factory.fromJson(generatorJson)
+    } else {
+      val defaultFactory = lookupFactory(type, "", listOf(DEFAULT_GENERATOR_PACKAGE))
+        ?: throw ClassNotFoundException("No generator found for type '$type'")
+      defaultFactory.create(generatorJson)
+    }
+  }
+
+  /**
+   * Returns the generator class for the type. Classes are looked up in the packages from the
+   * pact.generators.packages system property, and then the default generator package.
+   */
+  @JvmStatic
+  fun findGeneratorClass(generatorType: String): Class<*> {
+    val generatorPackages = System.getProperty("pact.generators.packages")
+    val packages = if (generatorPackages.isNullOrBlank()) {
+      emptyList()
+    } else {
+      generatorPackages.split(",").map { it.trim() }
+    }
+    return findClass(generatorType, packages + DEFAULT_GENERATOR_PACKAGE)
+  }
+
+  /**
+   * Looks up the generator class in the packages, caching the result (including when it is not found) so the
+   * classes are only looked up once for the packages
+   */
+  private fun lookupFactory(type: String, key: String, packages: List<String>): ReflectiveGeneratorFactory? {
+    return packageLookups.computeIfAbsent(key to type) {
+      try {
+        Optional.of(reflectiveFactory(type, findClass(type, packages)))
+      } catch (_: ClassNotFoundException) {
+        Optional.empty()
+      }
+    }.orElse(null)
+  }
+
+  private fun findClass(generatorType: String, packages: List<String>): Class<*> {
+    for (pkg in packages) {
+      try {
+        return Class.forName("$pkg.${generatorType}Generator")
+      } catch (_: ClassNotFoundException) {
+        // try the next package
+      }
+    }
+    throw ClassNotFoundException("No generator found for type '$generatorType'")
+  }
+
+  private fun reflectiveFactory(type: String, generatorClass: Class<*>): ReflectiveGeneratorFactory {
+    val kotlinClass = generatorClass.kotlin
+    return when {
+      kotlinClass.companionObject != null ->
+        ReflectiveGeneratorFactory(type, kotlinClass.companionObjectInstance,
+          kotlinClass.companionObject?.declaredMemberFunctions?.find { it.name == "fromJson" })
+      kotlinClass.objectInstance != null ->
+        ReflectiveGeneratorFactory(type, kotlinClass.objectInstance,
+          kotlinClass.declaredMemberFunctions.find { it.name == "fromJson" })
+      else -> ReflectiveGeneratorFactory(type, null, null)
+    }
+  }
+}
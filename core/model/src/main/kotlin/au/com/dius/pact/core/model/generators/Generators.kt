@@ -8,10 +8,11 @@ import au.com.dius.pact.core.model.PactSpecVersion
 import au.com.dius.pact.core.model.lessThan
 import au.com.dius.pact.core.model.parsePath
 import au.com.dius.pact.core.support.Json
-import au.com.dius.pact.core.support.json.JsonParser
+import au.com.dius.pact.core.support.json.CopyOnWriteJson
 import au.com.dius.pact.core.support.json.JsonValue
-import au.com.dius.pact.core.support.json.orNull
 import io.github.oshai.kotlinlogging.KotlinLogging
+import java.io.ByteArrayOutputStream
+import java.io.OutputStreamWriter
 import java.util.Locale
 
 private val logger = KotlinLogging.logger {}
@@ -52,18 +53,47 @@ data class JsonQueryResult(
     set(value) { jsonValue = Json.toJson(value) }
 }
 
+/**
+ * Query result for a JSON body that is updated copy-on-write, so the parsed body is not modified
+ */
+class CopyOnWriteJsonQueryResult(val document: CopyOnWriteJson) : QueryResult {
+  override var value: Any?
+    get() = document.root
+    set(value) { document.root = Json.toJson(value) }
+  override val key: Any? = null
+  override val path: List<String> = emptyList()
+}
+
 object JsonContentTypeHandler : ContentTypeHandler {
+  /**
+   * The body is parsed once and shared between calls. Generated values are applied to a copy-on-write view of it, so
+   * each call only copies the objects and arrays that contain generated values.
+   */
   override fun processBody(value: OptionalBody, fn: (QueryResult) -> Unit): OptionalBody {
-    val bodyJson = JsonQueryResult(JsonParser.parseString(value.valueAsString()))
+    val bodyJson = CopyOnWriteJsonQueryResult(CopyOnWriteJson(value.valueAsSharedJson()))
     fn.invoke(bodyJson)
-    return OptionalBody.body(bodyJson.jsonValue.orNull().serialise()
-      .toByteArray(value.contentType.asCharset()), ContentType.JSON)
+    val out = ByteArrayOutputStream()
+    OutputStreamWriter(out, value.contentType.asCharset()).use { bodyJson.document.root.serialiseTo(it) }
+    return OptionalBody.body(out.toByteArray(), ContentType.JSON)
   }
 
   override fun applyKey(body: QueryResult, key: String, generator: Generator, context: MutableMap<String, Any>) {
     val pathExp = parsePath(key)
     // So that a plugin-provided generator knows where the value it is generating lives
     context[PluginGenerator.PATH_CONTEXT_KEY] = key
+    if (body is CopyOnWriteJsonQueryResult) {
+      val document = body.document
+      queryObjectGraph(pathExp.iterator(), JsonQueryResult(document.root)) { result ->
+        // Generators may modify the example value, so containers are copied before being passed to them
+        val example = when (val current = document.get(result.path)) {
+          is JsonValue.Object, is JsonValue.Array -> current.copy()
+          else -> current
+        }
+        document.set(result.path, Json.toJson(generator.generate(context, example)))
+      }
+      return
+    }
+
     queryObjectGraph(pathExp.iterator(), body as JsonQueryResult) { (_, valueKey, parent) ->
       when (parent) {
         is JsonValue.Object ->
@@ -148,9 +178,19 @@ data class Generators(val categories: MutableMap<Category, MutableMap<String, Ge
       // So that a plugin-provided generator knows which side of the test it is running on
       context[PluginGenerator.MODE_CONTEXT_KEY] = mode
       return handler?.processBody(body) { bodyResult: QueryResult ->
-        for ((key, generator) in generators) {
-          if (generator.correspondsToMode(mode)) {
-            handler.applyKey(bodyResult, key, generator, context)
+        // JSON bodies have all their generators applied in one pass of the body, unless their paths overlap
+        val trie = if (handler === JsonContentTypeHandler && bodyResult is CopyOnWriteJsonQueryResult) {
+          JsonGeneratorTrie.forGenerators(generators)
+        } else {
+          null
+        }
+        if (trie != null) {
+          trie.apply((bodyResult as CopyOnWriteJsonQueryResult).document, context, mode)
+        } else {
+          for ((key, generator) in generators) {
+            if (generator.correspondsToMode(mode)) {
+              handler.applyKey(bodyResult, key, generator, context)
+            }
           }
         }
       } ?: body
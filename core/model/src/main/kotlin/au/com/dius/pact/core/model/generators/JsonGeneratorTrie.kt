@@ -0,0 +1,148 @@
+package au.com.dius.pact.core.model.generators
+
+import au.com.dius.pact.core.model.PathToken
+import au.com.dius.pact.core.model.parsePath
+import au.com.dius.pact.core.support.BoundedCache
+import au.com.dius.pact.core.support.Json
+import au.com.dius.pact.core.support.json.CopyOnWriteJson
+import au.com.dius.pact.core.support.json.JsonValue
+import java.util.Optional
+
+/**
+ * The generators for a JSON body compiled into a trie of their paths, so they can all be applied in one traversal of
+ * the body instead of a query from the root of the body for each generator. As the same generators are applied to
+ * every request or response of an interaction, the compiled tries are cached.
+ */
+class JsonGeneratorTrie private constructor(private val root: Node) {
+  private class Node {
+    val fields = LinkedHashMap<String, Node>()
+    val indices = LinkedHashMap<Int, Node>()
+    var star: Node? = null
+    var starIndex: Node? = null
+    val generators = mutableListOf<Pair<String, Generator>>()
+  }
+
+  /**
+   * Applies the generators for the test mode to the document
+   */
+  fun apply(document: CopyOnWriteJson, context: MutableMap<String, Any>, mode: GeneratorTestMode) {
+    visit(listOf(root), document.root, mutableListOf(), document, context, mode)
+  }
+
+  @Suppress("LongParameterList")
+  private fun visit(
+    nodes: List<Node>,
+    value: JsonValue,
+    path: MutableList<String>,
+    document: CopyOnWriteJson,
+    context: MutableMap<String, Any>,
+    mode: GeneratorTestMode
+  ) {
+    var current = value
+    for (node in nodes) {
+      for ((key, generator) in node.generators) {
+        if (generator.correspondsToMode(mode)) {
+          // So that a plugin-provided generator knows where the value it is generating lives
+          context[PluginGenerator.PATH_CONTEXT_KEY] = key
+          // Generators may modify the example value, so containers are copied before being passed to them
+          val example = when (current) {
+            is JsonValue.Object, is JsonValue.Array -> current.copy()
+            else -> current
+          }
+          current = Json.toJson(generator.generate(context, example))
+          document.set(path, current)
+        }
+      }
+    }
+
+    when (current) {
+      is JsonValue.Object -> {
+        val stars = nodes.mapNotNull { it.star }
+        val names = if (stars.isNotEmpty()) current.entries.keys.toList()
+          else nodes.flatMap { it.fields.keys }.distinct()
+        for (name in names) {
+          val child = current.entries[name] ?: continue
+          path.add(name)
+          visit(stars + nodes.mapNotNull { it.fields[name] }, child, path, document, context, mode)
+          path.removeAt(path.size - 1)
+        }
+      }
+      is JsonValue.Array -> {
+        val stars = nodes.mapNotNull { it.starIndex }
+        val indices = if (stars.isNotEmpty()) current.values.indices.toList()
+          else nodes.flatMap { it.indices.keys }.distinct().filter { it < current.values.size }
+        for (index in indices) {
+          path.add(index.toString())
+          visit(stars + nodes.mapNotNull { it.indices[index] }, current.values[index], path, document, context, mode)
+          path.removeAt(path.size - 1)
+        }
+      }
+      else -> {}
+    }
+  }
+
+  companion object {
+    /** Maximum number of compiled generator sets that are cached */
+    const val CACHE_SIZE = 256
+
+    private val cache = BoundedCache<Map<String, Generator>, Optional<JsonGeneratorTrie>>(CACHE_SIZE)
+
+    /**
+     * Returns the compiled trie for the generators. Returns null if any of the generators apply to the same value, or
+     * to a value inside the value of another generator, as then they need to be applied one at a time in order.
+     */
+    @JvmStatic
+    fun forGenerators(generators: Map<String, Generator>): JsonGeneratorTrie? {
+      // The generators can be changed after this, so a copy of them is used as the key
+      val trie = cache[generators] ?: cache.putIfAbsent(LinkedHashMap(generators), compile(generators))
+      return trie.orElse(null)
+    }
+
+    private fun compile(generators: Map<String, Generator>): Optional<JsonGeneratorTrie> {
+      val paths = generators.keys.map { key -> parsePath(key).filter { it !is PathToken.Root } }
+      for (i in paths.indices) {
+        for (j in i + 1 until paths.size) {
+          if (overlaps(paths[i], paths[j])) {
+            return Optional.empty()
+          }
+        }
+      }
+
+      val root = Node()
+      generators.entries.forEachIndexed { index, (key, generator) ->
+        var node = root
+        for (token in paths[index]) {
+          node = when (token) {
+            is PathToken.Field -> node.fields.getOrPut(token.name) { Node() }
+            is PathToken.Index -> node.indices.getOrPut(token.index) { Node() }
+            is PathToken.Star -> node.star ?: Node().also { node.star = it }
+            is PathToken.StarIndex -> node.starIndex ?: Node().also { node.starIndex = it }
+            is PathToken.Root -> node
+          }
+        }
+        node.generators.add(key to generator)
+      }
+      return Optional.of(JsonGeneratorTrie(root))
+    }
+
+    /**
+     * If the shorter path can match the same value as the longer path, or a value that contains it
+     */
+    private fun overlaps(path1: List<PathToken>, path2: List<PathToken>): Boolean {
+      for (i in 0 until minOf(path1.size, path2.size)) {
+        if (!tokensOverlap(path1[i], path2[i])) {
+          return false
+        }
+      }
+      return true
+    }
+
+    private fun tokensOverlap(token1: PathToken, token2: PathToken) = when (token1) {
+      is PathToken.Field -> token2 is PathToken.Star || token2 is PathToken.Field && token2.name == token1.name
+      is PathToken.Index -> token2 is PathToken.StarIndex || token2 is PathToken.Index && token2.index == token1.index
+      is PathToken.Star -> token2 is PathToken.Star || token2 is PathToken.Field
+      is PathToken.StarIndex -> token2 is PathToken.StarIndex || token2 is PathToken.Index
+      is PathToken.Root -> token2 is PathToken.Root
+    }
+  }
+}
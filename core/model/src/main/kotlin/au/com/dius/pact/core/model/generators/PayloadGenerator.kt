@@ -0,0 +1,224 @@
+package au.com.dius.pact.core.model.generators
+
+import au.com.dius.pact.core.model.ContentType
+import au.com.dius.pact.core.model.Interaction
+import au.com.dius.pact.core.model.OptionalBody
+import au.com.dius.pact.core.model.PathToken
+import au.com.dius.pact.core.model.matchingrules.MatchingRuleCategory
+import au.com.dius.pact.core.model.matchingrules.MatchingRules
+import au.com.dius.pact.core.model.matchingrules.MaxTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.MinMaxTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.MinTypeMatcher
+import au.com.dius.pact.core.model.parsePath
+import au.com.dius.pact.core.support.Json
+import au.com.dius.pact.core.support.Random
+import au.com.dius.pact.core.support.RandomSource
+import au.com.dius.pact.core.support.json.CopyOnWriteJson
+import au.com.dius.pact.core.support.json.JsonValue
+import java.io.Writer
+
+/**
+ * Generates bodies from the example body, matching rules and generators of an interaction, for producing bulk test
+ * data from a pact.
+ *
+ * The work that is the same for every body is done once when the generator is created: the example body is parsed,
+ * arrays with a minimum (or maximum) size from a type matcher (i.e. eachLike) are resized to that size, and the
+ * generators are compiled into a [JsonGeneratorTrie]. Each generated body then only applies the generators to a
+ * copy-on-write view of that template and writes it out, so only the values that are generated are copied.
+ *
+ * Instances are not thread safe, as the generator context is reused between bodies. Create one per thread.
+ * If a random source is given (like a [SeededRandomSource] to generate the same bodies each run), the random values
+ * are drawn from it instead of the global [Random.source].
+ */
+class PayloadGenerator @JvmOverloads constructor(
+  body: OptionalBody,
+  contentType: ContentType,
+  private val generators: Map<String, Generator>,
+  matchingRules: MatchingRuleCategory? = null,
+  private val mode: GeneratorTestMode = GeneratorTestMode.Consumer,
+  context: Map<String, Any> = emptyMap(),
+  private val random: RandomSource? = null
+) {
+  enum class Part { REQUEST, RESPONSE }
+
+  private val context: MutableMap<String, Any> = context.toMutableMap()
+  private val body: OptionalBody
+  private val contentType: ContentType
+  private val template: JsonValue?
+  private val trie: JsonGeneratorTrie?
+
+  init {
+    require(body.isPresent()) { "The interaction does not have a body to generate" }
+    this.body = body
+    this.contentType = contentType
+    this.context[PluginGenerator.MODE_CONTEXT_KEY] = mode
+    if (contentType.isJson()) {
+      template = applyArraySizes(body.valueAsJson(), matchingRules)
+      trie = JsonGeneratorTrie.forGenerators(generators)
+    } else {
+      template = null
+      trie = null
+    }
+  }
+
+  /**
+   * Generates the next body. JSON bodies are returned as JSON, other bodies are returned as a JSON string.
+   */
+  fun next(): JsonValue {
+    return if (random != null) Random.withSource(random) { generateNext() } else generateNext()
+  }
+
+  private fun generateNext(): JsonValue {
+    return if (template != null) {
+      val document = CopyOnWriteJson(template)
+      if (trie != null) {
+        trie.apply(document, context, mode)
+      } else {
+        val result = CopyOnWriteJsonQueryResult(document)
+        for ((key, generator) in generators) {
+          if (generator.correspondsToMode(mode)) {
+            JsonContentTypeHandler.applyKey(result, key, generator, context)
+          }
+        }
+      }
+      document.root
+    } else {
+      Json.toJson(Generators.applyBodyGenerators(generators, body, contentType, context, mode).valueAsString())
+    }
+  }
+
+  /**
+   * Writes the given number of generated bodies to the writer as newline-delimited JSON. The writer is not closed
+   * or flushed, and should be buffered.
+   */
+  fun generate(count: Long, writer: Writer) {
+    for (i in 0 until count) {
+      next().serialiseTo(writer)
+      writer.write('\n'.code)
+    }
+  }
+
+  /**
+   * Returns a lazy sequence of generated bodies
+   */
+  fun asSequence() = generateSequence { next() }
+
+  companion object {
+    /**
+     * Creates a generator for the body of a part of the interaction. For HTTP interactions this is the request or
+     * response body, for messages the contents of the message (the request or first response for synchronous
+     * messages).
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun forInteraction(
+      interaction: Interaction,
+      part: Part = Part.RESPONSE,
+      mode: GeneratorTestMode = GeneratorTestMode.Consumer,
+      context: Map<String, Any> = emptyMap(),
+      random: RandomSource? = null
+    ): PayloadGenerator {
+      return when {
+        interaction.isSynchronousRequestResponse() -> {
+          val reqRes = interaction.asSynchronousRequestResponse()!!
+          val httpPart = if (part == Part.REQUEST) reqRes.request else reqRes.response
+          PayloadGenerator(httpPart.body, httpPart.determineContentType(), bodyGenerators(httpPart.generators),
+            bodyRules(httpPart.matchingRules), mode, context, random)
+        }
+        interaction.isAsynchronousMessage() -> {
+          val contents = interaction.asAsynchronousMessage()!!.contents
+          PayloadGenerator(contents.contents, contents.getContentType(), bodyGenerators(contents.generators),
+            bodyRules(contents.matchingRules), mode, context, random)
+        }
+        interaction.isSynchronousMessages() -> {
+          val messages = interaction.asSynchronousMessages()!!
+          val contents = if (part == Part.REQUEST) messages.request else messages.response.firstOrNull()
+          require(contents != null) { "The interaction does not have a response message" }
+          PayloadGenerator(contents.contents, contents.getContentType(), bodyGenerators(contents.generators),
+            bodyRules(contents.matchingRules), mode, context, random)
+        }
+        else -> {
+          val message = interaction.asMessage()
+          require(message != null) { "Generating bodies is not supported for ${interaction.javaClass.simpleName}" }
+          PayloadGenerator(message.contents, message.contentType, bodyGenerators(message.generators),
+            bodyRules(message.matchingRules), mode, context, random)
+        }
+      }
+    }
+
+    private fun bodyGenerators(generators: Generators) =
+      generators.categories[Category.BODY] ?: generators.categories[Category.CONTENT] ?: emptyMap()
+
+    private fun bodyRules(matchingRules: MatchingRules) = when {
+      matchingRules.hasCategory("body") -> matchingRules.rulesForCategory("body")
+      matchingRules.hasCategory("content") -> matchingRules.rulesForCategory("content")
+      else -> null
+    }
+
+    /**
+     * Resizes the arrays in the body that have a minimum or maximum size from a type matcher, by repeating the last
+     * item or removing items from the end. Outer arrays are resized first, so the paths of nested arrays also match
+     * any items that were added.
+     */
+    private fun applyArraySizes(body: JsonValue, matchingRules: MatchingRuleCategory?): JsonValue {
+      if (matchingRules == null) {
+        return body
+      }
+
+      val sizes = matchingRules.matchingRules.mapNotNull { (path, group) ->
+        val min = group.rules.maxOfOrNull {
+          when (it) {
+            is MinTypeMatcher -> it.min
+            is MinMaxTypeMatcher -> it.min
+            else -> 0
+          }
+        } ?: 0
+        val max = group.rules.minOfOrNull {
+          when (it) {
+            is MaxTypeMatcher -> it.max
+            is MinMaxTypeMatcher -> it.max
+            else -> Int.MAX_VALUE
+          }
+        } ?: Int.MAX_VALUE
+        if (min > 0 || max < Int.MAX_VALUE) parsePath(path) to (min to max) else null
+      }.sortedBy { it.first.size }
+      if (sizes.isEmpty()) {
+        return body
+      }
+
+      val json = body.copy()
+      for ((path, size) in sizes) {
+        val (min, max) = size
+        for (value in resolvePath(json, path)) {
+          if (value is JsonValue.Array && value.values.isNotEmpty()) {
+            while (value.values.size < min) {
+              value.values.add(value.values.last().copy())
+            }
+            while (value.values.size > max && value.values.size > min) {
+              value.values.removeAt(value.values.size - 1)
+            }
+          }
+        }
+      }
+      return json
+    }
+
+    private fun resolvePath(json: JsonValue, path: List<PathToken>): List<JsonValue> {
+      var values = listOf(json)
+      for (token in path) {
+        values = values.flatMap { value ->
+          when (token) {
+            is PathToken.Root -> listOf(value)
+            is PathToken.Field -> if (value is JsonValue.Object) listOfNotNull(value.entries[token.name])
+              else emptyList()
+            is PathToken.Index -> if (value is JsonValue.Array) listOfNotNull(value.values.getOrNull(token.index))
+              else emptyList()
+            is PathToken.Star -> if (value is JsonValue.Object) value.entries.values.toList() else emptyList()
+            is PathToken.StarIndex -> if (value is JsonValue.Array) value.values.toList() else emptyList()
+          }
+        }
+      }
+      return values
+    }
+  }
+}
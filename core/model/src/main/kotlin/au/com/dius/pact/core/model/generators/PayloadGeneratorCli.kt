@@ -0,0 +1,118 @@
+package au.com.dius.pact.core.model.generators
+
+import au.com.dius.pact.core.model.DefaultPactReader
+import au.com.dius.pact.core.support.SeededRandomSource
+import java.io.BufferedWriter
+import java.io.File
+import java.io.OutputStreamWriter
+import java.io.PrintStream
+import java.io.Writer
+import kotlin.system.exitProcess
+
+/**
+ * Command line entry point that writes generated bodies for an interaction in a pact file as newline-delimited JSON.
+ *
+ * Usage: PayloadGeneratorCli <pact file> <interaction description> [options]
+ *
+ * Options:
+ *  --count <n>                 Number of bodies to generate (default 1)
+ *  --part <request|response>   Part of the interaction to generate the body for (default response)
+ *  --mode <consumer|provider>  Test mode to apply the generators for (default consumer)
+ *  --seed <n>                  Seed for the random values, to generate the same bodies each run
+ *  --output <file>             File to write the bodies to (default standard out)
+ */
+object PayloadGeneratorCli {
+  const val USAGE = "Usage: PayloadGeneratorCli <pact file> <interaction description> [--count <n>] " +
+    "[--part <request|response>] [--mode <consumer|provider>] [--seed <n>] [--output <file>]"
+
+  private const val BUFFER_SIZE = 64 * 1024
+  private val OPTIONS = setOf("count", "part", "mode", "seed", "output")
+
+  @JvmStatic
+  fun main(args: Array<String>) {
+    exitProcess(run(args, System.out, System.err))
+  }
+
+  /**
+   * Runs the command with the arguments, returning the exit code
+   */
+  @JvmStatic
+  @Suppress("ReturnCount")
+  fun run(args: Array<String>, out: PrintStream, err: PrintStream): Int {
+    val positional = mutableListOf<String>()
+    val options = mutableMapOf<String, String>()
+    var index = 0
+    while (index < args.size) {
+      val arg = args[index]
+      if (arg.startsWith("--")) {
+        if (arg.substring(2) !in OPTIONS) {
+          err.println("Unknown option $arg\n$USAGE")
+          return 1
+        }
+        if (index + 1 >= args.size) {
+          err.println("Missing value for $arg\n$USAGE")
+          return 1
+        }
+        options[arg.substring(2)] = args[index + 1]
+        index += 2
+      } else {
+        positional.add(arg)
+        index++
+      }
+    }
+
+    if (positional.size != 2) {
+      err.println(USAGE)
+      return 1
+    }
+
+    val count = options["count"]?.let { it.toLongOrNull() ?: 0L } ?: 1L
+    if (count <= 0) {
+      err.println("Invalid count '${options["count"]}', must be a positive number\n$USAGE")
+      return 1
+    }
+    val part = when (options["part"]?.lowercase()) {
+      null, "response" -> PayloadGenerator.Part.RESPONSE
+      "request" -> PayloadGenerator.Part.REQUEST
+      else -> {
+        err.println("Invalid part '${options["part"]}', must be request or response\n$USAGE")
+        return 1
+      }
+    }
+    val mode = when (options["mode"]?.lowercase()) {
+      null, "consumer" -> GeneratorTestMode.Consumer
+      "provider" -> GeneratorTestMode.Provider
+      else -> {
+        err.println("Invalid mode '${options["mode"]}', must be consumer or provider\n$USAGE")
+        return 1
+      }
+    }
+    val seed = options["seed"]
+    if (seed != null && seed.toLongOrNull() == null) {
+      err.println("Invalid seed '$seed', must be a number\n$USAGE")
+      return 1
+    }
+
+    val pact = DefaultPactReader.loadPact(File(positional[0]))
+    val interaction = pact.interactions.find { it.description == positional[1] }
+    if (interaction == null) {
+      err.println("No interaction with description '${positional[1]}' was found in ${positional[0]}")
+      return 1
+    }
+
+    val random = seed?.let { SeededRandomSource(it.toLong()) }
+    val generator = PayloadGenerator.forInteraction(interaction, part, mode, random = random)
+    val output = options["output"]
+    val writer: Writer = if (output != null) {
+      File(output).bufferedWriter(bufferSize = BUFFER_SIZE)
+    } else {
+      BufferedWriter(OutputStreamWriter(out, Charsets.UTF_8), BUFFER_SIZE)
+    }
+    try {
+      generator.generate(count, writer)
+    } finally {
+      if (output != null) writer.close() else writer.flush()
+    }
+    return 0
+  }
+}
@@ -1,5 +1,6 @@
 package au.com.dius.pact.core.model.generators
 
+import au.com.dius.pact.core.support.BoundedCache
 import au.com.dius.pact.core.support.Result
 import au.com.dius.pact.core.support.generators.expressions.Adjustment
 import au.com.dius.pact.core.support.generators.expressions.Operation
@@ -18,10 +19,15 @@ private val logger = KotlinLogging.logger {}
 data class ParsedTimeExpression(val base: TimeBase, val adjustments: MutableList<Adjustment<TimeOffsetType>>)
 
 object TimeExpression {
+  /** Maximum number of parsed expressions kept by [parseTimeExpressionCached] */
+  const val CACHE_SIZE = 256
+
+  private val cache = BoundedCache<String, Result<ParsedTimeExpression, String>>(CACHE_SIZE)
+
   @Suppress("ComplexMethod")
   fun executeTimeExpression(base: OffsetDateTime, expression: String?): Result<OffsetDateTime, String> {
     return if (!expression.isNullOrEmpty()) {
-      return when (val result = parseTimeExpression(expression)) {
+      return when (val result = parseTimeExpressionCached(expression)) {
         is Result.Err -> result
         is Result.Ok -> {
           val midnight = OffsetDateTime.of(base.toLocalDate(), LocalTime.MIDNIGHT, ZoneOffset.from(base))
@@ -66,6 +72,14 @@ object TimeExpression {
     }
   }
 
+  /**
+   * Parses the expression, returning the same result for an expression that has been recently parsed. The parsed
+   * expressions are not modified when they are executed, so can be shared between threads.
+   */
+  fun parseTimeExpressionCached(expression: String): Result<ParsedTimeExpression, String> {
+    return cache.getOrPut(expression) { parseTimeExpression(expression) }
+  }
+
   private fun parseTimeExpression(expression: String): Result<ParsedTimeExpression, String> {
     val lexer = TimeExpressionLexer(expression)
     val parser = TimeExpressionParser(lexer)
@@ -6,8 +6,17 @@ import au.com.dius.pact.core.model.atLeast
 import au.com.dius.pact.core.model.generators.Generator
 import au.com.dius.pact.core.support.json.JsonValue
 import io.github.oshai.kotlinlogging.KLogging
+import java.util.concurrent.ConcurrentHashMap
 import java.util.function.Predicate
 
+/**
+ * Compiles a matching rule group into another form, like an evaluator for the rules. The compiled groups are cached
+ * by the category (see [MatchingRuleCategory.compiledRuleGroup]) against the group and the compiler.
+ */
+fun interface MatchingRuleGroupCompiler<T : Any> {
+  fun compile(group: MatchingRuleGroup): T
+}
+
 /**
  * Matching rules category
  */
@@ -18,6 +27,49 @@ data class MatchingRuleCategory @JvmOverloads constructor(
 
   companion object : KLogging()
 
+  private data class CompiledRuleGroupKey(val group: MatchingRuleGroup, val compiler: MatchingRuleGroupCompiler<*>)
+
+  /**
+   * Compiled forms of the rule groups, keyed by a copy of the group (so changes to the rules are not missed) and the
+   * compiler that compiled it
+   */
+  private val compiledRuleGroups = ConcurrentHashMap<CompiledRuleGroupKey, Any>()
+
+  /**
+   * Returns the compiled form of a rule group, compiling it with the compiler the first time the group is seen.
+   * This lets the matchers compile the rules once instead of interpreting them for every value that is matched.
+   */
+  fun <T : Any> compiledRuleGroup(group: MatchingRuleGroup, compiler: MatchingRuleGroupCompiler<T>): T {
+    val compiled = compiledRuleGroups[CompiledRuleGroupKey(group, compiler)]
+      ?: compiledRuleGroups.computeIfAbsent(
+        CompiledRuleGroupKey(MatchingRuleGroup(group.rules.toMutableList(), group.ruleLogic, group.cascaded), compiler)
+      ) { compiler.compile(group) }
+    // Only the groups compiled by a compiler are stored against it, so the value is of the type it returns
+    @Suppress("UNCHECKED_CAST")
+    return compiled as T
+  }
+
+  /**
+   * Index over the path expressions of the rules. It is checked against the keys of the rules each time it is used,
+   * and rebuilt if the rules have been replaced or the keys changed.
+   */
+  @Volatile
+  private var pathIndex: MatchingRulePathIndex? = null
+
+  /**
+   * Returns the keys of this category that match the path (or a parent of the path) along with their weights, using a
+   * trie over the parsed path expressions. Only applies to categories keyed by path expressions (body and content).
+   */
+  fun matchingPaths(path: List<String>): List<MatchingRulePathIndex.PathMatch> {
+    val rules = matchingRules
+    val index = pathIndex
+    return if (index != null && index.isIndexOf(rules)) {
+      index.matches(path)
+    } else {
+      MatchingRulePathIndex(rules).also { pathIndex = it }.matches(path)
+    }
+  }
+
   /**
    * Add a rule by key to the given category
    */
@@ -43,7 +95,7 @@ data class MatchingRuleCategory @JvmOverloads constructor(
    */
   @JvmOverloads
   fun setRule(item: String, matchingRule: MatchingRule, ruleLogic: RuleLogic = RuleLogic.AND) {
-    matchingRules[item] = MatchingRuleGroup(mutableListOf(matchingRule), ruleLogic)
+    setRules(item, MatchingRuleGroup(mutableListOf(matchingRule), ruleLogic))
   }
 
   /**
@@ -0,0 +1,135 @@
+package au.com.dius.pact.core.model.matchingrules
+
+import au.com.dius.pact.core.model.InvalidPathExpression
+import au.com.dius.pact.core.model.PathToken
+import au.com.dius.pact.core.model.parsePath
+
+/**
+ * Index over the path expressions of a body or content category. The keys are parsed once into a trie of path
+ * tokens, so the rules that apply to a path are found by walking the path through the trie instead of parsing and
+ * comparing every key.
+ *
+ * The weights are calculated the same as DocPath.matchesToken: 2 for the root, a field or an index that is equal to
+ * the path element, and 1 for a wildcard.
+ */
+class MatchingRulePathIndex(private val matchingRules: Map<String, MatchingRuleGroup>) {
+
+  /**
+   * A key of the category that matches a path
+   */
+  data class PathMatch(
+    /** Path expression the rules are keyed by */
+    val pathExp: String,
+    /** Rules at the path expression */
+    val ruleGroup: MatchingRuleGroup,
+    /** Number of tokens in the path expression */
+    val tokenCount: Int,
+    /** Weight of the match against the path */
+    val weight: Int
+  )
+
+  private class Node {
+    val fields = HashMap<String, Node>()
+    val indices = HashMap<Int, Node>()
+    var star: Node? = null
+    var starIndex: Node? = null
+    val keys = mutableListOf<Key>()
+  }
+
+  private class Key(val order: Int, val pathExp: String, val tokenCount: Int)
+
+  private class State(val node: Node, val weight: Int)
+
+  private val root = Node()
+  private val invalidPath: InvalidPathExpression?
+  private val keys = matchingRules.keys.toTypedArray()
+
+  init {
+    var invalid: InvalidPathExpression? = null
+    matchingRules.keys.forEachIndexed { order, pathExp ->
+      try {
+        val tokens = parsePath(pathExp)
+        if (tokens.isNotEmpty()) {
+          tokens.drop(1).fold(root) { node, token -> child(node, token) }.keys.add(Key(order, pathExp, tokens.size))
+        }
+      } catch (e: InvalidPathExpression) {
+        if (invalid == null) {
+          invalid = e
+        }
+      }
+    }
+    invalidPath = invalid
+  }
+
+  /**
+   * If this index is up to date for the given map, i.e. it was built from the map and the map still has the same keys
+   * in the same order. This only compares the keys, so it is much cheaper than rebuilding the index.
+   */
+  fun isIndexOf(rules: Map<String, MatchingRuleGroup>): Boolean {
+    if (rules !== matchingRules || rules.size != keys.size) {
+      return false
+    }
+    var i = 0
+    for (key in rules.keys) {
+      if (key != keys[i++]) {
+        return false
+      }
+    }
+    return true
+  }
+
+  /**
+   * Returns the keys that match the path (or a parent of the path), in the order they were defined in. The groups are
+   * looked up when this is called, so groups that have been replaced since the index was built are returned.
+   * Throws an InvalidPathExpression if any of the keys are not valid path expressions.
+   */
+  fun matches(path: List<String>): List<PathMatch> {
+    if (invalidPath != null) {
+      throw invalidPath
+    }
+    if (path.isEmpty() || path[0] != "$") {
+      return emptyList()
+    }
+
+    val found = mutableListOf<Pair<Key, Int>>()
+    var states = listOf(State(root, ROOT_WEIGHT))
+    root.keys.forEach { found.add(it to ROOT_WEIGHT) }
+    for (element in path.subList(1, path.size)) {
+      val index = element.toIntOrNull()
+      val next = mutableListOf<State>()
+      for (state in states) {
+        state.node.fields[element]?.let { next.add(State(it, state.weight * EXACT_WEIGHT)) }
+        if (index != null) {
+          state.node.indices[index]?.let { next.add(State(it, state.weight * EXACT_WEIGHT)) }
+          state.node.starIndex?.let { next.add(State(it, state.weight * WILDCARD_WEIGHT)) }
+        }
+        state.node.star?.let { next.add(State(it, state.weight * WILDCARD_WEIGHT)) }
+      }
+      if (next.isEmpty()) {
+        break
+      }
+      next.forEach { state -> state.node.keys.forEach { found.add(it to state.weight) } }
+      states = next
+    }
+
+    return found.sortedBy { it.first.order }.mapNotNull { (key, weight) ->
+      matchingRules[key.pathExp]?.let { PathMatch(key.pathExp, it, key.tokenCount, weight) }
+    }
+  }
+
+  private fun child(node: Node, token: PathToken): Node {
+    return when (token) {
+      is PathToken.Field -> node.fields.getOrPut(token.name) { Node() }
+      is PathToken.Index -> node.indices.getOrPut(token.index) { Node() }
+      is PathToken.Star -> node.star ?: Node().also { node.star = it }
+      is PathToken.StarIndex -> node.starIndex ?: Node().also { node.starIndex = it }
+      is PathToken.Root -> node
+    }
+  }
+
+  companion object {
+    private const val ROOT_WEIGHT = 2
+    private const val EXACT_WEIGHT = 2
+    private const val WILDCARD_WEIGHT = 1
+  }
+}
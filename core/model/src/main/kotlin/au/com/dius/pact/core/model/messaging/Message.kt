@@ -116,7 +116,7 @@ class Message @JvmOverloads constructor(
       map["contents"] = when {
         isJsonCompatibleContent() -> {
           try {
-            val json = JsonParser.parseString(contents.valueAsString())
+            val json = contents.valueAsJson()
             if (json is JsonValue.StringValue) {
               contents.valueAsString()
             } else {
@@ -160,7 +160,7 @@ class Message @JvmOverloads constructor(
 
       when {
         contentType.isKafkaSchemaRegistryJson() -> tryParseKafkaSchemaRegistryMagicBytes()
-        isJsonCompatibleContent() -> JsonParser.parseString(contents.valueAsString()).prettyPrint()
+        isJsonCompatibleContent() -> contents.valueAsJson().prettyPrint()
         contentType.isOctetStream() -> Base64.encodeBase64String(contentsAsBytes())
         else -> contents.valueAsString()
       }
@@ -179,7 +179,7 @@ class Message @JvmOverloads constructor(
 
   private fun parseKafkaSchemaRegistryMagicBytes(): String {
     val jsonWithoutMagicBytes = KafkaSchemaRegistryWireFormatter.removeMagicBytes(contents.value) ?: return ""
-    return JsonParser.parseString(String(jsonWithoutMagicBytes)).prettyPrint()
+    return JsonParser.parseBytes(jsonWithoutMagicBytes).prettyPrint()
   }
 
   override fun uniqueKey(): String {
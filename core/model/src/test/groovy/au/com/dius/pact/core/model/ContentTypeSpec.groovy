@@ -1,5 +1,6 @@
 package au.com.dius.pact.core.model
 
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import spock.lang.Specification
 import spock.lang.Unroll
 import spock.util.environment.RestoreSystemProperties
@@ -15,6 +16,15 @@ class ContentTypeSpec extends Specification {
     System.setProperty('pact.content_type.override.application/x-other', 'text')
     System.setProperty('pact.content_type.override.application/x-bin', 'binary')
     System.setProperty('pact.content_type.override.application/x-ml', 'xml')
+    PactRuntimeConfig.refresh()
+  }
+
+  def cleanupSpec() {
+    System.clearProperty('pact.content_type.override.application/x-thrift')
+    System.clearProperty('pact.content_type.override.application/x-other')
+    System.clearProperty('pact.content_type.override.application/x-bin')
+    System.clearProperty('pact.content_type.override.application/x-ml')
+    PactRuntimeConfig.refresh()
   }
 
   @Unroll
@@ -1,5 +1,6 @@
 package au.com.dius.pact.core.model
 
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.core.support.json.JsonValue
 import spock.lang.Issue
 import spock.lang.Specification
@@ -70,6 +71,7 @@ class HttpPartSpec extends Specification {
     given:
     def json = new JsonValue.Object([body: new JsonValue.StringValue('{}'.chars)])
     System.setProperty('pact.content_type.override.application/x-thrift', 'json')
+    PactRuntimeConfig.refresh()
     def decoder = Mock(Base64.Decoder)
 
     when:
@@ -78,5 +80,9 @@ class HttpPartSpec extends Specification {
     then:
     0 * decoder.decode(_)
     result.valueAsString() == '{}'
+
+    cleanup:
+    System.clearProperty('pact.content_type.override.application/x-thrift')
+    PactRuntimeConfig.refresh()
   }
 }
@@ -6,6 +6,7 @@ import au.com.dius.pact.core.model.messaging.Message
 import au.com.dius.pact.core.model.messaging.MessagePact
 import au.com.dius.pact.core.model.v4.MessageContents
 import au.com.dius.pact.core.support.Json
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.core.support.json.JsonParser
 import au.com.dius.pact.core.support.json.JsonValue
 import spock.lang.Issue
@@ -124,6 +125,29 @@ class PactWriterSpec extends Specification {
     file.delete()
   }
 
+  def 'merging replaces the pact file with the merged one'() {
+    given:
+    def interaction = new RequestResponseInteraction('test interaction', [], new Request(), new Response())
+    def interaction2 = new RequestResponseInteraction('test interaction two', [], new Request(), new Response())
+    def pact = new RequestResponsePact(new Provider('PactWriterSpecProvider'),
+      new Consumer('PactWriterSpecConsumer'), [interaction])
+    def dir = File.createTempDir()
+    def file = new File(dir, 'consumer-provider.json')
+
+    when:
+    DefaultPactWriter.INSTANCE.writePact(file, pact, PactSpecVersion.V3)
+    pact.interactions = [interaction2]
+    def result = DefaultPactWriter.INSTANCE.writePact(file, pact, PactSpecVersion.V3)
+
+    then:
+    result.value == file.length()
+    dir.list() == ['consumer-provider.json']
+    Json.INSTANCE.toMap(JsonParser.INSTANCE.parseFile(file)).interactions.size() == 2
+
+    cleanup:
+    dir.deleteDir()
+  }
+
   @RestoreSystemProperties
   def 'overwrite any existing pact file if the pact.writer.overwrite property is set'() {
     given:
@@ -137,6 +161,7 @@ class PactWriterSpec extends Specification {
       new Consumer('PactWriterSpecConsumer'), [interaction])
     def file = File.createTempFile('PactWriterSpec', '.json')
     System.setProperty('pact.writer.overwrite', 'true')
+    PactRuntimeConfig.refresh()
 
     when:
     DefaultPactWriter.INSTANCE.writePact(file, pact, PactSpecVersion.V3)
@@ -149,6 +174,8 @@ class PactWriterSpec extends Specification {
 
     cleanup:
     file.delete()
+    System.clearProperty('pact.writer.overwrite')
+    PactRuntimeConfig.refresh()
   }
 
   @Issue('#877')
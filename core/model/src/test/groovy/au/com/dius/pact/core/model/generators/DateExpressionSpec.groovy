@@ -58,4 +58,14 @@ class DateExpressionSpec extends Specification {
         'now +'    | 'Error parsing expression: Was expecting an integer at index 5'
         'tomorr'   | /^Error parsing expression.*/
     }
+
+    def 'parsed expressions are cached'() {
+        expect:
+        DateExpression.INSTANCE.parseDateExpressionCached('next june + 2 weeks').is(
+          DateExpression.INSTANCE.parseDateExpressionCached('next june + 2 weeks'))
+        DateExpression.INSTANCE.executeDateExpression(dateTime, 'next june + 2 weeks').value.toString() ==
+          '2000-06-15T00:00Z'
+        DateExpression.INSTANCE.executeDateExpression(dateTime.plusYears(1), 'next june + 2 weeks').value.toString() ==
+          '2001-06-15T00:00Z'
+    }
 }
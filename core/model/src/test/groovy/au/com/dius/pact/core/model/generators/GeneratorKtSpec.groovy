@@ -1,5 +1,7 @@
 package au.com.dius.pact.core.model.generators
 
+import au.com.dius.pact.core.support.Random
+import au.com.dius.pact.core.support.SeededRandomSource
 import spock.lang.Specification
 import spock.lang.Unroll
 import spock.util.environment.RestoreSystemProperties
@@ -60,4 +62,22 @@ class GeneratorKtSpec extends Specification {
     thrown(ClassNotFoundException)
   }
 
+  def 'random generators produce the same values with a seeded random source'() {
+    given:
+    def generators = [
+      new RandomIntGenerator(0, 1000), new RandomDecimalGenerator(6), new RandomHexadecimalGenerator(8),
+      new RandomStringGenerator(12), new RegexGenerator('[A-Z]{3}-\\d{4}'), new UuidGenerator(),
+      RandomBooleanGenerator.INSTANCE
+    ]
+    def generate = {
+      Random.source = new SeededRandomSource(42)
+      generators.collect { it.generate([:], null) }
+    }
+
+    expect:
+    generate() == generate()
+
+    cleanup:
+    Random.resetSource()
+  }
 }
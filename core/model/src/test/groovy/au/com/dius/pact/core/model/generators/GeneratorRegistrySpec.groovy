@@ -0,0 +1,90 @@
+package au.com.dius.pact.core.model.generators
+
+import au.com.dius.pact.core.support.expressions.DataType
+import au.com.dius.pact.core.support.json.JsonParser
+import au.com.dius.pact.core.support.json.JsonValue
+import spock.lang.Specification
+import spock.lang.Unroll
+import spock.util.environment.RestoreSystemProperties
+
+class GeneratorRegistrySpec extends Specification {
+
+  @Unroll
+  def 'creates the built-in generators - #type'() {
+    expect:
+    GeneratorRegistry.createGenerator(type, JsonParser.parseString(json)) == generator
+
+    where:
+
+    type            | json                                        | generator
+    'RandomInt'     | '{"min": 1, "max": 10}'                     | new RandomIntGenerator(1, 10)
+    'Regex'         | '{"regex": "\\\\d+"}'                       | new RegexGenerator('\\d+')
+    'Uuid'          | '{}'                                        | new UuidGenerator()
+    'RandomBoolean' | '{}'                                        | RandomBooleanGenerator.INSTANCE
+    'Date'          | '{"format": "yyyy-MM-dd"}'                  | new DateGenerator('yyyy-MM-dd')
+    'ProviderState' | '{"expression": "a", "dataType": "STRING"}' | new ProviderStateGenerator('a', DataType.STRING)
+  }
+
+  def 'all the built-in generators are registered'() {
+    given:
+    def packageDir = new File(new File(Generator.protectionDomain.codeSource.location.toURI()),
+      Generator.package.name.replace('.', '/'))
+    def generatorClasses = packageDir.listFiles()*.name
+      .findAll { it.endsWith('Generator.class') }
+      .collect { Class.forName(Generator.package.name + '.' + it.replace('.class', '')) }
+      .findAll { Generator.isAssignableFrom(it) && !it.interface }
+
+    expect:
+    generatorClasses.size() > 10
+    generatorClasses.findAll { GeneratorRegistry.factory(it.simpleName - 'Generator') == null } == []
+  }
+
+  @Unroll
+  def 'the built-in generators without a JSON form are invalid - #type'() {
+    when:
+    GeneratorRegistry.createGenerator(type, new JsonValue.Object())
+
+    then:
+    thrown(InvalidGeneratorException)
+
+    where:
+    type << ['ArrayContains', 'Null', 'Plugin']
+  }
+
+  def 'throws a class not found exception if there is no generator for the type'() {
+    when:
+    GeneratorRegistry.createGenerator('IShouldReallyNotExist', new JsonValue.Object())
+
+    then:
+    thrown(ClassNotFoundException)
+  }
+
+  def 'uses factories loaded with the service loader'() {
+    expect:
+    GeneratorRegistry.createGenerator('ServiceLoaderTest', JsonParser.parseString('{"size": 5}')) ==
+      new RandomStringGenerator(5)
+  }
+
+  def 'uses registered factories'() {
+    given:
+    GeneratorRegistry.register(new GeneratorFactory() {
+      String getType() { 'RegisteredTest' }
+      Generator fromJson(JsonValue.Object json) { new RandomIntGenerator(0, 1) }
+    })
+
+    expect:
+    GeneratorRegistry.createGenerator('RegisteredTest', new JsonValue.Object()) == new RandomIntGenerator(0, 1)
+  }
+
+  @RestoreSystemProperties
+  def 'generator classes from the pact.generators.packages system property need a fromJson function'() {
+    given:
+    System.setProperty('pact.generators.packages', 'au.com.dius.pact.core.model.generators.test.pkg1')
+
+    when:
+    GeneratorRegistry.createGenerator('Pkg1', new JsonValue.Object())
+
+    then:
+    thrown(InvalidGeneratorException)
+  }
+}
@@ -1,6 +1,10 @@
 package au.com.dius.pact.core.model.generators
 
+import au.com.dius.pact.core.model.ContentType
+import au.com.dius.pact.core.model.OptionalBody
 import au.com.dius.pact.core.support.Json
+import au.com.dius.pact.core.support.json.JsonParser
+import au.com.dius.pact.core.support.json.JsonValue
 import spock.lang.Specification
 
 class JsonContentTypeHandlerSpec extends Specification {
@@ -194,4 +198,47 @@ class JsonContentTypeHandlerSpec extends Specification {
     then:
     Json.INSTANCE.toMap(body.value) == [a: ['A', [a: 'A', b: ['X', 'X'], c: 'C'], 'C'], b: 'B', c: 'C']
   }
+
+  def 'processing a body applies the generators without modifying the shared body json'() {
+    given:
+    def body = OptionalBody.body('{"a": {"b": ["1", "2"], "c": "C"}, "d": {"e": "E"}}', ContentType.JSON)
+    def shared = body.valueAsSharedJson()
+    def generator = Mock(Generator) {
+      generate(_, _) >>> ['X', 'Y', 'Z']
+    }
+
+    when:
+    def result1 = JsonContentTypeHandler.INSTANCE.processBody(body) {
+      JsonContentTypeHandler.INSTANCE.applyKey(it, '$.a.b[*]', generator, [:])
+    }
+    def result2 = JsonContentTypeHandler.INSTANCE.processBody(body) {
+      JsonContentTypeHandler.INSTANCE.applyKey(it, '$.a.c', generator, [:])
+    }
+
+    then:
+    result1.valueAsString() == '{"a":{"b":["X","Y"],"c":"C"},"d":{"e":"E"}}'
+    result2.valueAsString() == '{"a":{"b":["1","2"],"c":"Z"},"d":{"e":"E"}}'
+    body.valueAsSharedJson().is(shared)
+    shared == JsonParser.parseString('{"a": {"b": ["1", "2"], "c": "C"}, "d": {"e": "E"}}')
+  }
+
+  def 'processing a body passes a copy of any object or array to the generator'() {
+    given:
+    def body = OptionalBody.body('{"a": ["1", "2"]}', ContentType.JSON)
+    def generator = Mock(Generator) {
+      generate(_, _) >> { context, JsonValue.Array example ->
+        example.add(new JsonValue.StringValue('3'))
+        example
+      }
+    }
+
+    when:
+    def result = JsonContentTypeHandler.INSTANCE.processBody(body) {
+      JsonContentTypeHandler.INSTANCE.applyKey(it, '$.a', generator, [:])
+    }
+
+    then:
+    result.valueAsString() == '{"a":["1","2","3"]}'
+    body.valueAsSharedJson() == JsonParser.parseString('{"a": ["1", "2"]}')
+  }
 }
@@ -0,0 +1,123 @@
+package au.com.dius.pact.core.model.generators
+
+import au.com.dius.pact.core.model.ContentType
+import au.com.dius.pact.core.model.OptionalBody
+import au.com.dius.pact.core.model.PactSpecVersion
+import au.com.dius.pact.core.support.json.JsonParser
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class JsonGeneratorTrieSpec extends Specification {
+
+  static class PathGenerator implements Generator {
+    String type = 'Path'
+    String value
+
+    PathGenerator(String value) {
+      this.value = value
+    }
+
+    @Override
+    Object generate(Map<String, Object> context, Object exampleValue) {
+      value + ':' + context[PluginGenerator.PATH_CONTEXT_KEY]
+    }
+
+    @Override
+    Map<String, Object> toMap(PactSpecVersion pactSpecVersion) {
+      [type: 'Path', value: value]
+    }
+  }
+
+  static final String BODY = '{"a":{"b":1,"c":[1,2,3],"d":{"e":"x","f":"y"}},"g":[{"h":1},{"h":2}],"i":true}'
+
+  private static String applyTrie(Map<String, Generator> generators) {
+    def body = OptionalBody.body(BODY.bytes, ContentType.JSON)
+    new Generators([(Category.BODY): generators])
+      .applyBodyGenerators(body, ContentType.JSON, [:], GeneratorTestMode.Consumer).valueAsString()
+  }
+
+  private static String applyEachKey(Map<String, Generator> generators) {
+    def body = OptionalBody.body(BODY.bytes, ContentType.JSON)
+    JsonContentTypeHandler.INSTANCE.processBody(body) { result ->
+      generators.each { key, generator -> JsonContentTypeHandler.INSTANCE.applyKey(result, key, generator, [:]) }
+    }.valueAsString()
+  }
+
+  @Unroll
+  def 'applies the generators the same as applying each key - #paths'() {
+    given:
+    def generators = paths.collectEntries { [it, new PathGenerator('G')] }
+
+    expect:
+    JsonGeneratorTrie.forGenerators(generators) != null
+    JsonParser.parseString(applyTrie(generators)) == JsonParser.parseString(applyEachKey(generators))
+
+    where:
+    paths << [
+      ['$.a.b'],
+      ['$.a.b', '$.a.c[1]', '$.a.d.e', '$.i'],
+      ['$.a.d.*', '$.a.b'],
+      ['$.g[*].h', '$.a.c[*]'],
+      ['$.a.c[5]', '$.missing.key', '$.a.b.c'],
+      ['$.a.*.e', '$.a.d.f', '$.g[1].h'],
+      ['$.g[*]', '$.a.d']
+    ]
+  }
+
+  def 'applies the generators in one pass of the body'() {
+    given:
+    def generators = ['$.a.b': new PathGenerator('1'), '$.a.d.*': new PathGenerator('2'),
+                      '$.g[*].h': new PathGenerator('3')]
+
+    expect:
+    JsonParser.parseString(applyTrie(generators)) == JsonParser.parseString(
+      '{"a":{"b":"1:$.a.b","c":[1,2,3],"d":{"e":"2:$.a.d.*","f":"2:$.a.d.*"}},' +
+        '"g":[{"h":"3:$.g[*].h"},{"h":"3:$.g[*].h"}],"i":true}')
+  }
+
+  @Unroll
+  def 'generators with overlapping paths are not compiled - #paths'() {
+    given:
+    def generators = paths.collectEntries { [it, new PathGenerator('G')] }
+
+    expect:
+    JsonGeneratorTrie.forGenerators(generators) == null
+    JsonParser.parseString(applyTrie(generators)) == JsonParser.parseString(applyEachKey(generators))
+
+    where:
+    paths << [
+      ['$.a', '$.a.b'],
+      ['$.a.*', '$.a.b'],
+      ['$.g[*].h', '$.g[1]'],
+      ['$.a.d.e', '$.*.d.*']
+    ]
+  }
+
+  def 'compiled generators are cached by the contents of the generator map'() {
+    given:
+    def generator = new PathGenerator('G')
+
+    expect:
+    JsonGeneratorTrie.forGenerators(['$.a.b': generator, '$.i': generator]).is(
+      JsonGeneratorTrie.forGenerators(['$.a.b': generator, '$.i': generator]))
+  }
+
+  def 'only applies the generators for the test mode'() {
+    given:
+    def consumerGenerator = Mock(Generator) {
+      correspondsToMode(GeneratorTestMode.Consumer) >> true
+      generate(_, _) >> 'consumer'
+    }
+    def providerGenerator = Mock(Generator) {
+      correspondsToMode(GeneratorTestMode.Consumer) >> false
+      generate(_, _) >> 'provider'
+    }
+
+    when:
+    def result = applyTrie(['$.a.b': consumerGenerator, '$.i': providerGenerator])
+
+    then:
+    JsonParser.parseString(result).get('a').get('b').asString() == 'consumer'
+    JsonParser.parseString(result).get('i').asBoolean()
+  }
+}
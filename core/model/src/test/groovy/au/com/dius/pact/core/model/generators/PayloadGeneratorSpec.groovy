@@ -0,0 +1,204 @@
+package au.com.dius.pact.core.model.generators
+
+import au.com.dius.pact.core.model.ContentType
+import au.com.dius.pact.core.model.DefaultPactReader
+import au.com.dius.pact.core.model.OptionalBody
+import au.com.dius.pact.core.model.matchingrules.MatchingRuleCategory
+import au.com.dius.pact.core.model.matchingrules.MatchingRuleGroup
+import au.com.dius.pact.core.model.matchingrules.MaxTypeMatcher
+import au.com.dius.pact.core.model.matchingrules.MinTypeMatcher
+import au.com.dius.pact.core.support.Random
+import au.com.dius.pact.core.support.SeededRandomSource
+import au.com.dius.pact.core.support.json.JsonParser
+import spock.lang.Specification
+
+class PayloadGeneratorSpec extends Specification {
+
+  static final String PACT = '''{
+    "consumer": { "name": "consumer" },
+    "provider": { "name": "provider" },
+    "interactions": [
+      {
+        "description": "get items",
+        "request": {
+          "method": "POST",
+          "path": "/items",
+          "headers": { "Content-Type": "application/json" },
+          "body": { "id": 1 },
+          "generators": { "body": { "$.id": { "type": "RandomInt", "min": 100, "max": 200 } } }
+        },
+        "response": {
+          "status": 200,
+          "headers": { "Content-Type": "application/json" },
+          "body": { "items": [ { "id": "abc", "tags": ["a"] } ] },
+          "matchingRules": {
+            "body": {
+              "$.items": { "matchers": [ { "match": "type", "min": 3 } ] },
+              "$.items[*].tags": { "matchers": [ { "match": "type", "min": 2 } ] }
+            }
+          },
+          "generators": { "body": { "$.items[*].id": { "type": "Uuid" } } }
+        }
+      }
+    ],
+    "metadata": { "pactSpecification": { "version": "3.0.0" } }
+  }'''
+
+  File pactFile
+
+  def setup() {
+    pactFile = new File(File.createTempDir(), 'consumer-provider.json')
+    pactFile.text = PACT
+  }
+
+  def cleanup() {
+    pactFile.parentFile.deleteDir()
+  }
+
+  def 'generates bodies with the eachLike minimums and generators applied'() {
+    given:
+    def interaction = DefaultPactReader.INSTANCE.loadPact(pactFile).interactions.first()
+    def generator = PayloadGenerator.forInteraction(interaction)
+    def writer = new StringWriter()
+
+    when:
+    generator.generate(5, writer)
+    def lines = writer.toString().split('\n')
+
+    then:
+    lines.size() == 5
+    lines.every { line ->
+      def items = JsonParser.parseString(line).get('items').asArray()
+      items.size() == 3 && items.values.every {
+        it.get('id').asString() ==~ /[a-f0-9]{8}-[a-f0-9]{4}-[a-f0-9]{4}-[a-f0-9]{4}-[a-f0-9]{12}/ &&
+          it.get('tags').asArray().values*.asString() == ['a', 'a']
+      }
+    }
+    lines.toUnique().size() == 5
+  }
+
+  def 'generates the request body'() {
+    given:
+    def interaction = DefaultPactReader.INSTANCE.loadPact(pactFile).interactions.first()
+    def generator = PayloadGenerator.forInteraction(interaction, PayloadGenerator.Part.REQUEST)
+
+    expect:
+    (1..10).collect { generator.next() }.every {
+      def id = it.get('id').asNumber().intValue()
+      id >= 100 && id <= 200
+    }
+  }
+
+  def 'arrays are reduced to the maximum size'() {
+    given:
+    def body = OptionalBody.body('{"a":[1,2,3,4],"b":[1,2]}'.bytes, ContentType.JSON)
+    def rules = new MatchingRuleCategory('body', [
+      '$.a': new MatchingRuleGroup([new MaxTypeMatcher(2)]),
+      '$.b': new MatchingRuleGroup([new MinTypeMatcher(1)])
+    ])
+    def generator = new PayloadGenerator(body, ContentType.JSON, [:], rules)
+
+    expect:
+    generator.next().serialise() == '{"a":[1,2],"b":[1,2]}'
+  }
+
+  def 'does not modify the interaction'() {
+    given:
+    def interaction = DefaultPactReader.INSTANCE.loadPact(pactFile).interactions.first()
+    def body = interaction.asSynchronousRequestResponse().response.body.valueAsString()
+
+    when:
+    PayloadGenerator.forInteraction(interaction).next()
+
+    then:
+    interaction.asSynchronousRequestResponse().response.body.valueAsString() == body
+  }
+
+  def 'non-JSON bodies are generated as JSON strings'() {
+    given:
+    def body = OptionalBody.body('hello'.bytes, ContentType.TEXT_PLAIN)
+
+    expect:
+    new PayloadGenerator(body, ContentType.TEXT_PLAIN, [:]).next().serialise() == '"hello"'
+  }
+
+  def 'fails if there is no body'() {
+    when:
+    new PayloadGenerator(OptionalBody.missing(), ContentType.JSON, [:])
+
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  def 'a seeded random source generates the same bodies without changing the global source'() {
+    given:
+    def interaction = DefaultPactReader.INSTANCE.loadPact(pactFile).interactions.first()
+    def source = Random.source
+    def generate = {
+      def generator = PayloadGenerator.forInteraction(interaction, PayloadGenerator.Part.RESPONSE,
+        GeneratorTestMode.Consumer, [:], new SeededRandomSource(10))
+      (1..10).collect { generator.next().serialise() }
+    }
+
+    expect:
+    generate() == generate()
+    Random.source.is(source)
+  }
+
+  def 'the command line writes the bodies as newline-delimited JSON'() {
+    given:
+    def output = new File(pactFile.parentFile, 'out.ndjson')
+    def err = new ByteArrayOutputStream()
+    def source = Random.source
+
+    when:
+    def result = PayloadGeneratorCli.run([pactFile.path, 'get items', '--count', '100', '--seed', '10',
+      '--output', output.path] as String[], System.out, new PrintStream(err))
+    def first = output.readLines()
+    PayloadGeneratorCli.run([pactFile.path, 'get items', '--count', '100', '--seed', '10',
+      '--output', output.path] as String[], System.out, new PrintStream(err))
+    def second = output.readLines()
+
+    then:
+    result == 0
+    first.size() == 100
+    first == second
+    first.every { JsonParser.parseString(it).get('items').asArray().size() == 3 }
+    Random.source.is(source)
+  }
+
+  def 'the command line returns an error for invalid options'() {
+    given:
+    def err = new ByteArrayOutputStream()
+
+    when:
+    def result = PayloadGeneratorCli.run(([pactFile.path, 'get items'] + args) as String[], System.out,
+      new PrintStream(err))
+
+    then:
+    result == 1
+    err.toString().contains(message)
+    err.toString().contains(PayloadGeneratorCli.USAGE)
+
+    where:
+    args                      | message
+    ['--count', 'lots']       | "Invalid count 'lots', must be a positive number"
+    ['--count', '0']          | "Invalid count '0', must be a positive number"
+    ['--count', '-5']         | "Invalid count '-5', must be a positive number"
+    ['--seed', 'abc']         | "Invalid seed 'abc', must be a number"
+    ['--part', 'body']        | "Invalid part 'body', must be request or response"
+    ['--format', 'json']      | 'Unknown option --format'
+  }
+
+  def 'the command line returns an error if the interaction is not found'() {
+    given:
+    def err = new ByteArrayOutputStream()
+
+    when:
+    def result = PayloadGeneratorCli.run([pactFile.path, 'unknown'] as String[], System.out, new PrintStream(err))
+
+    then:
+    result == 1
+    err.toString().contains("No interaction with description 'unknown'")
+  }
+}
@@ -54,4 +54,12 @@ class TimeExpressionSpec extends Specification {
     'now +'    | 'Error parsing expression: Was expecting an integer at index 5'
     'noo'      | /^Error parsing expression.*/
   }
+
+  def 'parsed expressions are cached'() {
+    expect:
+    TimeExpression.INSTANCE.parseTimeExpressionCached('midnight+ 4 minutes').is(
+      TimeExpression.INSTANCE.parseTimeExpressionCached('midnight+ 4 minutes'))
+    TimeExpression.INSTANCE.executeTimeExpression(time, 'midnight+ 4 minutes').value.toLocalTime().toString() ==
+      '00:04'
+  }
 }
@@ -0,0 +1,18 @@
+package au.com.dius.pact.core.model.generators.test
+
+import au.com.dius.pact.core.model.generators.Generator
+import au.com.dius.pact.core.model.generators.GeneratorFactory
+import au.com.dius.pact.core.model.generators.RandomStringGenerator
+import au.com.dius.pact.core.support.json.JsonValue
+
+class TestGeneratorFactory implements GeneratorFactory {
+  @Override
+  String getType() {
+    'ServiceLoaderTest'
+  }
+
+  @Override
+  Generator fromJson(JsonValue.Object json) {
+    new RandomStringGenerator(json.get('size').asNumber().intValue())
+  }
+}
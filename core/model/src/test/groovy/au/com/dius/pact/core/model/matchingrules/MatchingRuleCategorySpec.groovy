@@ -138,4 +138,19 @@ class MatchingRuleCategorySpec extends Specification {
     categoryC.orElse(categoryA) == categoryC
     categoryC.orElse(categoryD) == categoryC
   }
+
+  def 'compiled rule groups are cached separately for each compiler'() {
+    given:
+    def category = new MatchingRuleCategory('body')
+    def group = new MatchingRuleGroup([ TypeMatcher.INSTANCE ])
+    def compiled = 0
+    MatchingRuleGroupCompiler<String> toStrings = { compiled++; it.rules.toString() } as MatchingRuleGroupCompiler
+    MatchingRuleGroupCompiler<Integer> toSize = { it.rules.size() } as MatchingRuleGroupCompiler
+
+    expect:
+    category.compiledRuleGroup(group, toStrings) == group.rules.toString()
+    category.compiledRuleGroup(group, toSize) == 1
+    category.compiledRuleGroup(new MatchingRuleGroup([ TypeMatcher.INSTANCE ]), toStrings) == group.rules.toString()
+    compiled == 1
+  }
 }
@@ -0,0 +1,98 @@
+package au.com.dius.pact.core.model.matchingrules
+
+import au.com.dius.pact.core.model.DocPath
+import au.com.dius.pact.core.model.InvalidPathExpression
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static au.com.dius.pact.core.model.PathExpressionsKt.parsePath
+
+class MatchingRulePathIndexSpec extends Specification {
+
+  static final DocPath.Companion DOC_PATH = DocPath.@Companion
+
+  static final List<String> KEYS = [
+    '$', '$.a', '$.a.b', '$.*', '$.*.b', '$.a[*]', '$.a[1]', '$.a[*].b', '$[*]', '$[0]', '$.a.*', '$.1', "\$['a'].b", ''
+  ]
+
+  @Unroll
+  def 'finds the same keys and weights as comparing every path expression - #path'() {
+    given:
+    def rules = KEYS.collectEntries { [it, new MatchingRuleGroup([TypeMatcher.INSTANCE])] }
+    def index = new MatchingRulePathIndex(rules)
+    def expected = KEYS.findAll { key ->
+      def tokens = parsePath(key)
+      !tokens.empty && tokens.size() <= path.size() &&
+        tokens.indices.every { DOC_PATH.matchesToken(path[it], tokens[it]) > 0 }
+    }.collect { key ->
+      [key, DOC_PATH.calculatePathWeight(parsePath(key), path)]
+    }
+
+    expect:
+    index.matches(path).collect { [it.pathExp, it.weight] } == expected
+
+    where:
+    path << [
+      ['$'], ['$', 'a'], ['$', 'a', 'b'], ['$', 'a', '1'], ['$', 'a', '1', 'b'], ['$', 'a', '2', 'b', 'c'],
+      ['$', 'c', 'b'], ['$', '0'], ['$', '1'], ['a'], []
+    ]
+  }
+
+  def 'invalid path expressions fail when the index is used'() {
+    given:
+    def index = new MatchingRulePathIndex(['$.a': new MatchingRuleGroup(), 'a': new MatchingRuleGroup()])
+
+    when:
+    index.matches(['$', 'a'])
+
+    then:
+    thrown(InvalidPathExpression)
+  }
+
+  def 'the category rebuilds the index when the rules are changed'() {
+    given:
+    def category = new MatchingRuleCategory('body')
+    category.addRule('$.a', TypeMatcher.INSTANCE)
+
+    expect:
+    category.matchingPaths(['$', 'b']).empty
+
+    when:
+    category.setRules('$.b', new MatchingRuleGroup([NullMatcher.INSTANCE]))
+    category.setRule('$.a', EqualsMatcher.INSTANCE)
+
+    then:
+    category.matchingPaths(['$', 'b'])*.ruleGroup == [new MatchingRuleGroup([NullMatcher.INSTANCE])]
+    category.matchingPaths(['$', 'a'])*.ruleGroup == [new MatchingRuleGroup([EqualsMatcher.INSTANCE])]
+
+    when:
+    category.matchingRules = ['$.c': new MatchingRuleGroup([TypeMatcher.INSTANCE])]
+
+    then:
+    category.matchingPaths(['$', 'a']).empty
+    category.matchingPaths(['$', 'c']).size() == 1
+  }
+
+  def 'the category rebuilds the index when the keys are changed and the number of keys stays the same'() {
+    given:
+    def category = new MatchingRuleCategory('body')
+    category.addRule('$.a', TypeMatcher.INSTANCE)
+
+    expect:
+    category.matchingPaths(['$', 'a']).size() == 1
+
+    when:
+    category.matchingRules.remove('$.a')
+    category.matchingRules['$.b'] = new MatchingRuleGroup([NullMatcher.INSTANCE])
+
+    then:
+    category.matchingPaths(['$', 'a']).empty
+    category.matchingPaths(['$', 'b'])*.ruleGroup == [new MatchingRuleGroup([NullMatcher.INSTANCE])]
+
+    when:
+    category.applyMatcherRootPrefix('$.c')
+
+    then:
+    category.matchingPaths(['$', 'c', 'b']).size() == 1
+  }
+}
@@ -14,7 +14,9 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
 
@@ -64,6 +66,71 @@ public class JsonParserBenchmark {
     return JsonParser.parseStream(new ByteArrayInputStream(state.payloadBytes));
   }
 
+  @Benchmark
+  public JsonValue parseBytes(BenchmarkState state) {
+    return JsonParser.parseBytes(state.payloadBytes);
+  }
+
+  /**
+   * String values reference the payload bytes and are only decoded if accessed. Compare with parseBytes on the
+   * string heavy payloads (-p payloadType=catalog,user-batch).
+   */
+  @Benchmark
+  public JsonValue parseBytesLazyStrings(BenchmarkState state) {
+    return JsonParser.parseBytes(state.payloadBytes, true);
+  }
+
+  /**
+   * Parses with lazy strings and then reads every string value, for the cost when all the values are needed
+   */
+  @Benchmark
+  public int parseBytesLazyStringsAndRead(BenchmarkState state) {
+    return readStrings(JsonParser.parseBytes(state.payloadBytes, true));
+  }
+
+  /**
+   * Baseline for the shared key pool, which every other benchmark uses. Run with -prof gc to compare the allocation
+   * per operation against parseBytes.
+   */
+  @Benchmark
+  public JsonValue parseBytesWithoutKeyPool(BenchmarkState state) {
+    return JsonParser.parse(new Utf8Source(state.payloadBytes), null);
+  }
+
+  /**
+   * Parses the elements of the top level arrays on the common fork-join pool. Only worth comparing with parseBytes for
+   * the larger item counts.
+   */
+  @Benchmark
+  public JsonValue parseBytesParallel(BenchmarkState state) {
+    return JsonParser.parseParallel(ByteBuffer.wrap(state.payloadBytes));
+  }
+
+  @Benchmark
+  public JsonValue parseBytesViaReader(BenchmarkState state) {
+    return JsonParser.parseReader(new InputStreamReader(new ByteArrayInputStream(state.payloadBytes),
+      StandardCharsets.UTF_8));
+  }
+
+  private static int readStrings(JsonValue value) {
+    if (value instanceof JsonValue.StringValue) {
+      return value.asString().length();
+    } else if (value instanceof JsonValue.Array) {
+      int count = 0;
+      for (JsonValue item : ((JsonValue.Array) value).getValues()) {
+        count += readStrings(item);
+      }
+      return count;
+    } else if (value instanceof JsonValue.Object) {
+      int count = 0;
+      for (JsonValue item : ((JsonValue.Object) value).getEntries().values()) {
+        count += readStrings(item);
+      }
+      return count;
+    }
+    return 0;
+  }
+
   private static String buildUserBatchPayload(int itemCount) {
     StringBuilder builder = new StringBuilder(256 + (itemCount * 220));
     builder.append("{\"users\":[");
@@ -10,6 +10,8 @@ import java.util.function.IntPredicate;
  */
 public class BaseJsonLexer {
   protected JsonSource json;
+  protected final JsonKeyPool keyPool;
+  protected final boolean lazyStrings;
 
   private static final class ScannedString {
     private final char[] buffer;
@@ -24,13 +26,31 @@ public class BaseJsonLexer {
       return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
     }
 
-    private String toStringValue() {
-      return new String(buffer, 0, length);
+    private String toStringValue(JsonKeyPool keyPool) {
+      return keyPool != null ? keyPool.intern(buffer, length) : new String(buffer, 0, length);
     }
   }
 
   public BaseJsonLexer(JsonSource json) {
+    this(json, JsonKeyPool.shared());
+  }
+
+  /**
+   * Creates a lexer that looks up object keys in the given pool. A null pool creates a new String for every key.
+   */
+  public BaseJsonLexer(JsonSource json, JsonKeyPool keyPool) {
+    this(json, keyPool, false);
+  }
+
+  /**
+   * Creates a lexer that looks up object keys in the given pool. If lazyStrings is set and the source keeps the
+   * document, string tokens reference the document instead of copying the characters out of it. This keeps the
+   * document in memory while the tokens are, so should only be used when it is anyway.
+   */
+  public BaseJsonLexer(JsonSource json, JsonKeyPool keyPool, boolean lazyStrings) {
     this.json = json;
+    this.keyPool = keyPool;
+    this.lazyStrings = lazyStrings;
   }
 
   protected void skipWhitespace() {
@@ -43,6 +63,10 @@ public class BaseJsonLexer {
 
   protected Result<JsonToken.StringValue, JsonException> scanString() {
     try {
+      int start = lazyStrings ? json.offset() : -1;
+      if (start >= 0) {
+        return new Result.Ok(scanStringRange(start));
+      }
       return new Result.Ok(new JsonToken.StringValue(scanStringValue().toCharArray()));
     } catch (JsonException e) {
       return new Result.Err(e);
@@ -51,12 +75,19 @@ public class BaseJsonLexer {
 
   protected Result<String, JsonException> scanKeyString() {
     try {
-      return new Result.Ok(scanStringValue().toStringValue());
+      return new Result.Ok(scanStringValue().toStringValue(keyPool));
     } catch (JsonException e) {
       return new Result.Err(e);
     }
   }
 
+  /**
+   * Scans the rest of a string (after the opening quote), returning the decoded characters
+   */
+  char[] scanStringChars() {
+    return scanStringValue().toCharArray();
+  }
+
   private ScannedString scanStringValue() {
     char[] buffer = new char[128];
     int index = 0;
@@ -64,43 +95,7 @@ public class BaseJsonLexer {
     do {
       next = json.nextChar();
       if (next == '\\') {
-        int escapeCode = json.nextChar();
-        if (escapeCode == JsonSource.EOF) {
-          throw new JsonException(String.format(
-            "Invalid JSON (%s), End of document scanning for string terminator", json.documentPointer()));
-        }
-        switch (escapeCode) {
-          case '"': if (index >= buffer.length) { buffer = allocate(buffer); }; buffer[index++] = '"'; break;
-          case '\\': if (index >= buffer.length) { buffer = allocate(buffer); }; buffer[index++] = '\\'; break;
-          case '/': if (index >= buffer.length) { buffer = allocate(buffer); }; buffer[index++] = '/'; break;
-          case 'b': if (index >= buffer.length) { buffer = allocate(buffer); }; buffer[index++] = '\b'; break;
-          case 'f': if (index >= buffer.length) { buffer = allocate(buffer); }; buffer[index++] = '\u000c'; break;
-          case 'n': if (index >= buffer.length) { buffer = allocate(buffer); }; buffer[index++] = '\n'; break;
-          case 'r': if (index >= buffer.length) { buffer = allocate(buffer); }; buffer[index++] = '\r'; break;
-          case 't': if (index >= buffer.length) { buffer = allocate(buffer); }; buffer[index++] = '\t'; break;
-          case 'u': {
-            int hex = 0;
-            for (int i = 0; i < 4; i++) {
-              int codePoint = json.nextChar();
-              if (codePoint == JsonSource.EOF) {
-                throw new JsonException(String.format(
-                  "Invalid JSON (%s), Unicode characters require 4 hex digits", json.documentPointer()));
-              }
-
-              int digit = hexValue(codePoint);
-              if (digit == -1) {
-                throw new JsonException(String.format(
-                  "Invalid JSON (%s), '%c' is not a valid hex code character", json.documentPointer(), (char) codePoint));
-              }
-
-              hex = (hex << 4) | digit;
-            }
-            if (index >= buffer.length) { buffer = allocate(buffer); }; buffer[index++] = (char) hex;
-            break;
-          }
-          default: throw new JsonException(String.format(
-            "Invalid JSON (%s), '%c' is not a valid escape code", json.documentPointer(), (char) escapeCode));
-        }
+        if (index >= buffer.length) { buffer = allocate(buffer); }; buffer[index++] = scanEscape();
       } else if (next == JsonSource.EOF) {
         throw new JsonException(String.format("Invalid JSON (%s), End of document scanning for string terminator",
           json.documentPointer()));
@@ -111,6 +106,65 @@ public class BaseJsonLexer {
     return new ScannedString(buffer, index);
   }
 
+  /**
+   * Scans the rest of a string (after the opening quote) without copying it, returning a token that references the
+   * string in the source document. Escape sequences are validated, but only decoded when the characters are needed.
+   */
+  private JsonToken.StringValue scanStringRange(int start) {
+    boolean escaped = false;
+    int next = json.nextChar();
+    while (next != '"') {
+      if (next == '\\') {
+        escaped = true;
+        scanEscape();
+      } else if (next == JsonSource.EOF) {
+        throw new JsonException(String.format("Invalid JSON (%s), End of document scanning for string terminator",
+          json.documentPointer()));
+      }
+      next = json.nextChar();
+    }
+    return new JsonToken.StringValue(new JsonSourceRange(json, start, json.offset() - 1, escaped));
+  }
+
+  private char scanEscape() {
+    int escapeCode = json.nextChar();
+    if (escapeCode == JsonSource.EOF) {
+      throw new JsonException(String.format(
+        "Invalid JSON (%s), End of document scanning for string terminator", json.documentPointer()));
+    }
+    switch (escapeCode) {
+      case '"': return '"';
+      case '\\': return '\\';
+      case '/': return '/';
+      case 'b': return '\b';
+      case 'f': return '\u000c';
+      case 'n': return '\n';
+      case 'r': return '\r';
+      case 't': return '\t';
+      case 'u': {
+        int hex = 0;
+        for (int i = 0; i < 4; i++) {
+          int codePoint = json.nextChar();
+          if (codePoint == JsonSource.EOF) {
+            throw new JsonException(String.format(
+              "Invalid JSON (%s), Unicode characters require 4 hex digits", json.documentPointer()));
+          }
+
+          int digit = hexValue(codePoint);
+          if (digit == -1) {
+            throw new JsonException(String.format(
+              "Invalid JSON (%s), '%c' is not a valid hex code character", json.documentPointer(), (char) codePoint));
+          }
+
+          hex = (hex << 4) | digit;
+        }
+        return (char) hex;
+      }
+      default: throw new JsonException(String.format(
+        "Invalid JSON (%s), '%c' is not a valid escape code", json.documentPointer(), (char) escapeCode));
+    }
+  }
+
   private char[] allocate(char[] buffer) {
     return allocate(buffer, 1);
   }
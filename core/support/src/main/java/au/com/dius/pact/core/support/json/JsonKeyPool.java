@@ -0,0 +1,98 @@
+package au.com.dius.pact.core.support.json;
+
+/**
+ * Bounded pool of object key strings. Keys are looked up from the lexer's character buffer, so a key that is already
+ * in the pool does not allocate a new String, and all the documents parsed with the same pool share the key
+ * instances. The pool is a fixed size table where a new key replaces any key already in its slot, so it never holds
+ * more than its size in keys.
+ *
+ * Lookups are not synchronised. Racing threads can at worst replace each other's entries, as Strings are immutable
+ * and safe to publish without locking.
+ */
+public final class JsonKeyPool {
+  /**
+   * Default number of entries in the shared pool. Can be overridden with the pact.json.keyPoolSize system property,
+   * with a size of 0 disabling the shared pool.
+   */
+  public static final int DEFAULT_SIZE = 4096;
+
+  /**
+   * Keys longer than this are not pooled
+   */
+  public static final int MAX_KEY_LENGTH = 64;
+
+  private static final JsonKeyPool SHARED = createSharedPool();
+
+  private final String[] table;
+  private final int mask;
+
+  public JsonKeyPool(int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Key pool size must be at least 1, got " + size);
+    }
+    int capacity = Integer.highestOneBit(size);
+    if (capacity < size) {
+      capacity <<= 1;
+    }
+    this.table = new String[capacity];
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Returns the pool shared by the JSON parser, or null if it has been disabled
+   */
+  public static JsonKeyPool shared() {
+    return SHARED;
+  }
+
+  /**
+   * Returns the key for the first length characters of the buffer
+   */
+  public String intern(char[] buffer, int length) {
+    if (length > MAX_KEY_LENGTH) {
+      return new String(buffer, 0, length);
+    }
+
+    int hash = 0;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + buffer[i];
+    }
+    int slot = (hash ^ (hash >>> 16)) & mask;
+
+    String key = table[slot];
+    if (key == null || !matches(key, buffer, length)) {
+      key = new String(buffer, 0, length);
+      table[slot] = key;
+    }
+    return key;
+  }
+
+  public int size() {
+    return table.length;
+  }
+
+  private static boolean matches(String key, char[] buffer, int length) {
+    if (key.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (key.charAt(i) != buffer[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static JsonKeyPool createSharedPool() {
+    int size = DEFAULT_SIZE;
+    String property = System.getProperty("pact.json.keyPoolSize");
+    if (property != null) {
+      try {
+        size = Integer.parseInt(property.trim());
+      } catch (NumberFormatException e) {
+        size = DEFAULT_SIZE;
+      }
+    }
+    return size > 0 ? new JsonKeyPool(size) : null;
+  }
+}
@@ -26,6 +26,22 @@ public abstract class JsonSource {
     }
   }
 
+  /**
+   * Returns the offset of the next character in the underlying document, or -1 if the source does not keep the
+   * document (or is not at a character boundary), in which case strings have to be copied as they are read.
+   */
+  public int offset() {
+    return -1;
+  }
+
+  /**
+   * Returns a new source over the part of the underlying document between the offsets. Sources that return offsets
+   * from offset() must support this for those offsets.
+   */
+  public JsonSource range(int start, int end) {
+    throw new IllegalStateException("This source does not keep the document, so ranges of it can not be read");
+  }
+
   public String documentPointer() {
     return String.format("%d:%d", line + 1, character + 1);
   }
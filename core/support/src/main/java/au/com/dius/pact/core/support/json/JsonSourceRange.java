@@ -0,0 +1,43 @@
+package au.com.dius.pact.core.support.json;
+
+import java.util.Arrays;
+
+/**
+ * The contents of a JSON string that are still in the source document. The characters are only copied out of the
+ * document (with any escape sequences decoded) when they are first needed.
+ */
+public final class JsonSourceRange {
+  private final JsonSource source;
+  private final int start;
+  private final int end;
+  private final boolean escaped;
+
+  /**
+   * @param source Source the document was read from
+   * @param start Offset of the first character of the string
+   * @param end Offset of the closing quote of the string
+   * @param escaped If the string contains any escape sequences
+   */
+  public JsonSourceRange(JsonSource source, int start, int end, boolean escaped) {
+    this.source = source;
+    this.start = start;
+    this.end = end;
+    this.escaped = escaped;
+  }
+
+  public char[] toCharArray() {
+    if (escaped) {
+      return new BaseJsonLexer(source.range(start, end + 1), null).scanStringChars();
+    }
+
+    JsonSource chars = source.range(start, end);
+    char[] buffer = new char[end - start];
+    int index = 0;
+    int next = chars.nextChar();
+    while (next != JsonSource.EOF) {
+      buffer[index++] = (char) next;
+      next = chars.nextChar();
+    }
+    return index == buffer.length ? buffer : Arrays.copyOf(buffer, index);
+  }
+}
@@ -0,0 +1,14 @@
+package au.com.dius.pact.core.support.json;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * JSON source from a UTF-8 encoded file that is memory mapped, so the lexer reads the file contents directly
+ * without copying them onto the heap. The mapping remains valid after the channel is closed.
+ */
+public class MappedFileSource extends Utf8Source {
+  public MappedFileSource(FileChannel channel) throws IOException {
+    super(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+  }
+}
@@ -2,9 +2,11 @@ package au.com.dius.pact.core.support.json;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Arrays;
 
 /**
- * JSON source from a Reader
+ * JSON source from a Reader. The characters are not kept once they have been read, unless the source is created with
+ * keepDocument set, in which case strings can be read lazily from the document (see offset() and range()).
  */
 public class ReaderSource extends JsonSource {
   private static final int BUFFER_SIZE = 8192;
@@ -14,9 +16,16 @@ public class ReaderSource extends JsonSource {
   private int bufferIndex = 0;
   private int bufferLimit = 0;
   private boolean endOfInput = false;
+  private char[] document;
+  private int documentLength = 0;
 
   public ReaderSource(Reader reader) {
+    this(reader, false);
+  }
+
+  public ReaderSource(Reader reader, boolean keepDocument) {
     this.reader = reader;
+    this.document = keepDocument ? new char[BUFFER_SIZE] : null;
   }
 
   public int nextChar() {
@@ -61,9 +70,33 @@ public class ReaderSource extends JsonSource {
         bufferLimit = 0;
         return false;
       }
+      if (document != null) {
+        keep(bufferLimit);
+      }
       return true;
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
   }
+
+  private void keep(int count) {
+    if (documentLength + count > document.length) {
+      document = Arrays.copyOf(document, Math.max(document.length * 2, documentLength + count));
+    }
+    System.arraycopy(buffer, 0, document, documentLength, count);
+    documentLength += count;
+  }
+
+  @Override
+  public int offset() {
+    return document != null ? documentLength - (bufferLimit - bufferIndex) : -1;
+  }
+
+  @Override
+  public JsonSource range(int start, int end) {
+    if (document == null) {
+      throw new IllegalStateException("The document is not kept, so ranges of it can not be read");
+    }
+    return new StringSource(document, start, end);
+  }
 }
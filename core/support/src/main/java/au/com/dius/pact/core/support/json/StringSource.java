@@ -5,10 +5,20 @@ package au.com.dius.pact.core.support.json;
  */
 public class StringSource extends JsonSource {
   private char[] json;
-  private int index = 0;
+  private int index;
+  private final int end;
 
   public StringSource(char[] json) {
+    this(json, 0, json.length);
+  }
+
+  /**
+   * Source over the characters from start (inclusive) to end (exclusive)
+   */
+  public StringSource(char[] json, int start, int end) {
     this.json = json;
+    this.index = start;
+    this.end = end;
   }
 
   public int nextChar() {
@@ -21,7 +31,7 @@ public class StringSource extends JsonSource {
   }
 
   public int peekNextChar() {
-    if (index >= json.length) {
+    if (index >= end) {
       return EOF;
     } else {
       return json[index];
@@ -33,4 +43,14 @@ public class StringSource extends JsonSource {
       updatePosition(json[index++]);
     }
   }
+
+  @Override
+  public int offset() {
+    return index;
+  }
+
+  @Override
+  public JsonSource range(int start, int end) {
+    return new StringSource(json, start, end);
+  }
 }
@@ -0,0 +1,123 @@
+package au.com.dius.pact.core.support.json;
+
+import java.nio.ByteBuffer;
+
+/**
+ * JSON source that reads UTF-8 encoded bytes directly, without going through a Reader. ASCII bytes (which
+ * include all the JSON structural characters) are returned as is, and only multi-byte sequences (which can only
+ * appear inside string tokens in a valid document) are decoded. Malformed sequences are replaced with U+FFFD,
+ * the same as a decoding Reader would do.
+ */
+public class Utf8Source extends JsonSource {
+  private static final int REPLACEMENT_CHAR = 0xFFFD;
+
+  private final ByteBuffer buffer;
+  private int pendingLowSurrogate = EOF;
+  private int peeked = EOF;
+
+  public Utf8Source(byte[] json) {
+    this(ByteBuffer.wrap(json));
+  }
+
+  public Utf8Source(ByteBuffer json) {
+    this.buffer = json.slice();
+  }
+
+  public int nextChar() {
+    int c = peekNextChar();
+    if (c != EOF) {
+      peeked = EOF;
+      updatePosition(c);
+    }
+    return c;
+  }
+
+  public int peekNextChar() {
+    if (peeked == EOF) {
+      peeked = decodeNext();
+    }
+    return peeked;
+  }
+
+  public void advance(int count) {
+    for (int i = 0; i < count; i++) {
+      if (nextChar() == EOF) {
+        return;
+      }
+    }
+  }
+
+  @Override
+  public int offset() {
+    return peeked == EOF && pendingLowSurrogate == EOF ? buffer.position() : -1;
+  }
+
+  @Override
+  public JsonSource range(int start, int end) {
+    return new Utf8Source(buffer.slice(start, end - start));
+  }
+
+  private int decodeNext() {
+    if (pendingLowSurrogate != EOF) {
+      int c = pendingLowSurrogate;
+      pendingLowSurrogate = EOF;
+      return c;
+    }
+
+    if (!buffer.hasRemaining()) {
+      return EOF;
+    }
+
+    int b = buffer.get();
+    if (b >= 0) {
+      return b;
+    }
+
+    return decodeMultiByte(b & 0xFF);
+  }
+
+  private int decodeMultiByte(int first) {
+    int length;
+    int codePoint;
+    int minValue;
+    if ((first & 0xE0) == 0xC0) {
+      length = 1;
+      codePoint = first & 0x1F;
+      minValue = 0x80;
+    } else if ((first & 0xF0) == 0xE0) {
+      length = 2;
+      codePoint = first & 0x0F;
+      minValue = 0x800;
+    } else if ((first & 0xF8) == 0xF0) {
+      length = 3;
+      codePoint = first & 0x07;
+      minValue = 0x10000;
+    } else {
+      return REPLACEMENT_CHAR;
+    }
+
+    for (int i = 0; i < length; i++) {
+      if (!buffer.hasRemaining()) {
+        return REPLACEMENT_CHAR;
+      }
+      int next = buffer.get(buffer.position()) & 0xFF;
+      if ((next & 0xC0) != 0x80) {
+        return REPLACEMENT_CHAR;
+      }
+      buffer.position(buffer.position() + 1);
+      codePoint = (codePoint << 6) | (next & 0x3F);
+    }
+
+    if (codePoint < minValue || codePoint > Character.MAX_CODE_POINT ||
+      (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+      return REPLACEMENT_CHAR;
+    }
+
+    if (Character.isBmpCodePoint(codePoint)) {
+      return codePoint;
+    } else {
+      pendingLowSurrogate = Character.lowSurrogate(codePoint);
+      return Character.highSurrogate(codePoint);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package au.com.dius.pact.core.support
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Thread safe cache with a maximum size, for values that are expensive to create and are looked up far more often
+ * than they are added. Lookups do not take any locks. Each entry records when it was last used, and when the cache
+ * grows past the maximum size the least recently used entries are removed in a batch (down to nine tenths of the
+ * maximum size), so the eviction cost is spread over many additions. A maximum size of zero disables the cache.
+ */
+class BoundedCache<K : Any, V : Any>(private val maxSize: Int) {
+  private class Entry<V>(val value: V, @Volatile var lastUsed: Long)
+
+  private val entries = ConcurrentHashMap<K, Entry<V>>()
+  private val clock = AtomicLong()
+  private val evicting = AtomicBoolean()
+  private val evictions = AtomicLong()
+
+  /**
+   * Returns the cached value for the key, or null if there is none
+   */
+  operator fun get(key: K): V? {
+    val entry = entries[key] ?: return null
+    // The clock only advances when entries are added, so this only writes once per entry between additions
+    val now = clock.get()
+    if (entry.lastUsed != now) {
+      entry.lastUsed = now
+    }
+    return entry.value
+  }
+
+  /**
+   * Adds the value for the key if there is not one already, returning the value that is cached for the key
+   */
+  fun putIfAbsent(key: K, value: V): V {
+    if (maxSize <= 0) {
+      return value
+    }
+    val existing = entries.putIfAbsent(key, Entry(value, clock.incrementAndGet()))
+    if (existing != null) {
+      return existing.value
+    }
+    if (entries.size > maxSize) {
+      evict()
+    }
+    return value
+  }
+
+  /**
+   * Returns the cached value for the key, creating and adding it with the function if there is none. The value may be
+   * created more than once if different threads look up the same key at the same time, but only one is kept.
+   */
+  fun getOrPut(key: K, create: () -> V): V = get(key) ?: putIfAbsent(key, create())
+
+  /**
+   * Number of entries in the cache
+   */
+  fun size() = entries.size
+
+  /**
+   * Number of entries that have been removed to keep the cache in bounds
+   */
+  fun evictions() = evictions.get()
+
+  fun clear() {
+    entries.clear()
+    evictions.set(0)
+  }
+
+  private fun evict() {
+    // Threads that find another thread already evicting carry on, the cache can go over the size until it is done
+    if (evicting.compareAndSet(false, true)) {
+      try {
+        val count = entries.size - maxSize + maxSize / EVICTION_FRACTION
+        if (count > 0) {
+          entries.entries.sortedBy { it.value.lastUsed }.take(count).forEach {
+            if (entries.remove(it.key, it.value)) {
+              evictions.incrementAndGet()
+            }
+          }
+        }
+      } finally {
+        evicting.set(false)
+      }
+    }
+  }
+
+  companion object {
+    private const val EVICTION_FRACTION = 10
+  }
+}
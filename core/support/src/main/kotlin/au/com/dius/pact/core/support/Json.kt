@@ -4,10 +4,6 @@ import au.com.dius.pact.core.support.Json.toJson
 import au.com.dius.pact.core.support.json.JsonParser
 import au.com.dius.pact.core.support.json.JsonToken
 import au.com.dius.pact.core.support.json.JsonValue
-import org.apache.commons.text.translate.AggregateTranslator
-import org.apache.commons.text.translate.EntityArrays
-import org.apache.commons.text.translate.JavaUnicodeEscaper
-import org.apache.commons.text.translate.LookupTranslator
 import java.io.Writer
 import java.math.BigInteger
 
@@ -82,7 +78,7 @@ object Json {
   fun prettyPrint(json: String) = JsonParser.parseString(json).prettyPrint()
 
   fun prettyPrint(json: String, writer: Writer) {
-    writer.write(JsonParser.parseString(json).prettyPrint())
+    JsonParser.parseString(json).prettyPrintTo(writer)
   }
 
   fun prettyPrint(obj: Any) = toJson(obj).prettyPrint()
@@ -102,14 +98,112 @@ object Json {
     else -> null
   }
 
-  fun escape(s: String): String = ESCAPE_JSON.translate(s)
+  /**
+   * Escapes the string as a JSON string value. Returns the string as is if nothing needs to be escaped.
+   */
+  fun escape(s: String): String {
+    val first = firstEscape(s, 0, s.length)
+    return if (first == s.length) {
+      s
+    } else {
+      val builder = StringBuilder(s.length + 16)
+      builder.append(s, 0, first)
+      escapeTo(s, first, s.length, builder)
+      builder.toString()
+    }
+  }
+
+  /**
+   * Escapes the string as a JSON string value, writing the result to the output. Runs of characters that do not need
+   * escaping are written as is.
+   */
+  fun escapeTo(s: CharSequence, out: Appendable) {
+    escapeTo(s, 0, s.length, out)
+  }
+
+  /**
+   * Escapes the characters as a JSON string value, writing the result to the output
+   */
+  fun escapeTo(chars: CharArray, out: Appendable) {
+    var run = 0
+    for (i in chars.indices) {
+      val escape = escapeFor(chars[i])
+      if (escape != null) {
+        appendChars(out, chars, run, i)
+        appendEscape(out, chars[i], escape)
+        run = i + 1
+      }
+    }
+    appendChars(out, chars, run, chars.size)
+  }
+
+  private fun escapeTo(s: CharSequence, start: Int, end: Int, out: Appendable) {
+    var run = start
+    for (i in start until end) {
+      val escape = escapeFor(s[i])
+      if (escape != null) {
+        if (run < i) out.append(s, run, i)
+        appendEscape(out, s[i], escape)
+        run = i + 1
+      }
+    }
+    if (run < end) out.append(s, run, end)
+  }
 
-  private val ESCAPE_JSON = AggregateTranslator(
-    LookupTranslator(
-      mapOf("\"" to "\\\"", "\\" to "\\\\")),
-    LookupTranslator(EntityArrays.JAVA_CTRL_CHARS_ESCAPE),
-    JavaUnicodeEscaper.outsideOf(32, 0x7f)
-  )
+  private fun firstEscape(s: CharSequence, start: Int, end: Int): Int {
+    for (i in start until end) {
+      if (escapeFor(s[i]) != null) return i
+    }
+    return end
+  }
+
+  /**
+   * Returns the escape sequence for the character, UNICODE_ESCAPE if it needs to be written as a \uXXXX escape, or
+   * null if it does not need to be escaped
+   */
+  private fun escapeFor(ch: Char): String? = if (ch.code < ESCAPES.size) ESCAPES[ch.code] else UNICODE_ESCAPE
+
+  private fun appendEscape(out: Appendable, ch: Char, escape: String) {
+    if (escape === UNICODE_ESCAPE) {
+      val code = ch.code
+      out.append('\\').append('u')
+        .append(HEX_DIGITS[code shr 12 and 0xF])
+        .append(HEX_DIGITS[code shr 8 and 0xF])
+        .append(HEX_DIGITS[code shr 4 and 0xF])
+        .append(HEX_DIGITS[code and 0xF])
+    } else {
+      out.append(escape)
+    }
+  }
+
+  private fun appendChars(out: Appendable, chars: CharArray, start: Int, end: Int) {
+    if (start < end) {
+      when (out) {
+        is StringBuilder -> out.append(chars, start, end - start)
+        is Writer -> out.write(chars, start, end - start)
+        else -> for (i in start until end) out.append(chars[i])
+      }
+    }
+  }
+
+  private const val UNICODE_ESCAPE = "\\u"
+  private val HEX_DIGITS = "0123456789ABCDEF".toCharArray()
+
+  /**
+   * Escapes for the ASCII characters. Control characters are escaped, as are all characters above the ASCII range.
+   */
+  private val ESCAPES: Array<String?> = arrayOfNulls<String>(0x80).also {
+    for (ch in 0 until 0x20) {
+      it[ch] = UNICODE_ESCAPE
+    }
+    it['"'.code] = "\\\""
+    it['\\'.code] = "\\\\"
+    it['\b'.code] = "\\b"
+    it['\n'.code] = "\\n"
+    it['\t'.code] = "\\t"
+    it['\u000C'.code] = "\\f"
+    it['\r'.code] = "\\r"
+  }
 }
 
 private fun Char.toJsonValue() = JsonValue.StringValue(JsonToken.StringValue(charArrayOf(this)))
@@ -0,0 +1,132 @@
+package au.com.dius.pact.core.support
+
+import au.com.dius.pact.core.support.Utils.lookupEnvironmentValue
+
+/**
+ * Snapshot of the configuration read from JVM system properties and environment variables that is used when
+ * matching requests and responses, writing pact files and creating the HTTP client for verification. These are
+ * used for every request and body, so the values are read once into the [current] snapshot instead of on every call.
+ * The mock servers, test runners and verifiers call [refresh] when they start, after any system properties have
+ * been set.
+ */
+data class PactRuntimeConfig @JvmOverloads constructor(
+  /** If the V2 matching engine is enabled (`pact.matching.engine` set to `v2`) */
+  val v2MatchingEngine: Boolean = false,
+  /** If the V2 matching engine should log the executed plan (`pact.matching.v2.logExecutedPlan`) */
+  val logExecutedPlan: Boolean = false,
+  /** If the V2 matching engine should log the plan before it is executed (`pact.matching.v2.logRawPlan`) */
+  val logRawPlan: Boolean = false,
+  /** If the V2 matching engine should log a summary of the executed plan (`pact.matching.v2.logPlanSummary`) */
+  val logPlanSummary: Boolean = false,
+  /** If the V2 matching engine should colour its output (`pact.matching.v2.ColouredOutput`) */
+  val colouredOutput: Boolean = false,
+  /** If existing pact files are overwritten instead of merged (`pact.writer.overwrite`) */
+  val overwritePactFiles: Boolean = false,
+  /** If the HTTP client used for verification follows redirects (`pact.verifier.enableRedirectHandling`) */
+  val enableRedirectHandling: Boolean = false,
+  /**
+   * Minimum number of array elements or object entries for them to be compared in parallel, zero disables parallel
+   * matching (`pact.matching.parallel.threshold`)
+   */
+  val parallelMatchingThreshold: Int = 0,
+  /** Number of threads used for parallel matching, zero uses the common pool (`pact.matching.parallel.poolSize`) */
+  val parallelMatchingPoolSize: Int = 0,
+  /** Maximum number of lines in the diffs of mismatched bodies, zero for no limit (`pact.matching.diff.maxLines`) */
+  val maxDiffLines: Int = DEFAULT_MAX_DIFF_LINES,
+  /**
+   * Maximum size of the bodies that are diffed, larger bodies only have the start of them diffed. Can be a number of
+   * bytes or a data size like `512kb`, zero for no limit (`pact.matching.diff.maxBodySize`)
+   */
+  val maxDiffBodySize: Int = DEFAULT_MAX_DIFF_BODY_SIZE,
+  /** Content type overrides, keyed by the content type (`pact.content_type.override.<content type>`) */
+  val contentTypeOverrides: Map<String, String> = emptyMap()
+) {
+  /**
+   * Returns the override configured for the content type, if there is one
+   */
+  fun contentTypeOverride(contentType: String): String? = contentTypeOverrides[contentType]
+
+  /**
+   * Returns a copy of this configuration with the parallel matching threshold and pool size changed
+   */
+  fun withParallelMatching(threshold: Int, poolSize: Int) =
+    copy(parallelMatchingThreshold = threshold, parallelMatchingPoolSize = poolSize)
+
+  /**
+   * Returns a copy of this configuration with the limits on the diffs of mismatched bodies changed
+   */
+  fun withDiffLimits(maxLines: Int, maxBodySize: Int) = copy(maxDiffLines = maxLines, maxDiffBodySize = maxBodySize)
+
+  companion object {
+    const val CONTENT_TYPE_OVERRIDE_PREFIX = "pact.content_type.override."
+    const val DEFAULT_MAX_DIFF_LINES = 5000
+    const val DEFAULT_MAX_DIFF_BODY_SIZE = 1024 * 1024
+
+    @Volatile
+    private var current: PactRuntimeConfig = fromEnvironment()
+
+    /**
+     * Returns the current snapshot of the configuration
+     */
+    @JvmStatic
+    fun current() = current
+
+    /**
+     * Reads the configuration again and makes it the current snapshot. Needs to be called after changing any of the
+     * system properties for the new values to be used.
+     */
+    @JvmStatic
+    fun refresh(): PactRuntimeConfig {
+      val config = fromEnvironment()
+      current = config
+      return config
+    }
+
+    /**
+     * Reads the configuration from the system properties and environment variables
+     */
+    @JvmStatic
+    fun fromEnvironment(): PactRuntimeConfig {
+      val properties = System.getProperties()
+      val contentTypeOverrides = properties.stringPropertyNames()
+        .filter { it.startsWith(CONTENT_TYPE_OVERRIDE_PREFIX) }
+        .associate { it.removePrefix(CONTENT_TYPE_OVERRIDE_PREFIX) to properties.getProperty(it) }
+      return PactRuntimeConfig(
+        v2MatchingEngine = lookupEnvironmentValue("pact.matching.engine")?.lowercase() == "v2",
+        logExecutedPlan = flagSet("pact.matching.v2.logExecutedPlan", "PACT_V2_MATCHING_LOG_EXECUTED_PLAN"),
+        logRawPlan = flagSet("pact.matching.v2.logRawPlan", "PACT_V2_MATCHING_LOG_RAW_PLAN"),
+        logPlanSummary = flagSet("pact.matching.v2.logPlanSummary", "PACT_V2_MATCHING_LOG_PLAN_SUMMARY"),
+        colouredOutput = flagSet("pact.matching.v2.ColouredOutput", "PACT_V2_MATCHING_COLOURED_OUTPUT"),
+        overwritePactFiles = System.getProperty("pact.writer.overwrite") == "true",
+        enableRedirectHandling = System.getProperty("pact.verifier.enableRedirectHandling") == "true",
+        parallelMatchingThreshold = intValue("pact.matching.parallel.threshold"),
+        parallelMatchingPoolSize = intValue("pact.matching.parallel.poolSize"),
+        maxDiffLines = intValue("pact.matching.diff.maxLines", DEFAULT_MAX_DIFF_LINES),
+        maxDiffBodySize = dataSize("pact.matching.diff.maxBodySize", DEFAULT_MAX_DIFF_BODY_SIZE),
+        contentTypeOverrides = contentTypeOverrides
+      )
+    }
+
+    private fun flagSet(property: String, envVariable: String) = isTrue(property) || isTrue(envVariable)
+
+    private fun intValue(key: String, default: Int = 0) =
+      lookupEnvironmentValue(key)?.trim()?.toIntOrNull()?.coerceAtLeast(0) ?: default
+
+    private fun dataSize(key: String, default: Int): Int {
+      val value = lookupEnvironmentValue(key)?.trim()
+      return when {
+        value.isNullOrEmpty() -> default
+        value.toIntOrNull() != null -> value.toInt().coerceAtLeast(0)
+        else -> when (val size = Utils.sizeOf(value)) {
+          is Result.Ok -> size.value
+          is Result.Err -> default
+        }
+      }
+    }
+
+    private fun isTrue(key: String): Boolean {
+      val value = lookupEnvironmentValue(key)?.lowercase()
+      return value == "true" || value == "1"
+    }
+  }
+}
@@ -2,21 +2,164 @@ package au.com.dius.pact.core.support
 
 import au.com.dius.pact.core.support.regex.RegexParser
 import au.com.dius.pact.core.support.regex.RegexStringGenerator
+import io.github.oshai.kotlinlogging.KotlinLogging
+import java.util.ServiceConfigurationError
+import java.util.ServiceLoader
+import java.util.UUID
+
+private val logger = KotlinLogging.logger {}
 
 /**
- * Support for the generation of random values
+ * Support for the generation of random values. All the values are drawn from [source], which defaults to a
+ * [ThreadLocalRandomSource]. Setting the pact.generators.seed system property to a number uses a
+ * [SeededRandomSource] instead, so the same values are generated when a run is repeated. Code can also use a
+ * different source for the values generated by the current thread with [withSource].
  */
 object Random {
+  private const val ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789"
+  private const val NUMERIC = "0123456789"
+
+  /**
+   * Source of the random values
+   */
+  @Volatile
+  @JvmStatic
+  var source: RandomSource = defaultSource()
+
+  private val threadSource = ThreadLocal<RandomSource>()
+
+  private fun current() = threadSource.get() ?: source
+
+  /**
+   * Runs the block with the values generated by the current thread drawn from the given source instead of [source]
+   */
+  @JvmStatic
+  fun <T> withSource(source: RandomSource, block: () -> T): T {
+    val previous = threadSource.get()
+    threadSource.set(source)
+    try {
+      return block()
+    } finally {
+      if (previous == null) threadSource.remove() else threadSource.set(previous)
+    }
+  }
+
+  /**
+   * Adapts the current source for the code that requires a Kotlin Random
+   */
+  private object SourceRandom : kotlin.random.Random() {
+    override fun nextBits(bitCount: Int) = current().nextInt().ushr(32 - bitCount) and (-bitCount).shr(31)
+
+    override fun nextInt() = current().nextInt()
+
+    override fun nextInt(until: Int) = current().nextInt(until)
+
+    override fun nextInt(from: Int, until: Int) = current().nextInt(from, until)
+
+    override fun nextLong() = current().nextLong()
+
+    override fun nextBoolean() = current().nextBoolean()
+  }
+
+  private val regexStringGenerator = RegexStringGenerator(random = SourceRandom)
+
+  /**
+   * Sets the source back to the default, taking into account the pact.generators.seed system property
+   */
+  @JvmStatic
+  fun resetSource() {
+    source = defaultSource()
+  }
+
+  private fun defaultSource(): RandomSource {
+    val seed = System.getProperty("pact.generators.seed")
+    if (!seed.isNullOrBlank()) {
+      val value = seed.trim().toLongOrNull()
+      if (value != null) {
+        logger.info { "Generating random values with seed $value" }
+        return SeededRandomSource(value)
+      }
+      logger.warn { "Ignoring invalid value for pact.generators.seed: '$seed'" }
+    }
+
+    return try {
+      ServiceLoader.load(RandomSource::class.java, RandomSource::class.java.classLoader).firstOrNull()
+        ?: ThreadLocalRandomSource
+    } catch (e: ServiceConfigurationError) {
+      logger.warn(e) { "Failed to load the random source from the ServiceLoader" }
+      ThreadLocalRandomSource
+    }
+  }
+
+  /**
+   * Generate a random int between min (inclusive) and max (exclusive). Returns min if they are equal.
+   */
+  @JvmStatic
+  fun nextInt(min: Int, max: Int): Int {
+    require(max >= min) { "Start value must be smaller or equal to end value." }
+    return if (min == max) min else current().nextInt(min, max)
+  }
+
+  /**
+   * Generate a random boolean
+   */
+  @JvmStatic
+  fun nextBoolean() = current().nextBoolean()
+
+  /**
+   * Generate a random string of the given length from the characters
+   */
+  @JvmStatic
+  fun randomString(length: Int, characters: String): String {
+    val chars = CharArray(length) { characters[current().nextInt(characters.length)] }
+    return String(chars)
+  }
+
+  /**
+   * Generate a random string of letters and digits
+   */
+  @JvmStatic
+  fun randomAlphanumeric(length: Int) = randomString(length, ALPHANUMERIC)
+
+  /**
+   * Generate a random string of digits
+   */
+  @JvmStatic
+  fun randomNumeric(length: Int) = randomString(length, NUMERIC)
+
+  /**
+   * Generate a random (version 4) UUID
+   */
+  @JvmStatic
+  fun randomUUID(): UUID {
+    val msb = (current().nextLong() and 0xF000L.inv()) or 0x4000L
+    val lsb = (current().nextLong() and 0x3FFFFFFFFFFFFFFFL) or Long.MIN_VALUE
+    return UUID(msb, lsb)
+  }
+
   /**
    * Generate a random string from a regular expression
    */
   @JvmStatic
   fun generateRandomString(regex: String): String {
-    val cleaned = if (regex.endsWith('$') && !regex.endsWith("\\$")) {
+    return regexStringGenerator.generate(parseRegex(regex))
+  }
+
+  /**
+   * Generate a number of random strings from a regular expression. The regular expression is only parsed once.
+   */
+  @JvmStatic
+  fun generateRandomStrings(regex: String, count: Int): List<String> {
+    return regexStringGenerator.generate(parseRegex(regex), count)
+  }
+
+  private fun parseRegex(regex: String) = RegexParser.parseCached(cleanRegex(regex))
+
+  private fun cleanRegex(regex: String): String {
+    return if (regex.endsWith('$') && !regex.endsWith("\\$")) {
       regex.trimStart('^').trimEnd('$')
     } else {
       regex.trimStart('^')
     }
-    return RegexStringGenerator().generate(RegexParser(cleaned).parse())
   }
 }
@@ -0,0 +1,64 @@
+package au.com.dius.pact.core.support
+
+import java.util.SplittableRandom
+import java.util.concurrent.ThreadLocalRandom
+
+/**
+ * Source of the random values used to generate data. Implementations must be safe to use from multiple threads.
+ * A source can be set with [Random.source], or provided with the ServiceLoader
+ * (META-INF/services/au.com.dius.pact.core.support.RandomSource).
+ */
+interface RandomSource {
+  /** Returns a random int */
+  fun nextInt(): Int
+
+  /** Returns a random int between 0 (inclusive) and the bound (exclusive) */
+  fun nextInt(bound: Int): Int
+
+  /** Returns a random int between the origin (inclusive) and the bound (exclusive) */
+  fun nextInt(origin: Int, bound: Int): Int
+
+  /** Returns a random long */
+  fun nextLong(): Long
+
+  /** Returns a random boolean */
+  fun nextBoolean(): Boolean
+}
+
+/**
+ * Default source, which uses the random number generator of the current thread so threads generating values do not
+ * contend with each other
+ */
+object ThreadLocalRandomSource : RandomSource {
+  override fun nextInt() = ThreadLocalRandom.current().nextInt()
+
+  override fun nextInt(bound: Int) = ThreadLocalRandom.current().nextInt(bound)
+
+  override fun nextInt(origin: Int, bound: Int) = ThreadLocalRandom.current().nextInt(origin, bound)
+
+  override fun nextLong() = ThreadLocalRandom.current().nextLong()
+
+  override fun nextBoolean() = ThreadLocalRandom.current().nextBoolean()
+}
+
+/**
+ * Source that generates the same values for the same seed, so a run can be replayed. Each thread gets its own
+ * generator split from the seeded one in the order the threads first use it, so the values are repeatable as long as
+ * the threads start generating values in the same order (which is always the case for a single thread).
+ */
+class SeededRandomSource(val seed: Long) : RandomSource {
+  private val root = SplittableRandom(seed)
+  private val random = ThreadLocal.withInitial { synchronized(root) { root.split() } }
+
+  override fun nextInt() = random.get().nextInt()
+
+  override fun nextInt(bound: Int) = random.get().nextInt(bound)
+
+  override fun nextInt(origin: Int, bound: Int) = random.get().nextInt(origin, bound)
+
+  override fun nextLong() = random.get().nextLong()
+
+  override fun nextBoolean() = random.get().nextBoolean()
+
+  override fun toString() = "SeededRandomSource(seed=$seed)"
+}
@@ -0,0 +1,95 @@
+package au.com.dius.pact.core.support.json
+
+import java.util.Collections
+import java.util.IdentityHashMap
+
+/**
+ * Applies changes to a JSON document without modifying it. Only the objects and arrays on the path to a changed
+ * value are copied (and only shallowly, the first time they are changed), all other values are shared with the
+ * original document. This allows a parsed document to be shared and updated many times, with each update only
+ * allocating in proportion to the number of values that are changed.
+ *
+ * Paths are lists of object keys and array indices, in the same form as JsonQueryResult.path.
+ */
+class CopyOnWriteJson(original: JsonValue) {
+  private val owned: MutableSet<JsonValue> = Collections.newSetFromMap(IdentityHashMap())
+
+  /**
+   * The current document. Values not on a changed path are the same instances as in the original document.
+   */
+  var root: JsonValue = original
+
+  /**
+   * Returns the value at the path, or null if the path does not exist
+   */
+  fun get(path: List<String>): JsonValue? {
+    var cursor = root
+    for (key in path) {
+      cursor = child(cursor, key) ?: return null
+    }
+    return cursor
+  }
+
+  /**
+   * Sets the value at the path, copying any shared objects and arrays on the path. Returns false if the parent of
+   * the value does not exist or the index is not in the array.
+   */
+  fun set(path: List<String>, value: JsonValue): Boolean {
+    if (path.isEmpty()) {
+      root = value
+      return true
+    }
+
+    val key = path.last()
+    val parent = get(path.subList(0, path.size - 1))
+    if (parent !is JsonValue.Object && !(parent is JsonValue.Array && arrayIndex(parent, key) != null)) {
+      return false
+    }
+
+    var cursor = ownedCopy(root)
+    root = cursor
+    for (index in 0 until path.size - 1) {
+      val child = child(cursor, path[index])!!
+      val copy = ownedCopy(child)
+      if (copy !== child) {
+        setChild(cursor, path[index], copy)
+      }
+      cursor = copy
+    }
+    setChild(cursor, key, value)
+    return true
+  }
+
+  private fun ownedCopy(value: JsonValue): JsonValue {
+    return if (owned.contains(value)) {
+      value
+    } else {
+      val copy = when (value) {
+        is JsonValue.Object -> JsonValue.Object(LinkedHashMap(value.entries))
+        is JsonValue.Array -> JsonValue.Array(ArrayList(value.values))
+        else -> return value
+      }
+      owned.add(copy)
+      copy
+    }
+  }
+
+  private fun child(value: JsonValue, key: String): JsonValue? = when (value) {
+    is JsonValue.Object -> value.entries[key]
+    is JsonValue.Array -> arrayIndex(value, key)?.let { value.values[it] }
+    else -> null
+  }
+
+  private fun setChild(parent: JsonValue, key: String, value: JsonValue) {
+    when (parent) {
+      is JsonValue.Object -> parent.entries[key] = value
+      is JsonValue.Array -> parent.values[key.toInt()] = value
+      else -> {}
+    }
+  }
+
+  private fun arrayIndex(array: JsonValue.Array, key: String): Int? {
+    val index = key.toIntOrNull()
+    return if (index != null && index >= 0 && index < array.size) index else null
+  }
+}
@@ -0,0 +1,212 @@
+package au.com.dius.pact.core.support.json
+
+import java.nio.ByteBuffer
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RecursiveAction
+
+/**
+ * Parses large UTF-8 encoded JSON documents using multiple threads. A quick structural scan of the document finds the
+ * elements of the top level array (or of the arrays that are values of the top level object, like the interactions
+ * of a pact file), and then the elements are parsed in parallel on a fork-join pool. All other values are parsed on
+ * the calling thread.
+ *
+ * The scan only looks at the structural characters, so if the document is invalid, parse returns null and the caller
+ * should parse the document normally to get the error (and its location in the document).
+ */
+internal class JsonParallelParser(
+  json: ByteBuffer,
+  private val pool: ForkJoinPool,
+  private val keyPool: JsonKeyPool?
+) {
+  private val buffer = json.slice()
+  private val limit = buffer.limit()
+
+  @Suppress("SwallowedException")
+  fun parse(): JsonValue? {
+    return try {
+      val start = skipWhitespace(0)
+      val end = skipValue(start)
+      if (end < 0 || skipWhitespace(end) != limit) {
+        null
+      } else {
+        when (charAt(start)) {
+          '{' -> parseObject(start, end)
+          '[' -> parseArray(start, end)
+          else -> parseRange(start, end)
+        }
+      }
+    } catch (e: JsonException) {
+      null
+    }
+  }
+
+  @Suppress("ReturnCount")
+  private fun parseObject(start: Int, end: Int): JsonValue? {
+    val entries = mutableMapOf<String, JsonValue>()
+    var pos = skipWhitespace(start + 1)
+    if (charAt(pos) == '}') {
+      return if (pos == end - 1) JsonValue.Object(entries) else null
+    }
+
+    while (true) {
+      if (charAt(pos) != '"') return null
+      val keyEnd = skipString(pos)
+      if (keyEnd < 0) return null
+      val key = parseKey(pos, keyEnd)
+
+      pos = skipWhitespace(keyEnd)
+      if (charAt(pos) != ':') return null
+      pos = skipWhitespace(pos + 1)
+      val valueEnd = skipValue(pos)
+      if (valueEnd < 0) return null
+      entries[key] = if (charAt(pos) == '[') {
+        parseArray(pos, valueEnd) ?: return null
+      } else {
+        parseRange(pos, valueEnd)
+      }
+
+      pos = skipWhitespace(valueEnd)
+      when {
+        charAt(pos) == ',' -> pos = skipWhitespace(pos + 1)
+        charAt(pos) == '}' && pos == end - 1 -> return JsonValue.Object(entries)
+        else -> return null
+      }
+    }
+  }
+
+  @Suppress("ReturnCount")
+  private fun parseArray(start: Int, end: Int): JsonValue? {
+    var ranges = IntArray(INITIAL_ELEMENTS * 2)
+    var count = 0
+    var pos = skipWhitespace(start + 1)
+    if (charAt(pos) == ']') {
+      return if (pos == end - 1) JsonValue.Array() else null
+    }
+
+    while (true) {
+      val elementEnd = skipValue(pos)
+      if (elementEnd < 0) return null
+      if (count * 2 == ranges.size) {
+        ranges = ranges.copyOf(ranges.size * 2)
+      }
+      ranges[count * 2] = pos
+      ranges[count * 2 + 1] = elementEnd
+      count++
+
+      pos = skipWhitespace(elementEnd)
+      when {
+        charAt(pos) == ',' -> pos = skipWhitespace(pos + 1)
+        charAt(pos) == ']' && pos == end - 1 -> break
+        else -> return null
+      }
+    }
+
+    return if (count < MIN_PARALLEL_ELEMENTS) {
+      parseRange(start, end)
+    } else {
+      val results = arrayOfNulls<JsonValue>(count)
+      pool.invoke(ParseElements(ranges, 0, count, results))
+      JsonValue.Array(results.mapTo(ArrayList(count)) { it!! })
+    }
+  }
+
+  private inner class ParseElements(
+    private val ranges: IntArray,
+    private val from: Int,
+    private val to: Int,
+    private val results: Array<JsonValue?>
+  ) : RecursiveAction() {
+    override fun compute() {
+      if (to - from <= ELEMENTS_PER_TASK) {
+        for (i in from until to) {
+          results[i] = parseRange(ranges[i * 2], ranges[i * 2 + 1])
+        }
+      } else {
+        val middle = (from + to) ushr 1
+        invokeAll(ParseElements(ranges, from, middle, results), ParseElements(ranges, middle, to, results))
+      }
+    }
+  }
+
+  private fun parseRange(start: Int, end: Int) =
+    JsonParser.parse(Utf8Source(buffer.slice(start, end - start)), keyPool)
+
+  private fun parseKey(start: Int, end: Int): String {
+    val chars = parseRange(start, end).downcast<JsonValue.StringValue>().value.chars
+    return keyPool?.intern(chars, chars.size) ?: String(chars)
+  }
+
+  private fun charAt(pos: Int) = if (pos < limit) (buffer.get(pos).toInt() and 0xFF).toChar() else EOF
+
+  private fun skipWhitespace(start: Int): Int {
+    var pos = start
+    while (pos < limit && buffer.get(pos) >= 0 && charAt(pos).isWhitespace()) {
+      pos++
+    }
+    return pos
+  }
+
+  /**
+   * Returns the offset after the value starting at start, or -1 if the end of the document is reached
+   */
+  private fun skipValue(start: Int): Int {
+    return when (charAt(start)) {
+      EOF -> -1
+      '"' -> skipString(start)
+      '{', '[' -> skipContainer(start)
+      else -> skipScalar(start)
+    }
+  }
+
+  private fun skipString(start: Int): Int {
+    var pos = start + 1
+    while (pos < limit) {
+      when (charAt(pos)) {
+        '\\' -> pos += 2
+        '"' -> return pos + 1
+        else -> pos++
+      }
+    }
+    return -1
+  }
+
+  private fun skipContainer(start: Int): Int {
+    var depth = 0
+    var pos = start
+    while (pos < limit) {
+      when (charAt(pos)) {
+        '"' -> {
+          pos = skipString(pos)
+          if (pos < 0) return -1
+          continue
+        }
+        '{', '[' -> depth++
+        '}', ']' -> {
+          depth--
+          if (depth == 0) return pos + 1
+        }
+      }
+      pos++
+    }
+    return -1
+  }
+
+  private fun skipScalar(start: Int): Int {
+    var pos = start
+    while (pos < limit) {
+      val ch = charAt(pos)
+      if (ch == ',' || ch == ']' || ch == '}' || (buffer.get(pos) >= 0 && ch.isWhitespace())) {
+        break
+      }
+      pos++
+    }
+    return if (pos == start) -1 else pos
+  }
+
+  companion object {
+    private const val EOF = '\uFFFF'
+    private const val INITIAL_ELEMENTS = 64
+    private const val ELEMENTS_PER_TASK = 8
+    private const val MIN_PARALLEL_ELEMENTS = 16
+  }
+}
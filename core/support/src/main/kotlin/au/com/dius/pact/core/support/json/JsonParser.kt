@@ -1,20 +1,43 @@
 package au.com.dius.pact.core.support.json
 
 import au.com.dius.pact.core.support.Result
+import java.io.File
 import java.io.InputStream
 import java.io.Reader
+import java.nio.ByteBuffer
+import java.nio.channels.Channels
+import java.nio.channels.FileChannel
+import java.nio.file.StandardOpenOption
 import java.util.ArrayDeque
+import java.util.concurrent.ForkJoinPool
 
 class JsonException(message: String) : RuntimeException(message)
 
-sealed class JsonToken(val chars: CharArray) {
+sealed class JsonToken(chars: CharArray) {
+  open val chars: CharArray = chars
+
   object Whitespace : JsonToken("".toCharArray())
   class Integer(chars: CharArray) : JsonToken(chars)
   class Decimal(chars: CharArray) : JsonToken(chars)
   object True : JsonToken("true".toCharArray())
   object False : JsonToken("false".toCharArray())
   object Null : JsonToken("null".toCharArray())
-  class StringValue(chars: CharArray) : JsonToken(chars)
+  /**
+   * String token. Tokens created from a JsonSourceRange only copy the characters out of the source document when
+   * they are first accessed.
+   */
+  class StringValue private constructor(@Volatile private var contents: Any) : JsonToken(EMPTY) {
+    constructor(chars: CharArray) : this(chars as Any)
+    constructor(range: JsonSourceRange) : this(range as Any)
+
+    override val chars: CharArray
+      get() {
+        return when (val value = contents) {
+          is CharArray -> value
+          else -> (value as JsonSourceRange).toCharArray().also { contents = it }
+        }
+      }
+  }
   object ArrayStart : JsonToken("[".toCharArray())
   object ArrayEnd : JsonToken("]".toCharArray())
   object ObjectStart : JsonToken("{".toCharArray())
@@ -22,6 +45,10 @@ sealed class JsonToken(val chars: CharArray) {
   object Comma : JsonToken(",".toCharArray())
   object Colon : JsonToken(":".toCharArray())
 
+  private companion object {
+    val EMPTY = CharArray(0)
+  }
+
   override fun equals(other: Any?): Boolean {
     if (this === other) return true
     if (javaClass != other?.javaClass) return false
@@ -55,7 +82,11 @@ sealed class JsonToken(val chars: CharArray) {
 }
 
 @Suppress("ReturnCount")
-class JsonLexer(json: JsonSource) : BaseJsonLexer(json) {
+class JsonLexer @JvmOverloads constructor(
+  json: JsonSource,
+  keyPool: JsonKeyPool? = JsonKeyPool.shared(),
+  lazyStrings: Boolean = false
+) : BaseJsonLexer(json, keyPool, lazyStrings) {
   sealed interface ObjectKeyToken {
     data class Key(val value: String) : ObjectKeyToken
     data object ObjectEnd : ObjectKeyToken
@@ -149,6 +180,11 @@ class JsonLexer(json: JsonSource) : BaseJsonLexer(json) {
 }
 
 object JsonParser {
+  /**
+   * Files of at least this size (in bytes) are memory mapped instead of being read onto the heap. Can be overridden
+   * with the pact.json.mappedFileThreshold system property.
+   */
+  const val DEFAULT_MAPPED_FILE_THRESHOLD = 1024L * 1024L
 
   @Throws(JsonException::class)
   @JvmStatic
@@ -160,10 +196,113 @@ object JsonParser {
     }
   }
 
+  /**
+   * Parses a JSON document from a UTF-8 encoded byte array, without decoding it through a Reader. With lazyStrings
+   * set, string values reference the byte array and are only decoded when they are accessed, so this should only be
+   * used if the byte array is kept anyway (and not modified).
+   */
+  @Throws(JsonException::class)
+  @JvmStatic
+  @JvmOverloads
+  fun parseBytes(json: ByteArray, lazyStrings: Boolean = false): JsonValue {
+    if (json.isNotEmpty()) {
+      return parse(Utf8Source(json), JsonKeyPool.shared(), lazyStrings)
+    } else {
+      throw JsonException("Json document is empty")
+    }
+  }
+
+  /**
+   * Parses a JSON document from the remaining UTF-8 encoded bytes in the buffer. The buffer position is not modified.
+   */
+  @Throws(JsonException::class)
+  @JvmStatic
+  fun parseBuffer(json: ByteBuffer): JsonValue {
+    if (json.hasRemaining()) {
+      return parse(Utf8Source(json))
+    } else {
+      throw JsonException("Json document is empty")
+    }
+  }
+
+  /**
+   * Parses a UTF-8 encoded JSON document from a file. Files at least as large as the threshold are memory mapped and
+   * read directly by the lexer, smaller files are read into a byte array. Files at least as large as the parallel
+   * threshold are parsed with parseParallel.
+   */
+  @Throws(JsonException::class)
+  @JvmStatic
+  @JvmOverloads
+  fun parseFile(
+    file: File,
+    mappedThreshold: Long = mappedFileThreshold(),
+    parallelThreshold: Long = Long.MAX_VALUE
+  ): JsonValue {
+    return FileChannel.open(file.toPath(), StandardOpenOption.READ).use {
+      parseChannel(it, mappedThreshold, parallelThreshold)
+    }
+  }
+
+  /**
+   * Parses a UTF-8 encoded JSON document from the contents of a file channel, using the same strategy as parseFile.
+   * Files too large to be mapped (over 2GB) are streamed through a Reader.
+   */
+  @Throws(JsonException::class)
+  @JvmStatic
+  @JvmOverloads
+  fun parseChannel(
+    channel: FileChannel,
+    mappedThreshold: Long = mappedFileThreshold(),
+    parallelThreshold: Long = Long.MAX_VALUE
+  ): JsonValue {
+    val size = channel.size()
+    return when {
+      size == 0L -> throw JsonException("Json document is empty")
+      size > Int.MAX_VALUE -> parse(ReaderSource(Channels.newReader(channel.position(0), Charsets.UTF_8)))
+      size >= parallelThreshold -> parseParallel(
+        if (size >= mappedThreshold) channel.map(FileChannel.MapMode.READ_ONLY, 0, size) else readChannel(channel, size)
+      )
+      size >= mappedThreshold -> parse(MappedFileSource(channel))
+      else -> parseBuffer(readChannel(channel, size))
+    }
+  }
+
+  private fun readChannel(channel: FileChannel, size: Long): ByteBuffer {
+    val buffer = ByteBuffer.allocate(size.toInt())
+    var count = 0
+    while (buffer.hasRemaining() && count >= 0) {
+      count = channel.read(buffer, buffer.position().toLong())
+    }
+    buffer.flip()
+    return buffer
+  }
+
+  /**
+   * Parses a UTF-8 encoded JSON document using multiple threads. The elements of the top level array, or of any arrays
+   * that are values of the top level object (like the interactions of a pact file), are parsed in parallel on the
+   * fork-join pool. This is only worth doing for large documents. The buffer position is not modified.
+   */
+  @Throws(JsonException::class)
+  @JvmStatic
+  @JvmOverloads
+  fun parseParallel(json: ByteBuffer, pool: ForkJoinPool = ForkJoinPool.commonPool()): JsonValue {
+    if (!json.hasRemaining()) {
+      throw JsonException("Json document is empty")
+    }
+    // If the structural scan fails, the document is invalid, so parse it normally to get the error
+    return JsonParallelParser(json, pool, JsonKeyPool.shared()).parse() ?: parseBuffer(json)
+  }
+
+  private fun mappedFileThreshold() = System.getProperty("pact.json.mappedFileThreshold")?.toLongOrNull()
+    ?: DEFAULT_MAPPED_FILE_THRESHOLD
+
+  /**
+   * Parses a UTF-8 encoded JSON document from the input stream
+   */
   @Throws(JsonException::class)
   @JvmStatic
   fun parseStream(json: InputStream): JsonValue {
-    return parse(InputStreamSource(json))
+    return parse(Utf8Source(json.readAllBytes()))
   }
 
   @Throws(JsonException::class)
@@ -172,10 +311,37 @@ object JsonParser {
     return parse(ReaderSource(reader))
   }
 
-  private fun parse(json: JsonSource): JsonValue {
-    val lexer = JsonLexer(json)
+  /**
+   * Parses a JSON document from the source. Object keys are looked up in the key pool, so documents parsed with the
+   * same pool share their key strings. Passing a null pool creates a new String for every key. If lazyStrings is
+   * set, string values are only copied out of the source when they are accessed (see BaseJsonLexer).
+   */
+  @Throws(JsonException::class)
+  @JvmStatic
+  @JvmOverloads
+  fun parse(json: JsonSource, keyPool: JsonKeyPool? = JsonKeyPool.shared(), lazyStrings: Boolean = false): JsonValue {
+    val lexer = JsonLexer(json, keyPool, lazyStrings)
     var token = nextTokenOrThrow(lexer)
-    val jsonValue = when (token) {
+    if (token == null) {
+      throw JsonException(
+        "Invalid Json document (${lexer.documentPointer()}) - found only whitespace characters")
+    }
+    val jsonValue = parseValue(token, lexer)
+
+    token = nextTokenOrThrow(lexer)
+    if (token != null) {
+      throw JsonException(
+        "Invalid Json document (${lexer.documentPointer()}) - found unexpected characters '${String(token.chars)}'")
+    }
+
+    return jsonValue
+  }
+
+  /**
+   * Parses the value that starts with the given token, consuming the rest of the value from the lexer
+   */
+  internal fun parseValue(token: JsonToken, lexer: JsonLexer): JsonValue {
+    return when (token) {
       is JsonToken.Integer -> JsonValue.Integer(token)
       is JsonToken.Decimal -> JsonValue.Decimal(token)
       is JsonToken.StringValue -> JsonValue.StringValue(token)
@@ -184,22 +350,9 @@ object JsonParser {
       is JsonToken.Null -> JsonValue.Null
       is JsonToken.ArrayStart -> parseArray(lexer)
       is JsonToken.ObjectStart -> parseObject(lexer)
-      else -> if (token != null) {
-        throw JsonException(
-          "Invalid Json document (${lexer.documentPointer()}) - found unexpected characters '${String(token.chars)}'")
-      } else {
-        throw JsonException(
-          "Invalid Json document (${lexer.documentPointer()}) - found only whitespace characters")
-      }
-    }
-
-    token = nextTokenOrThrow(lexer)
-    if (token != null) {
-      throw JsonException(
+      else -> throw JsonException(
         "Invalid Json document (${lexer.documentPointer()}) - found unexpected characters '${String(token.chars)}'")
     }
-
-    return jsonValue
   }
 
   private fun parseObject(lexer: JsonLexer): JsonValue.Object {
@@ -303,7 +456,7 @@ object JsonParser {
     return JsonValue.Array(array.toMutableList())
   }
 
-  private fun nextTokenOrThrow(lexer: JsonLexer): JsonToken? {
+  internal fun nextTokenOrThrow(lexer: JsonLexer): JsonToken? {
     var token: JsonToken?
     do {
       val next = lexer.nextToken()
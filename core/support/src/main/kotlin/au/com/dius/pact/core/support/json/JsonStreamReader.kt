@@ -0,0 +1,310 @@
+package au.com.dius.pact.core.support.json
+
+import java.io.File
+import java.io.InputStream
+import java.io.InputStreamReader
+import java.io.Reader
+import java.nio.channels.FileChannel
+import java.nio.file.StandardOpenOption
+import java.util.ArrayDeque
+
+/**
+ * Pull parser over a JSON document. Tokens are read one at a time from the source, so callers can navigate to the
+ * part of the document they need, skip over values they are not interested in and only build JsonValue trees for
+ * the values they read with readValue.
+ *
+ * For example, to process the interactions of a large pact one at a time:
+ *
+ * ```
+ * val reader = JsonStreamReader.fromFile(pactFile)
+ * reader.beginObject()
+ * while (reader.hasNext()) {
+ *   if (reader.nextObjectKey() == "interactions") {
+ *     reader.beginArray()
+ *     while (reader.hasNext()) {
+ *       process(reader.readValue())
+ *     }
+ *     reader.endArray()
+ *   } else {
+ *     reader.skipValue()
+ *   }
+ * }
+ * reader.endObject()
+ * ```
+ */
+@Suppress("TooManyFunctions")
+class JsonStreamReader @JvmOverloads constructor(
+  json: JsonSource,
+  private val keyPool: JsonKeyPool? = JsonKeyPool.shared()
+) {
+  private val lexer = JsonLexer(json, keyPool)
+  private val scopes = ArrayDeque<Scope>()
+  private var peekedToken: JsonToken? = null
+  private var hasPeekedToken = false
+  private var rootConsumed = false
+
+  private class Scope(val isObject: Boolean) {
+    var count = 0
+    var expectingValue = false
+  }
+
+  /**
+   * Returns the next token in the document, or null once the end of the document has been reached. Whitespace,
+   * commas and colons are consumed and not returned, and object keys are returned as string tokens.
+   */
+  @Throws(JsonException::class)
+  fun nextToken(): JsonToken? {
+    val scope = scopes.peekLast()
+    if (scope == null && rootConsumed) {
+      val token = rawToken()
+      if (token != null) {
+        throw unexpectedToken(token)
+      }
+      return null
+    }
+
+    if (scope != null && !scope.expectingValue) {
+      val end = if (scope.isObject) JsonToken.ObjectEnd else JsonToken.ArrayEnd
+      if (peekRawToken() == end) {
+        rawToken()
+        endScope()
+        return end
+      } else if (scope.isObject) {
+        return readKey(scope)
+      }
+    }
+
+    return valueToken(valueStartToken())
+  }
+
+  /**
+   * Returns the next key of the current object, or null if there are no more keys. The end of the object is not
+   * consumed, call endObject to do that.
+   */
+  @Throws(JsonException::class)
+  fun nextObjectKey(): String? {
+    val scope = scopes.peekLast()
+    if (scope == null || !scope.isObject || scope.expectingValue) {
+      throw JsonException("Invalid Json document (${documentPointer()}) - not positioned at an object key")
+    }
+
+    return if (peekRawToken() == JsonToken.ObjectEnd) {
+      null
+    } else {
+      val chars = readKey(scope).chars
+      keyPool?.intern(chars, chars.size) ?: String(chars)
+    }
+  }
+
+  /**
+   * If the current array or object has more values (or keys). At the top level, returns true if the document value
+   * has not been read yet.
+   */
+  @Throws(JsonException::class)
+  fun hasNext(): Boolean {
+    val scope = scopes.peekLast()
+    return when {
+      scope == null -> !rootConsumed && peekRawToken() != null
+      scope.expectingValue -> true
+      scope.isObject -> peekRawToken() != JsonToken.ObjectEnd
+      else -> peekRawToken() != JsonToken.ArrayEnd
+    }
+  }
+
+  /**
+   * Consumes the start of an object value
+   */
+  @Throws(JsonException::class)
+  fun beginObject() {
+    val token = valueToken(valueStartToken())
+    if (token != JsonToken.ObjectStart) {
+      throw JsonException("Invalid Json document (${documentPointer()}) - expected an object but found " +
+        "'${String(token.chars)}'")
+    }
+  }
+
+  /**
+   * Consumes the rest of the current object, skipping any keys and values that have not been read
+   */
+  @Throws(JsonException::class)
+  fun endObject() {
+    val scope = scopes.peekLast()
+    if (scope == null || !scope.isObject) {
+      throw JsonException("Invalid Json document (${documentPointer()}) - not positioned in an object")
+    }
+
+    if (scope.expectingValue) {
+      skipValue()
+    }
+    while (nextObjectKey() != null) {
+      skipValue()
+    }
+    rawToken()
+    endScope()
+  }
+
+  /**
+   * Consumes the start of an array value
+   */
+  @Throws(JsonException::class)
+  fun beginArray() {
+    val token = valueToken(valueStartToken())
+    if (token != JsonToken.ArrayStart) {
+      throw JsonException("Invalid Json document (${documentPointer()}) - expected an array but found " +
+        "'${String(token.chars)}'")
+    }
+  }
+
+  /**
+   * Consumes the rest of the current array, skipping any values that have not been read
+   */
+  @Throws(JsonException::class)
+  fun endArray() {
+    val scope = scopes.peekLast()
+    if (scope == null || scope.isObject) {
+      throw JsonException("Invalid Json document (${documentPointer()}) - not positioned in an array")
+    }
+
+    while (hasNext()) {
+      skipValue()
+    }
+    rawToken()
+    endScope()
+  }
+
+  /**
+   * Skips over the next value, including all of its children if it is an array or object, without building it
+   */
+  @Throws(JsonException::class)
+  fun skipValue() {
+    val token = valueToken(valueStartToken())
+    if (token == JsonToken.ObjectStart || token == JsonToken.ArrayStart) {
+      val depth = scopes.size
+      while (scopes.size >= depth) {
+        nextToken()
+      }
+    }
+  }
+
+  /**
+   * Reads the next value, building the JsonValue tree for it (and only it)
+   */
+  @Throws(JsonException::class)
+  fun readValue(): JsonValue {
+    val value = JsonParser.parseValue(valueStartToken(), lexer)
+    valueCompleted()
+    return value
+  }
+
+  fun documentPointer() = lexer.documentPointer()
+
+  private fun readKey(scope: Scope): JsonToken {
+    if (scope.count > 0) {
+      expectToken(JsonToken.Comma)
+    }
+    val key = rawToken()
+    if (key !is JsonToken.StringValue) {
+      throw if (key == null) endOfDocument() else JsonException("Invalid Json document (${documentPointer()}) - " +
+        "expected a string but found unexpected characters '${String(key.chars)}'")
+    }
+    expectToken(JsonToken.Colon)
+    scope.expectingValue = true
+    return key
+  }
+
+  private fun valueStartToken(): JsonToken {
+    val scope = scopes.peekLast()
+    if (scope == null && rootConsumed) {
+      throw JsonException("Invalid Json document (${documentPointer()}) - the document value has already been read")
+    } else if (scope != null && scope.isObject && !scope.expectingValue) {
+      throw JsonException("Invalid Json document (${documentPointer()}) - expected an object key")
+    } else if (scope != null && !scope.isObject && scope.count > 0) {
+      expectToken(JsonToken.Comma)
+    }
+    return rawToken() ?: throw endOfDocument()
+  }
+
+  private fun valueToken(token: JsonToken): JsonToken {
+    when (token) {
+      is JsonToken.ObjectStart -> scopes.addLast(Scope(true))
+      is JsonToken.ArrayStart -> scopes.addLast(Scope(false))
+      is JsonToken.Integer, is JsonToken.Decimal, is JsonToken.StringValue, is JsonToken.True, is JsonToken.False,
+      is JsonToken.Null -> valueCompleted()
+      else -> throw unexpectedToken(token)
+    }
+    return token
+  }
+
+  private fun valueCompleted() {
+    val scope = scopes.peekLast()
+    if (scope == null) {
+      rootConsumed = true
+    } else {
+      scope.count++
+      scope.expectingValue = false
+    }
+  }
+
+  private fun endScope() {
+    scopes.removeLast()
+    valueCompleted()
+  }
+
+  private fun expectToken(expected: JsonToken) {
+    val token = rawToken() ?: throw endOfDocument()
+    if (token != expected) {
+      throw JsonException("Invalid Json document (${documentPointer()}) - expected '${String(expected.chars)}' " +
+        "but found '${String(token.chars)}'")
+    }
+  }
+
+  private fun peekRawToken(): JsonToken? {
+    if (!hasPeekedToken) {
+      peekedToken = JsonParser.nextTokenOrThrow(lexer)
+      hasPeekedToken = true
+    }
+    return peekedToken
+  }
+
+  private fun rawToken(): JsonToken? {
+    return if (hasPeekedToken) {
+      hasPeekedToken = false
+      peekedToken
+    } else {
+      JsonParser.nextTokenOrThrow(lexer)
+    }
+  }
+
+  private fun unexpectedToken(token: JsonToken) = JsonException(
+    "Invalid Json document (${documentPointer()}) - found unexpected characters '${String(token.chars)}'")
+
+  private fun endOfDocument() = JsonException(
+    "Invalid Json document (${documentPointer()}) - found unexpected end of document")
+
+  companion object {
+    @JvmStatic
+    fun fromString(json: String) = JsonStreamReader(StringSource(json.toCharArray()))
+
+    @JvmStatic
+    fun fromBytes(json: ByteArray) = JsonStreamReader(Utf8Source(json))
+
+    /**
+     * Creates a reader over a UTF-8 encoded stream. The stream is read as tokens are requested.
+     */
+    @JvmStatic
+    fun fromStream(json: InputStream) = JsonStreamReader(ReaderSource(InputStreamReader(json, Charsets.UTF_8)))
+
+    @JvmStatic
+    fun fromReader(reader: Reader) = JsonStreamReader(ReaderSource(reader))
+
+    /**
+     * Creates a reader over a UTF-8 encoded file, which is memory mapped so it is not loaded onto the heap
+     */
+    @JvmStatic
+    fun fromFile(file: File): JsonStreamReader {
+      return FileChannel.open(file.toPath(), StandardOpenOption.READ).use {
+        JsonStreamReader(MappedFileSource(it))
+      }
+    }
+  }
+}
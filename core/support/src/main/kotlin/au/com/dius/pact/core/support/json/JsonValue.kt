@@ -1,20 +1,203 @@
 package au.com.dius.pact.core.support.json
 
 import au.com.dius.pact.core.support.Json
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.util.SortedMap
 
 sealed class JsonValue {
+  /**
+   * Integer value. The characters are parsed on first use into a long, falling back to a BigInteger if the value
+   * does not fit.
+   */
   class Integer(val value: JsonToken.Integer) : JsonValue() {
     constructor(value: CharArray) : this(JsonToken.Integer(value))
     constructor(value: Int) : this(JsonToken.Integer(value.toString().toCharArray()))
-    fun toBigInteger() = String(this.value.chars).toBigInteger()
+
+    @Volatile
+    private var parsed = false
+    private var longValue = 0L
+    private var bigValue: BigInteger? = null
+
+    fun toBigInteger(): BigInteger {
+      parse()
+      return bigValue ?: BigInteger.valueOf(longValue)
+    }
+
+    /**
+     * If the value fits in a long
+     */
+    fun isLong(): Boolean {
+      parse()
+      return bigValue == null
+    }
+
+    fun toLong(): Long {
+      parse()
+      return bigValue?.toLong() ?: longValue
+    }
+
+    internal fun valueEquals(other: Integer): Boolean {
+      parse()
+      other.parse()
+      val big = bigValue
+      val otherBig = other.bigValue
+      return if (big == null && otherBig == null) longValue == other.longValue else big == otherBig
+    }
+
+    internal fun valueHashCode(): Int {
+      parse()
+      return bigValue?.hashCode() ?: longValue.hashCode()
+    }
+
+    private fun parse() {
+      if (!parsed) {
+        val chars = value.chars
+        val start = if (chars.isNotEmpty() && chars[0] == '-') 1 else 0
+        val digits = chars.size - start
+        if (digits in 1..MAX_LONG_DIGITS && allDigits(chars, start, chars.size)) {
+          var result = 0L
+          for (i in start until chars.size) {
+            result = result * 10 + (chars[i] - '0')
+          }
+          longValue = if (start == 1) -result else result
+        } else {
+          val big = String(chars).toBigInteger()
+          if (big.bitLength() < Long.SIZE_BITS) {
+            longValue = big.toLong()
+          } else {
+            bigValue = big
+          }
+        }
+        parsed = true
+      }
+    }
 
     override fun copy() = Integer(value.chars)
   }
 
+  /**
+   * Decimal value. The characters are parsed on first use into an unscaled long and a scale, falling back to a
+   * BigDecimal if the digits do not fit in a long. Values are equal if they are numerically equal (1.0 == 1.00).
+   */
   class Decimal(val value: JsonToken.Decimal) : JsonValue() {
     constructor(value: CharArray) : this(JsonToken.Decimal(value))
     constructor(value: Number) : this(JsonToken.Decimal(value.toString().toCharArray()))
-    fun toBigDecimal() = String(this.value.chars).toBigDecimal()
+
+    @Volatile
+    private var parsed = false
+    private var unscaled = 0L
+    private var scale = 0
+    private var bigValue: BigDecimal? = null
+
+    fun toBigDecimal(): BigDecimal {
+      parse()
+      return bigValue ?: BigDecimal.valueOf(unscaled, scale)
+    }
+
+    /**
+     * Scale of the value, as returned by BigDecimal.scale()
+     */
+    fun scale(): Int {
+      parse()
+      return bigValue?.scale() ?: scale
+    }
+
+    fun signum(): Int {
+      parse()
+      return bigValue?.signum() ?: java.lang.Long.signum(unscaled)
+    }
+
+    fun toDouble(): Double {
+      parse()
+      return if (bigValue == null && scale in 0..MAX_EXACT_POWER_OF_TEN &&
+        unscaled in -MAX_EXACT_DOUBLE..MAX_EXACT_DOUBLE) {
+        unscaled.toDouble() / POWERS_OF_TEN[scale]
+      } else {
+        toBigDecimal().toDouble()
+      }
+    }
+
+    internal fun valueEquals(other: Decimal): Boolean {
+      parse()
+      other.parse()
+      return if (bigValue == null && other.bigValue == null) {
+        if (scale == other.scale) {
+          unscaled == other.unscaled
+        } else {
+          strippedUnscaled(unscaled) == strippedUnscaled(other.unscaled) &&
+            strippedScale(unscaled, scale) == strippedScale(other.unscaled, other.scale)
+        }
+      } else {
+        toBigDecimal().compareTo(other.toBigDecimal()) == 0
+      }
+    }
+
+    internal fun valueHashCode(): Int {
+      parse()
+      val big = bigValue
+      return if (big == null) {
+        compactHashCode(unscaled, scale)
+      } else {
+        val stripped = big.stripTrailingZeros()
+        if (stripped.unscaledValue().bitLength() < Long.SIZE_BITS) {
+          compactHashCode(stripped.unscaledValue().toLong(), stripped.scale())
+        } else {
+          stripped.hashCode()
+        }
+      }
+    }
+
+    @Suppress("ComplexMethod", "ReturnCount")
+    private fun parseCompact(): Boolean {
+      val chars = value.chars
+      var i = if (chars.isNotEmpty() && chars[0] == '-') 1 else 0
+      val negative = i == 1
+      var result = 0L
+      var digits = 0
+      var fractionDigits = 0
+      var seenPoint = false
+      while (i < chars.size && chars[i] != 'e' && chars[i] != 'E') {
+        val ch = chars[i]
+        if (ch == '.' && !seenPoint) {
+          seenPoint = true
+        } else if (ch in '0'..'9') {
+          if (++digits > MAX_LONG_DIGITS) return false
+          result = result * 10 + (ch - '0')
+          if (seenPoint) fractionDigits++
+        } else {
+          return false
+        }
+        i++
+      }
+      if (digits == 0) return false
+
+      var exponent = 0
+      if (i < chars.size) {
+        i++
+        val negativeExponent = i < chars.size && chars[i] == '-'
+        if (i < chars.size && (chars[i] == '-' || chars[i] == '+')) i++
+        val start = i
+        if (chars.size - start !in 1..MAX_EXPONENT_DIGITS || !allDigits(chars, start, chars.size)) return false
+        while (i < chars.size) {
+          exponent = exponent * 10 + (chars[i++] - '0')
+        }
+        if (negativeExponent) exponent = -exponent
+      }
+
+      unscaled = if (negative) -result else result
+      scale = fractionDigits - exponent
+      return true
+    }
+
+    private fun parse() {
+      if (!parsed) {
+        if (!parseCompact()) {
+          bigValue = String(value.chars).toBigDecimal()
+        }
+        parsed = true
+      }
+    }
 
     override fun copy() = Decimal(value.chars)
   }
@@ -152,10 +335,7 @@ sealed class JsonValue {
       is StringValue -> this.value.toString()
       is True -> "true"
       is False -> "false"
-      is Array -> "[${this.values.joinToString(",") { it.serialise() }}]"
-      is Object -> "{${this.entries.entries.sortedBy { it.key }.joinToString(",") { 
-        "\"${it.key}\":" + it.value.serialise() 
-      }}}"
+      is Array, is Object -> this.serialise()
     }
   }
 
@@ -183,17 +363,40 @@ sealed class JsonValue {
     else -> false
   }
 
-  fun serialise(): String {
-    return when (this) {
-      is Null -> "null"
-      is Decimal -> String(this.value.chars)
-      is Integer -> String(this.value.chars)
-      is StringValue -> "\"${Json.escape(this.asString()!!)}\""
-      is True -> "true"
-      is False -> "false"
-      is Array -> "[${this.values.joinToString(",") { it.serialise() }}]"
-      is Object -> "{${this.entries.entries.sortedBy { it.key }
-        .joinToString(",") { "\"${it.key}\":" + it.value.serialise() }}}"
+  fun serialise(): String = buildString { serialiseTo(this) }
+
+  /**
+   * Serialises this value as compact JSON, writing the tokens directly to the output instead of building a String
+   */
+  fun serialiseTo(out: Appendable) {
+    when (this) {
+      is Null -> out.append("null")
+      is Decimal -> appendChars(out, this.value.chars)
+      is Integer -> appendChars(out, this.value.chars)
+      is StringValue -> {
+        out.append('"')
+        Json.escapeTo(this.value.chars, out)
+        out.append('"')
+      }
+      is True -> out.append("true")
+      is False -> out.append("false")
+      is Array -> {
+        out.append('[')
+        this.values.forEachIndexed { index, value ->
+          if (index > 0) out.append(',')
+          value.serialiseTo(out)
+        }
+        out.append(']')
+      }
+      is Object -> {
+        out.append('{')
+        this.sortedEntries().forEachIndexed { index, entry ->
+          if (index > 0) out.append(',')
+          out.append('"').append(entry.key).append("\":")
+          entry.value.serialiseTo(out)
+        }
+        out.append('}')
+      }
     }
   }
 
@@ -212,14 +415,7 @@ sealed class JsonValue {
     else -> 1
   }
 
-  fun type(): String {
-    return when (this) {
-      is StringValue -> "String"
-      is True -> "Boolean"
-      is False -> "Boolean"
-      else -> this::class.java.simpleName
-    }
-  }
+  fun type() = name
 
   fun unwrap(): Any? {
     return when (this) {
@@ -238,8 +434,8 @@ sealed class JsonValue {
     if (other !is JsonValue) return false
     return when (this) {
       is Null -> other is Null
-      is Decimal -> other is Decimal && this.toBigDecimal().compareTo(other.toBigDecimal()) == 0
-      is Integer -> other is Integer && this.toBigInteger() == other.toBigInteger()
+      is Decimal -> other is Decimal && this.valueEquals(other)
+      is Integer -> other is Integer && this.valueEquals(other)
       is StringValue -> other is StringValue && this.asString() == other.asString()
       is True -> other is True
       is False -> other is False
@@ -250,8 +446,8 @@ sealed class JsonValue {
 
   override fun hashCode() = when (this) {
     is Null -> 0.hashCode()
-    is Decimal -> this.toBigDecimal().hashCode()
-    is Integer -> this.toBigInteger().hashCode()
+    is Decimal -> this.valueHashCode()
+    is Integer -> this.valueHashCode()
     is StringValue -> this.asString()!!.hashCode()
     is True -> true.hashCode()
     is False -> false.hashCode()
@@ -259,26 +455,46 @@ sealed class JsonValue {
     is Object -> this.entries.hashCode()
   }
 
-  fun prettyPrint(indent: Int = 0, skipIndent: Boolean = false): String {
-    val indentStr = "".padStart(indent)
-    val indentStr2 = "".padStart(indent + 2)
-    return if (skipIndent) {
-      when (this) {
-        is Array -> "[\n" + this.values.joinToString(",\n") {
-          it.prettyPrint(indent + 2) } + "\n$indentStr]"
-        is Object -> "{\n" + this.entries.entries.sortedBy { it.key }.joinToString(",\n") {
-          "$indentStr2\"${it.key}\": ${it.value.prettyPrint(indent + 2, true)}"
-          } + "\n$indentStr}"
-        else -> this.serialise()
+  fun prettyPrint(indent: Int = 0, skipIndent: Boolean = false): String = buildString {
+    prettyPrintTo(this, indent, skipIndent)
+  }
+
+  /**
+   * Pretty prints this value, writing the tokens directly to the output instead of building a String
+   */
+  fun prettyPrintTo(out: Appendable) {
+    prettyPrintTo(out, 0, false)
+  }
+
+  private fun prettyPrintTo(out: Appendable, indent: Int, skipIndent: Boolean) {
+    when (this) {
+      is Array -> {
+        if (!skipIndent) appendIndent(out, indent * 2)
+        out.append("[\n")
+        this.values.forEachIndexed { index, value ->
+          if (index > 0) out.append(",\n")
+          value.prettyPrintTo(out, indent + 2, false)
+        }
+        out.append('\n')
+        appendIndent(out, indent)
+        out.append(']')
       }
-    } else {
-      when (this) {
-        is Array -> "$indentStr$indentStr[\n" + this.values.joinToString(",\n") {
-          it.prettyPrint(indent + 2) } + "\n$indentStr]"
-        is Object -> "$indentStr{\n" + this.entries.entries.sortedBy { it.key }.joinToString(",\n") {
-          "$indentStr2\"${it.key}\": ${it.value.prettyPrint(indent + 2, true)}"
-          } + "\n$indentStr}"
-        else -> indentStr + this.serialise()
+      is Object -> {
+        if (!skipIndent) appendIndent(out, indent)
+        out.append("{\n")
+        this.sortedEntries().forEachIndexed { index, entry ->
+          if (index > 0) out.append(",\n")
+          appendIndent(out, indent + 2)
+          out.append('"').append(entry.key).append("\": ")
+          entry.value.prettyPrintTo(out, indent + 2, true)
+        }
+        out.append('\n')
+        appendIndent(out, indent)
+        out.append('}')
+      }
+      else -> {
+        if (!skipIndent) appendIndent(out, indent)
+        this.serialiseTo(out)
       }
     }
   }
@@ -375,6 +591,58 @@ sealed class JsonValue {
   }
 }
 
+private const val MAX_LONG_DIGITS = 18
+private const val MAX_EXPONENT_DIGITS = 9
+private const val MAX_EXACT_POWER_OF_TEN = 22
+private const val MAX_EXACT_DOUBLE = 1L shl 53
+private val POWERS_OF_TEN = DoubleArray(MAX_EXACT_POWER_OF_TEN + 1) { "1e$it".toDouble() }
+
+private fun allDigits(chars: CharArray, from: Int, to: Int): Boolean {
+  for (i in from until to) {
+    if (chars[i] !in '0'..'9') return false
+  }
+  return true
+}
+
+private fun strippedUnscaled(unscaled: Long): Long {
+  var u = unscaled
+  while (u != 0L && u % 10 == 0L) {
+    u /= 10
+  }
+  return u
+}
+
+private fun strippedScale(unscaled: Long, scale: Int): Int {
+  if (unscaled == 0L) return 0
+  var u = unscaled
+  var s = scale
+  while (u % 10 == 0L) {
+    u /= 10
+    s--
+  }
+  return s
+}
+
+private fun compactHashCode(unscaled: Long, scale: Int) =
+  31 * strippedUnscaled(unscaled).hashCode() + strippedScale(unscaled, scale)
+
+private fun JsonValue.Object.sortedEntries(): Collection<Map.Entry<String, JsonValue>> {
+  val map = this.entries
+  return if (map is SortedMap && map.comparator() == null) map.entries else map.entries.sortedBy { it.key }
+}
+
+private fun appendChars(out: Appendable, chars: CharArray) {
+  for (ch in chars) {
+    out.append(ch)
+  }
+}
+
+private fun appendIndent(out: Appendable, indent: Int) {
+  for (i in 0 until indent) {
+    out.append(' ')
+  }
+}
+
 fun <R> JsonValue?.map(transform: (JsonValue) -> R): List<R> = when {
   this == null -> emptyList()
   this is JsonValue.Array -> this.values.map(transform)
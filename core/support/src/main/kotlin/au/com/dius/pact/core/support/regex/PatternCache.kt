@@ -0,0 +1,79 @@
+package au.com.dius.pact.core.support.regex
+
+import au.com.dius.pact.core.support.BoundedCache
+import java.util.concurrent.atomic.AtomicLong
+import java.util.regex.Pattern
+
+/**
+ * Process wide cache of compiled regular expressions, so the regexes from matching rules and other pact data are
+ * only compiled once instead of every time a value is checked. Lookups are lock free. The cache is bounded, with the
+ * least recently used patterns removed when it is full (see [BoundedCache]). The size defaults to 1024 patterns and
+ * can be set with the pact.regex.cacheSize system property (0 disables the cache).
+ */
+object PatternCache {
+  const val DEFAULT_SIZE = 1024
+
+  /**
+   * Cache statistics. Hits and misses count the lookups, evictions the patterns removed to keep the cache in bounds.
+   */
+  data class Stats(val hits: Long, val misses: Long, val evictions: Long, val size: Int) {
+    val hitRate: Double
+      get() = if (hits + misses == 0L) 0.0 else hits.toDouble() / (hits + misses)
+  }
+
+  private data class Key(val regex: String, val flags: Int)
+
+  private val maxSize = System.getProperty("pact.regex.cacheSize")?.trim()?.toIntOrNull() ?: DEFAULT_SIZE
+  private val hits = AtomicLong()
+  private val misses = AtomicLong()
+  private val cache = BoundedCache<Key, Pattern>(maxSize)
+
+  /**
+   * Returns the compiled pattern for the regex and flags (as passed to Pattern.compile).
+   * Throws a PatternSyntaxException if the regex is invalid.
+   */
+  @JvmStatic
+  @JvmOverloads
+  fun pattern(regex: String, flags: Int = 0): Pattern {
+    if (maxSize <= 0) {
+      misses.incrementAndGet()
+      return Pattern.compile(regex, flags)
+    }
+
+    val key = Key(regex, flags)
+    val cached = cache[key]
+    return if (cached != null) {
+      hits.incrementAndGet()
+      cached
+    } else {
+      misses.incrementAndGet()
+      // If another thread compiles the same pattern at the same time, one of them is kept
+      cache.putIfAbsent(key, Pattern.compile(regex, flags))
+    }
+  }
+
+  /**
+   * Returns the cached pattern for the regex as a Kotlin Regex
+   */
+  @JvmStatic
+  fun regex(regex: String): Regex = pattern(regex).toRegex()
+
+  /**
+   * If the whole value matches the regex
+   */
+  @JvmStatic
+  fun matches(regex: String, value: CharSequence) = pattern(regex).matcher(value).matches()
+
+  @JvmStatic
+  fun stats() = Stats(hits.get(), misses.get(), cache.evictions(), cache.size())
+
+  /**
+   * Removes all the cached patterns and resets the statistics
+   */
+  @JvmStatic
+  fun clear() {
+    cache.clear()
+    hits.set(0)
+    misses.set(0)
+  }
+}
@@ -22,11 +22,15 @@ sealed class RegexNode {
     val negated: Boolean = false
   ) : RegexNode() {
 
+    private val charSet: List<Char> by lazy(LazyThreadSafetyMode.PUBLICATION) { buildCharSet() }
+
     /**
      * Returns all characters in this class within printable ASCII (code points 32–126).
-     * For negated classes the complement within that range is returned.
+     * For negated classes the complement within that range is returned. The set is only built once per node.
      */
-    fun toCharSet(): List<Char> {
+    fun toCharSet(): List<Char> = charSet
+
+    private fun buildCharSet(): List<Char> {
       val included = mutableListOf<Char>()
       for ((from, to) in ranges) {
         for (c in from..to) included.add(c)
@@ -413,4 +413,24 @@ class RegexParser(private val pattern: String) {
     }
     return n
   }
+
+  companion object {
+    /** Maximum number of parsed patterns kept by [parseCached]. */
+    const val CACHE_SIZE = 256
+
+    private val cache = object : LinkedHashMap<String, RegexNode>(16, 0.75f, true) {
+      override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, RegexNode>) = size > CACHE_SIZE
+    }
+
+    /**
+     * Parses the pattern, returning the same expression tree for a pattern that has been recently parsed.
+     * The trees are immutable, so can be shared between threads.
+     */
+    @JvmStatic
+    fun parseCached(pattern: String): RegexNode {
+      return synchronized(cache) { cache[pattern] } ?: RegexParser(pattern).parse().let { node ->
+        synchronized(cache) { cache.putIfAbsent(pattern, node) ?: node }
+      }
+    }
+  }
 }
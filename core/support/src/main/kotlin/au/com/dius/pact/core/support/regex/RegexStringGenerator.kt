@@ -23,6 +23,18 @@ class RegexStringGenerator @JvmOverloads constructor(
    */
   fun generate(node: RegexNode): String = buildString { appendNode(node) }
 
+  /**
+   * Generates [count] random strings matching the given [node], reusing the same buffer for each one.
+   */
+  fun generate(node: RegexNode, count: Int): List<String> {
+    val builder = StringBuilder()
+    return List(count) {
+      builder.setLength(0)
+      builder.appendNode(node)
+      builder.toString()
+    }
+  }
+
   private fun StringBuilder.appendNode(node: RegexNode) {
     when (node) {
       is RegexNode.Literal -> append(node.char)
@@ -0,0 +1,32 @@
+package au.com.dius.pact.core.support.time
+
+import au.com.dius.pact.core.support.BoundedCache
+import java.time.format.DateTimeFormatter
+
+/**
+ * Process wide cache of the formatters built from date and time patterns, so the patterns from matching rules and
+ * generators are only compiled once instead of every time a value is checked or generated. The formatters are
+ * immutable and thread safe, and the least recently used formatters are removed when the cache is full.
+ */
+object DateTimeFormatterCache {
+  const val CACHE_SIZE = 256
+
+  private val cache = BoundedCache<String, DateTimeFormatter>(CACHE_SIZE)
+
+  /**
+   * Returns the formatter for the pattern (as passed to DateTimeFormatter.ofPattern).
+   * Throws an IllegalArgumentException if the pattern is invalid.
+   */
+  @JvmStatic
+  fun formatter(pattern: String): DateTimeFormatter {
+    return cache.getOrPut(pattern) { DateTimeFormatter.ofPattern(pattern) }
+  }
+
+  @JvmStatic
+  fun size() = cache.size()
+
+  @JvmStatic
+  fun clear() {
+    cache.clear()
+  }
+}
@@ -0,0 +1,51 @@
+package au.com.dius.pact.core.support
+
+import spock.lang.Specification
+
+class BoundedCacheSpec extends Specification {
+
+  def 'keeps the first value added for a key'() {
+    given:
+    def cache = new BoundedCache<String, String>(10)
+
+    expect:
+    cache.get('a') == null
+    cache.putIfAbsent('a', '1') == '1'
+    cache.putIfAbsent('a', '2') == '1'
+    cache.getOrPut('a') { '3' } == '1'
+    cache.getOrPut('b') { '4' } == '4'
+    cache.size() == 2
+  }
+
+  def 'removes the least recently used entries when it is full'() {
+    given:
+    def cache = new BoundedCache<Integer, String>(20)
+    (1..20).each { cache.putIfAbsent(it, it.toString()) }
+    cache.get(1)
+    cache.get(2)
+
+    when:
+    cache.putIfAbsent(21, '21')
+
+    then:
+    cache.size() == 18
+    cache.evictions() == 3
+    cache.get(1) == '1'
+    cache.get(2) == '2'
+    cache.get(3) == null
+    cache.get(4) == null
+    cache.get(5) == null
+    cache.get(6) == '6'
+    cache.get(21) == '21'
+  }
+
+  def 'a maximum size of zero disables the cache'() {
+    given:
+    def cache = new BoundedCache<String, String>(0)
+
+    expect:
+    cache.putIfAbsent('a', '1') == '1'
+    cache.get('a') == null
+    cache.size() == 0
+  }
+}
@@ -101,4 +101,38 @@ class JsonSpec extends Specification {
     'list'          | '["hello", 1, true, {"a": "A"}]'        | '["hello",1,true,{"a":"A"}]'
     'object'        | '{"hello": "world", "list": [1, 2, 3]}' | '{"hello":"world","list":[1,2,3]}'
   }
+
+  @Unroll
+  def 'escape - #desc'() {
+    given:
+    def builder = new StringBuilder()
+    def writer = new StringWriter()
+    Json.INSTANCE.escapeTo(value.chars, builder)
+    Json.INSTANCE.escapeTo(value, writer)
+
+    expect:
+    Json.INSTANCE.escape(value) == escaped
+    builder.toString() == escaped
+    writer.toString() == escaped
+
+    where:
+
+    desc                   | value                   | escaped
+    'empty'                | ''                      | ''
+    'nothing to escape'    | 'hello world ~\u007F'   | 'hello world ~\u007F'
+    'quotes'               | 'a "quoted" value'      | 'a \\"quoted\\" value'
+    'backslash'            | 'a\\b'                  | 'a\\\\b'
+    'control characters'   | 'a\tb\nc\rd\be\ff'      | 'a\\tb\\nc\\rd\\be\\ff'
+    'other control chars'  | '\u0000\u001F'          | '\\u0000\\u001F'
+    'non-ASCII characters' | 'F\u00f6\u00f6d \u20AC' | 'F\\u00F6\\u00F6d \\u20AC'
+    'surrogate pairs'      | '\uD83D\uDE00!'         | '\\uD83D\\uDE00!'
+  }
+
+  def 'escape returns the same string if nothing needs to be escaped'() {
+    given:
+    def value = 'nothing to escape here'
+
+    expect:
+    Json.INSTANCE.escape(value).is(value)
+  }
 }
@@ -0,0 +1,92 @@
+package au.com.dius.pact.core.support
+
+import spock.lang.Specification
+import spock.util.environment.RestoreSystemProperties
+
+@RestoreSystemProperties
+class PactRuntimeConfigSpec extends Specification {
+
+  def cleanup() {
+    System.clearProperty('pact.matching.engine')
+    System.clearProperty('pact.matching.v2.logRawPlan')
+    System.clearProperty('pact.content_type.override.application/x-thrift')
+    System.clearProperty('pact.writer.overwrite')
+    System.clearProperty('pact.verifier.enableRedirectHandling')
+    System.clearProperty('pact.matching.parallel.threshold')
+    System.clearProperty('pact.matching.parallel.poolSize')
+    System.clearProperty('pact.matching.diff.maxLines')
+    System.clearProperty('pact.matching.diff.maxBodySize')
+    PactRuntimeConfig.refresh()
+  }
+
+  def 'reads the configuration from the system properties'() {
+    given:
+    System.setProperty('pact.matching.engine', 'V2')
+    System.setProperty('pact.matching.v2.logRawPlan', '1')
+    System.setProperty('pact.content_type.override.application/x-thrift', 'json')
+    System.setProperty('pact.writer.overwrite', 'true')
+    System.setProperty('pact.verifier.enableRedirectHandling', 'true')
+    System.setProperty('pact.matching.parallel.threshold', '1000')
+    System.setProperty('pact.matching.parallel.poolSize', 'lots')
+    System.setProperty('pact.matching.diff.maxLines', '0')
+    System.setProperty('pact.matching.diff.maxBodySize', '512kb')
+
+    when:
+    def config = PactRuntimeConfig.fromEnvironment()
+
+    then:
+    config.v2MatchingEngine
+    config.logRawPlan
+    !config.logExecutedPlan
+    config.contentTypeOverride('application/x-thrift') == 'json'
+    config.contentTypeOverride('application/json') == null
+    config.overwritePactFiles
+    config.enableRedirectHandling
+    config.parallelMatchingThreshold == 1000
+    config.parallelMatchingPoolSize == 0
+    config.maxDiffLines == 0
+    config.maxDiffBodySize == 512 * 1024
+  }
+
+  def 'the diff limits have defaults'() {
+    given:
+    System.setProperty('pact.matching.diff.maxBodySize', 'big')
+
+    when:
+    def config = PactRuntimeConfig.fromEnvironment()
+
+    then:
+    config.maxDiffLines == PactRuntimeConfig.DEFAULT_MAX_DIFF_LINES
+    config.maxDiffBodySize == PactRuntimeConfig.DEFAULT_MAX_DIFF_BODY_SIZE
+  }
+
+  def 'copies of the configuration can be made with the parallel matching and diff limits changed'() {
+    given:
+    def config = new PactRuntimeConfig(true)
+
+    expect:
+    config.withParallelMatching(100, 4) == new PactRuntimeConfig(true, false, false, false, false, false, false, 100, 4)
+    config.withDiffLimits(10, 1024).v2MatchingEngine
+    config.withDiffLimits(10, 1024).maxDiffLines == 10
+    config.withDiffLimits(10, 1024).maxDiffBodySize == 1024
+  }
+
+  def 'the current configuration is only updated when it is refreshed'() {
+    given:
+    def config = PactRuntimeConfig.refresh()
+    System.setProperty('pact.writer.overwrite', 'true')
+    System.setProperty('pact.content_type.override.application/x-thrift', 'json')
+
+    expect:
+    PactRuntimeConfig.current().is(config)
+    !PactRuntimeConfig.current().overwritePactFiles
+    PactRuntimeConfig.current().contentTypeOverride('application/x-thrift') == null
+
+    when:
+    PactRuntimeConfig.refresh()
+
+    then:
+    PactRuntimeConfig.current().overwritePactFiles
+    PactRuntimeConfig.current().contentTypeOverride('application/x-thrift') == 'json'
+  }
+}
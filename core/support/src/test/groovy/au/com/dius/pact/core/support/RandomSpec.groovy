@@ -2,6 +2,7 @@ package au.com.dius.pact.core.support
 
 import spock.lang.Issue
 import spock.lang.Specification
+import spock.util.environment.RestoreSystemProperties
 
 class RandomSpec extends Specification {
   def 'generates a random value from the regular expression'() {
@@ -19,4 +20,81 @@ class RandomSpec extends Specification {
     expect:
     Random.generateRandomString('\\^\\w+\\$') ==~ /\^\w+\$/
   }
+
+  def 'generates a number of random values from the regular expression'() {
+    when:
+    def values = Random.generateRandomStrings('^\\d{3}-\\w+$', 20)
+
+    then:
+    values.size() == 20
+    values.every { it ==~ /\d{3}-\w+/ }
+  }
+
+  def 'values are repeatable with a seeded source'() {
+    given:
+    def generate = {
+      Random.source = new SeededRandomSource(1234)
+      [Random.generateRandomString('[a-z]{10}'), Random.randomAlphanumeric(10), Random.nextInt(0, 1000),
+       Random.randomUUID()]
+    }
+
+    when:
+    def first = generate()
+    def second = generate()
+
+    then:
+    first == second
+
+    cleanup:
+    Random.resetSource()
+  }
+
+  def 'a source can be used for the current thread only'() {
+    given:
+    def source = Random.source
+    def generate = { Random.withSource(new SeededRandomSource(1234)) { Random.randomAlphanumeric(20) } }
+
+    expect:
+    generate() == generate()
+    Random.source.is(source)
+  }
+
+  @RestoreSystemProperties
+  def 'the seed can be set with the pact.generators.seed system property'() {
+    given:
+    System.setProperty('pact.generators.seed', seed)
+
+    when:
+    Random.resetSource()
+
+    then:
+    Random.source.class == sourceClass
+
+    cleanup:
+    System.clearProperty('pact.generators.seed')
+    Random.resetSource()
+
+    where:
+    seed   | sourceClass
+    '100'  | SeededRandomSource
+    'abc'  | ThreadLocalRandomSource
+    ''     | ThreadLocalRandomSource
+  }
+
+  def 'generates version 4 UUIDs'() {
+    when:
+    def uuid = Random.randomUUID()
+
+    then:
+    uuid.version() == 4
+    uuid.variant() == 2
+  }
+
+  def 'generates random strings from the given characters'() {
+    expect:
+    Random.randomString(20, 'abc') ==~ /[abc]{20}/
+    Random.randomAlphanumeric(20) ==~ /[a-zA-Z0-9]{20}/
+    Random.randomNumeric(5) ==~ /\d{5}/
+    Random.nextInt(5, 5) == 5
+  }
 }
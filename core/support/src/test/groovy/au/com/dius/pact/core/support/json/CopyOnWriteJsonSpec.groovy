@@ -0,0 +1,92 @@
+package au.com.dius.pact.core.support.json
+
+import spock.lang.Specification
+
+class CopyOnWriteJsonSpec extends Specification {
+
+  static final String JSON = '{"a": {"b": [1, {"c": "d"}, 3], "e": {"f": true}}, "g": [{"h": null}]}'
+
+  def 'setting a value does not modify the original document'() {
+    given:
+    def original = JsonParser.parseString(JSON)
+    def document = new CopyOnWriteJson(original)
+
+    when:
+    def result = document.set(['a', 'b', '1', 'c'], new JsonValue.StringValue('X'))
+
+    then:
+    result
+    original == JsonParser.parseString(JSON)
+    document.root == JsonParser.parseString('{"a": {"b": [1, {"c": "X"}, 3], "e": {"f": true}}, "g": [{"h": null}]}')
+  }
+
+  def 'only the containers on the changed path are copied'() {
+    given:
+    def original = JsonParser.parseString(JSON)
+    def document = new CopyOnWriteJson(original)
+
+    when:
+    document.set(['a', 'b', '1', 'c'], new JsonValue.StringValue('X'))
+    def root = document.root
+
+    then:
+    !root.is(original)
+    !root['a'].is(original['a'])
+    !root['a']['b'].is(original['a']['b'])
+    root['a']['b'].get(0).is(original['a']['b'].get(0))
+    root['a']['e'].is(original['a']['e'])
+    root['g'].is(original['g'])
+  }
+
+  def 'containers are only copied the first time they are changed'() {
+    given:
+    def document = new CopyOnWriteJson(JsonParser.parseString(JSON))
+
+    when:
+    document.set(['a', 'b', '0'], new JsonValue.Integer(10))
+    def first = document.root['a']['b']
+    document.set(['a', 'b', '2'], new JsonValue.Integer(30))
+
+    then:
+    document.root['a']['b'].is(first)
+    document.root['a']['b'] == JsonParser.parseString('[10, {"c": "d"}, 30]')
+  }
+
+  def 'setting a value at a path that does not exist'() {
+    given:
+    def original = JsonParser.parseString(JSON)
+    def document = new CopyOnWriteJson(original)
+
+    expect:
+    !document.set(path, JsonValue.Null.INSTANCE)
+    document.root.is(original)
+
+    where:
+
+    path << [['x', 'y'], ['a', 'b', '3'], ['a', 'b', 'x'], ['a', 'e', 'f', 'g']]
+  }
+
+  def 'setting the root value'() {
+    given:
+    def original = JsonParser.parseString(JSON)
+    def document = new CopyOnWriteJson(original)
+
+    when:
+    document.set([], new JsonValue.StringValue('X'))
+
+    then:
+    document.root == new JsonValue.StringValue('X')
+    original == JsonParser.parseString(JSON)
+  }
+
+  def 'get returns the current value'() {
+    given:
+    def document = new CopyOnWriteJson(JsonParser.parseString(JSON))
+    document.set(['g', '0', 'h'], new JsonValue.Integer(1))
+
+    expect:
+    document.get(['g', '0', 'h']) == new JsonValue.Integer(1)
+    document.get(['a', 'e', 'f']) == JsonValue.True.INSTANCE
+    document.get(['a', 'x']) == null
+  }
+}
@@ -0,0 +1,71 @@
+package au.com.dius.pact.core.support.json
+
+import spock.lang.Specification
+
+class JsonKeyPoolSpec extends Specification {
+
+  def 'returns the same instance for the same key'() {
+    given:
+    def pool = new JsonKeyPool(16)
+    def buffer = 'requestxyz'.chars
+
+    when:
+    def key1 = pool.intern(buffer, 7)
+    def key2 = pool.intern('request'.chars, 7)
+
+    then:
+    key1 == 'request'
+    key1.is(key2)
+  }
+
+  def 'keys with different lengths or characters are not confused'() {
+    given:
+    def pool = new JsonKeyPool(1)
+
+    expect:
+    pool.intern('headers'.chars, 7) == 'headers'
+    pool.intern('headers'.chars, 4) == 'head'
+    pool.intern('body'.chars, 4) == 'body'
+    pool.intern('headers'.chars, 7) == 'headers'
+  }
+
+  def 'the pool size is rounded up to a power of two'() {
+    expect:
+    new JsonKeyPool(size).size() == expected
+
+    where:
+
+    size | expected
+    1    | 1
+    3    | 4
+    4    | 4
+    1000 | 1024
+  }
+
+  def 'long keys are not pooled'() {
+    given:
+    def pool = new JsonKeyPool(16)
+    def key = 'a' * (JsonKeyPool.MAX_KEY_LENGTH + 1)
+
+    expect:
+    !pool.intern(key.chars, key.length()).is(pool.intern(key.chars, key.length()))
+  }
+
+  def 'documents parsed with the same pool share their keys'() {
+    given:
+    def pool = new JsonKeyPool(16)
+    def json = '{"request": {"method": "GET"}}'
+
+    when:
+    def doc1 = JsonParser.parse(new StringSource(json.chars), pool)
+    def doc2 = JsonParser.parse(new Utf8Source(json.getBytes('UTF-8')), pool)
+    def doc3 = JsonParser.parse(new StringSource(json.chars), null)
+
+    then:
+    doc1 == doc2
+    doc1 == doc3
+    doc1.entries.keySet().first().is(doc2.entries.keySet().first())
+    doc1['request'].entries.keySet().first().is(doc2['request'].entries.keySet().first())
+    !doc1.entries.keySet().first().is(doc3.entries.keySet().first())
+  }
+}
@@ -1,8 +1,12 @@
 package au.com.dius.pact.core.support.json
 
+import au.com.dius.pact.core.support.Json
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.nio.ByteBuffer
+import java.util.concurrent.ForkJoinPool
+
 @SuppressWarnings('LineLength')
 class JsonParserSpec extends Specification {
 
@@ -133,4 +137,175 @@ class JsonParserSpec extends Specification {
     value.entries['provider'] == new JsonValue.Object(['name': new JsonValue.StringValue('Activity Service'.chars)])
     value.entries['metadata'] == new JsonValue.Object(['pactSpecification': new JsonValue.Object(['version': new JsonValue.StringValue('3.0.0'.chars)])])
   }
+
+  @Unroll
+  def 'parsing UTF-8 bytes - #description'() {
+    expect:
+    JsonParser.INSTANCE.parseBytes(json.getBytes('UTF-8')) == JsonParser.INSTANCE.parseString(json)
+
+    where:
+
+    description             | json
+    'ascii document'        | '{"a": [1, 2.5, true, null, "b"]}'
+    'two byte characters'   | '{"ä": "äbc"}'
+    'three byte characters' | '{"key": "€ and ☃"}'
+    'four byte characters'  | '["😀 smile", "𝄞"]'
+    'escaped characters'    | '{"a\\tb": "\\u00e4bc"}'
+  }
+
+  def 'parsing UTF-8 bytes replaces malformed sequences'() {
+    given:
+    byte[] json = [0x22, 0xC3, 0x22] as byte[]
+
+    expect:
+    JsonParser.INSTANCE.parseBytes(json) == new JsonValue.StringValue('\uFFFD'.chars)
+  }
+
+  @Unroll
+  def 'parsing with lazy strings - #description'() {
+    expect:
+    JsonParser.INSTANCE.parseBytes(json.getBytes('UTF-8'), true) == JsonParser.INSTANCE.parseString(json)
+    JsonParser.INSTANCE.parse(new StringSource(json.chars), null, true) == JsonParser.INSTANCE.parseString(json)
+    JsonParser.INSTANCE.parse(new ReaderSource(new StringReader(json), true), null, true) ==
+      JsonParser.INSTANCE.parseString(json)
+    JsonParser.INSTANCE.parse(new ReaderSource(new StringReader(json)), null, true) ==
+      JsonParser.INSTANCE.parseString(json)
+
+    where:
+
+    description             | json
+    'ascii document'        | '{"a": [1, 2.5, true, null, "b"]}'
+    'empty string'          | '["", "a"]'
+    'two byte characters'   | '{"ä": "äbc"}'
+    'three byte characters' | '{"key": "€ and ☃"}'
+    'four byte characters'  | '["😀 smile", "𝄞"]'
+    'escaped characters'    | '{"a\\tb": "\\u00e4bc \\"quoted\\" \\\\ \\/"}'
+  }
+
+  def 'lazy strings are only decoded from the source when accessed'() {
+    given:
+    def json = '["abc", "d\\ne"]'.getBytes('UTF-8')
+    def value = JsonParser.INSTANCE.parseBytes(json, true)
+
+    when:
+    json[2] = (byte) 'x'
+    json[11] = (byte) 'r'
+
+    then:
+    value.get(0).asString() == 'xbc'
+    value.get(1).asString() == 'd\re'
+  }
+
+  def 'lazy strings can be read from a reader that is larger than its buffer'() {
+    given:
+    def strings = (0..<2000).collect { 'value ' + it }
+    def json = Json.INSTANCE.toJson(strings).serialise()
+
+    when:
+    def value = JsonParser.INSTANCE.parse(new ReaderSource(new StringReader(json), true), null, true)
+
+    then:
+    value.asArray().values*.asString() == strings
+  }
+
+  @Unroll
+  def 'parsing with lazy strings validates escape sequences - #description'() {
+    when:
+    JsonParser.INSTANCE.parseBytes(json.getBytes('UTF-8'), true)
+
+    then:
+    thrown(JsonException)
+
+    where:
+
+    description             | json
+    'invalid escape'        | '"a\\qb"'
+    'invalid unicode'       | '"\\u00g4"'
+    'unterminated string'   | '"abc'
+    'unterminated escape'   | '"abc\\'
+  }
+
+  def 'parsing an empty byte array is an error'() {
+    when:
+    JsonParser.INSTANCE.parseBytes(new byte[0])
+
+    then:
+    thrown(JsonException)
+  }
+
+  @Unroll
+  def 'parsing a file - #description'() {
+    given:
+    def file = File.createTempFile('JsonParserSpec', '.json')
+    file.deleteOnExit()
+    file.setText('{"consumer": {"name": "Fööd Consumer"}, "interactions": [1, 2.5, true, null]}', 'UTF-8')
+
+    expect:
+    JsonParser.INSTANCE.parseFile(file, threshold) == new JsonValue.Object([
+      consumer: new JsonValue.Object([name: new JsonValue.StringValue('Fööd Consumer'.chars)]),
+      interactions: new JsonValue.Array([new JsonValue.Integer('1'.chars), new JsonValue.Decimal('2.5'.chars),
+        JsonValue.True.INSTANCE, JsonValue.Null.INSTANCE])
+    ])
+
+    where:
+
+    description          | threshold
+    'read into the heap' | Long.MAX_VALUE
+    'memory mapped'      | 0L
+  }
+
+  def 'parsing an empty file is an error'() {
+    given:
+    def file = File.createTempFile('JsonParserSpec', '.json')
+    file.deleteOnExit()
+
+    when:
+    JsonParser.INSTANCE.parseFile(file, 0L)
+
+    then:
+    thrown(JsonException)
+  }
+
+  @Unroll
+  def 'parsing in parallel gives the same result as parsing sequentially - #description'() {
+    given:
+    def bytes = json.getBytes('UTF-8')
+    def pool = new ForkJoinPool(4)
+
+    expect:
+    JsonParser.parseParallel(ByteBuffer.wrap(bytes), pool) == JsonParser.parseBytes(bytes)
+
+    cleanup:
+    pool.shutdown()
+
+    where:
+
+    description                | json
+    'pact with interactions'   | '{"consumer": {"name": "c"}, "interactions": [' + (1..100).collect { "{\"id\": $it, \"name\": \"a [\\\"quoted\\\"] {name}\", \"values\": [$it, \"ü\"]}" }.join(', ') + '], "metadata": {}}'
+    'large top level array'    | '[' + (1..50).collect { "[$it, {\"a\": \"b\"}, null]" }.join(',') + ']'
+    'small top level array'    | '[1, "two", {"three": 3}]'
+    'empty array'              | ' [ ] '
+    'empty object'             | '{}'
+    'scalar'                   | ' 12.5e3 '
+    'string'                   | '"a string"'
+  }
+
+  @Unroll
+  def 'parsing an invalid document in parallel is an error - #description'() {
+    when:
+    JsonParser.parseParallel(ByteBuffer.wrap(json.getBytes('UTF-8')))
+
+    then:
+    thrown(JsonException)
+
+    where:
+
+    description              | json
+    'empty document'         | ''
+    'unterminated array'     | '[' + (1..50).collect { it.toString() }.join(',')
+    'invalid element'        | '[' + (1..50).collect { it.toString() }.join(',') + ', tru]'
+    'missing colon'          | '{"a" 1}'
+    'trailing characters'    | '[1, 2] 3'
+    'unterminated string'    | '{"a": "b}'
+  }
 }
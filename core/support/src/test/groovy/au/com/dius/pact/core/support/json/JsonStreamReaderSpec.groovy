@@ -0,0 +1,136 @@
+package au.com.dius.pact.core.support.json
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class JsonStreamReaderSpec extends Specification {
+
+  static final String PACT = '''{
+    "consumer": {"name": "consumer"},
+    "interactions": [
+      {"description": "first", "request": {"method": "GET", "path": "/one"}},
+      {"description": "second", "request": {"method": "PUT", "path": "/two", "body": [1, 2, {"a": null}]}},
+      {"description": "third", "request": {"method": "POST", "path": "/three"}}
+    ],
+    "metadata": {"pactSpecification": {"version": "4.0"}}
+  }'''
+
+  def 'returns the tokens of the document without whitespace, commas or colons'() {
+    given:
+    def reader = JsonStreamReader.fromString('{"a": [1, 2.5, true], "b": {"c": null}, "d": "e"}')
+    def tokens = []
+
+    when:
+    def token = reader.nextToken()
+    while (token != null) {
+      tokens << token.toString()
+      token = reader.nextToken()
+    }
+
+    then:
+    tokens == [
+      'ObjectStart', 'String([a])', 'ArrayStart', 'Integer([1])', 'Decimal([2, ., 5])', 'True', 'ArrayEnd',
+      'String([b])', 'ObjectStart', 'String([c])', 'Null', 'ObjectEnd', 'String([d])', 'String([e])', 'ObjectEnd'
+    ]
+  }
+
+  def 'can stream the elements of an array one at a time'() {
+    given:
+    def reader = JsonStreamReader.fromBytes(PACT.getBytes('UTF-8'))
+    def descriptions = []
+
+    when:
+    reader.beginObject()
+    while (reader.hasNext()) {
+      if (reader.nextObjectKey() == 'interactions') {
+        reader.beginArray()
+        while (reader.hasNext()) {
+          descriptions << reader.readValue()['description'].asString()
+        }
+        reader.endArray()
+      } else {
+        reader.skipValue()
+      }
+    }
+    reader.endObject()
+
+    then:
+    descriptions == ['first', 'second', 'third']
+    reader.nextToken() == null
+  }
+
+  def 'can jump to an element of an array'() {
+    given:
+    def reader = JsonStreamReader.fromString(PACT)
+
+    when:
+    reader.beginObject()
+    while (reader.nextObjectKey() != 'interactions') {
+      reader.skipValue()
+    }
+    reader.beginArray()
+    reader.skipValue()
+    def value = reader.readValue()
+    reader.endArray()
+    reader.endObject()
+
+    then:
+    value == JsonParser.parseString(
+      '{"description": "second", "request": {"method": "PUT", "path": "/two", "body": [1, 2, {"a": null}]}}')
+    !reader.hasNext()
+  }
+
+  def 'endObject skips any remaining values'() {
+    given:
+    def reader = JsonStreamReader.fromString('[{"a": 1, "b": [2, 3], "c": {"d": 4}}, 5]')
+
+    when:
+    reader.beginArray()
+    reader.beginObject()
+    def key = reader.nextObjectKey()
+    reader.endObject()
+    def next = reader.readValue()
+
+    then:
+    key == 'a'
+    next == new JsonValue.Integer('5'.chars)
+  }
+
+  def 'reading a top level value'() {
+    given:
+    def reader = JsonStreamReader.fromString(' "value" ')
+
+    expect:
+    reader.hasNext()
+    reader.readValue() == new JsonValue.StringValue('value'.chars)
+    !reader.hasNext()
+    reader.nextToken() == null
+  }
+
+  @Unroll
+  def 'invalid document - #description'() {
+    given:
+    def reader = JsonStreamReader.fromString(json)
+
+    when:
+    def token = reader.nextToken()
+    while (token != null) {
+      token = reader.nextToken()
+    }
+
+    then:
+    thrown(JsonException)
+
+    where:
+
+    description               | json
+    'unterminated array'      | '["null", true'
+    'unterminated object'     | '{"null": true'
+    'missing comma in array'  | '["null" true]'
+    'missing comma in object' | '{"null": true "other": false}'
+    'missing colon'           | '{"null" true}'
+    'invalid object key'      | '{null: true}'
+    'leading comma'           | '[, 1]'
+    'invalid value after'     | 'null true'
+  }
+}
@@ -50,4 +50,126 @@ class JsonValueSpec extends Specification {
     '/ '     | '7'
     '/m~0n'  | '8'
   }
+
+  def 'serialising to an output writes the same JSON as serialise'() {
+    given:
+    def json = JsonParser.parseString('{"b": [1, 2.5, "a\\"b\\tc\u00e4"], "a": {"c": null, "d": true}, "e": []}')
+    def builder = new StringBuilder()
+    def writer = new StringWriter()
+
+    when:
+    json.serialiseTo(builder)
+    json.serialiseTo(writer)
+
+    then:
+    builder.toString() == '{"a":{"c":null,"d":true},"b":[1,2.5,"a\\"b\\tc\\u00E4"],"e":[]}'
+    writer.toString() == json.serialise()
+  }
+
+  def 'pretty printing to an output writes the same JSON as prettyPrint'() {
+    given:
+    def json = JsonParser.parseString('{"b": [1, {"x": "y"}], "a": {"c": null}}')
+    def writer = new StringWriter()
+
+    when:
+    json.prettyPrintTo(writer)
+
+    then:
+    writer.toString() == '''{
+  "a": {
+    "c": null
+  },
+  "b": [
+    1,
+    {
+      "x": "y"
+    }
+  ]
+}'''
+    writer.toString() == json.prettyPrint(0, false)
+  }
+
+  def 'integer values'() {
+    given:
+    def value = new JsonValue.Integer(json.chars)
+
+    expect:
+    value.toBigInteger() == new BigInteger(json)
+    value.isLong() == isLong
+    value.asNumber() == new BigInteger(json)
+
+    where:
+
+    json                        | isLong
+    '0'                         | true
+    '-0'                        | true
+    '007'                       | true
+    '123456789012345678'        | true
+    '-9223372036854775808'      | true
+    '9223372036854775807'       | true
+    '9223372036854775808'       | false
+    '-123456789012345678901234' | false
+  }
+
+  def 'integers are equal if they have the same value'() {
+    given:
+    def value1 = new JsonValue.Integer(a.chars)
+    def value2 = new JsonValue.Integer(b.chars)
+
+    expect:
+    (value1 == value2) == equal
+    !equal || value1.hashCode() == value2.hashCode()
+
+    where:
+
+    a                         | b                          | equal
+    '100'                     | '100'                      | true
+    '-0'                      | '0'                        | true
+    '0100'                    | '100'                      | true
+    '100'                     | '101'                      | false
+    '12345678901234567890123' | '12345678901234567890123'  | true
+    '12345678901234567890123' | '12345678901234567890124'  | false
+    '9223372036854775807'     | '9223372036854775807'      | true
+  }
+
+  def 'decimal values'() {
+    given:
+    def value = new JsonValue.Decimal(json.chars)
+
+    expect:
+    value.toBigDecimal() == new BigDecimal(json)
+    value.scale() == new BigDecimal(json).scale()
+    value.signum() == new BigDecimal(json).signum()
+    value.toDouble() == new BigDecimal(json).toDouble()
+    value.asNumber() == new BigDecimal(json)
+
+    where:
+
+    json << [
+      '0.0', '-0.0', '1.50', '-12.345', '1e2', '1.5E-3', '1.5e+3', '0.1', '123456789.123456789',
+      '1234567890.1234567890123', '1e400', '-98765432109876543210.5', '4.9e-324'
+    ]
+  }
+
+  def 'decimals are equal if they are numerically equal'() {
+    given:
+    def value1 = new JsonValue.Decimal(a.chars)
+    def value2 = new JsonValue.Decimal(b.chars)
+
+    expect:
+    (value1 == value2) == equal
+    !equal || value1.hashCode() == value2.hashCode()
+
+    where:
+
+    a                             | b                                | equal
+    '1.0'                         | '1.00'                           | true
+    '1.5'                         | '15e-1'                          | true
+    '100.0'                       | '1e2'                            | true
+    '0.0'                         | '-0.000'                         | true
+    '1.5'                         | '1.51'                           | false
+    '12345678901234567890.5'      | '12345678901234567890.50'        | true
+    '1000000000000000000000.0'    | '1e21'                           | true
+    '12345678901234567890.5'      | '12345678901234567890.6'         | false
+  }
 }
@@ -0,0 +1,77 @@
+package au.com.dius.pact.core.support.regex
+
+import spock.lang.Specification
+
+import java.util.regex.Pattern
+import java.util.regex.PatternSyntaxException
+
+class PatternCacheSpec extends Specification {
+
+  def setup() {
+    PatternCache.clear()
+  }
+
+  def 'returns the same compiled pattern for the same regex'() {
+    when:
+    def pattern1 = PatternCache.pattern('\\d+')
+    def pattern2 = PatternCache.pattern('\\d+')
+    def stats = PatternCache.stats()
+
+    then:
+    pattern1.is(pattern2)
+    stats.hits == 1
+    stats.misses == 1
+    stats.size == 1
+    stats.hitRate == 0.5d
+  }
+
+  def 'patterns with different flags are cached separately'() {
+    when:
+    def pattern1 = PatternCache.pattern('a.b')
+    def pattern2 = PatternCache.pattern('a.b', Pattern.DOTALL)
+
+    then:
+    !pattern1.is(pattern2)
+    !PatternCache.pattern('a.b').matcher('a\nb').matches()
+    PatternCache.pattern('a.b', Pattern.DOTALL).matcher('a\nb').matches()
+    PatternCache.stats().size == 2
+  }
+
+  def 'matches checks the whole value'() {
+    expect:
+    PatternCache.matches('\\d+', '12345')
+    !PatternCache.matches('\\d+', '123a45')
+    PatternCache.regex('\\d+').matches('678')
+  }
+
+  def 'invalid regexes are not cached'() {
+    when:
+    PatternCache.pattern('[a-')
+
+    then:
+    thrown(PatternSyntaxException)
+    PatternCache.stats().size == 0
+  }
+
+  def 'the least recently used patterns are evicted when the cache is full'() {
+    given:
+    def first = PatternCache.pattern('first')
+
+    when:
+    (1..PatternCache.DEFAULT_SIZE).each {
+      PatternCache.pattern("pattern$it")
+      if (it % 100 == 0) {
+        PatternCache.pattern('first')
+      }
+    }
+    def stats = PatternCache.stats()
+
+    then:
+    stats.size < PatternCache.DEFAULT_SIZE
+    stats.evictions == PatternCache.DEFAULT_SIZE + 1 - stats.size
+    PatternCache.pattern('first').is(first)
+    PatternCache.stats().misses == stats.misses
+    PatternCache.pattern('pattern1') != null
+    PatternCache.stats().misses == stats.misses + 1
+  }
+}
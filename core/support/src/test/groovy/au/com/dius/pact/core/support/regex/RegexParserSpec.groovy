@@ -430,4 +430,24 @@ class RegexParserSpec extends Specification {
     !chars.contains('a' as char)
     chars.contains('1' as char)
   }
+
+  // ── Caching ───────────────────────────────────────────────────────────────
+
+  def 'parseCached returns the same tree for the same pattern'() {
+    when:
+    def node1 = RegexParser.parseCached('[a-z]+\\d{2}')
+    def node2 = RegexParser.parseCached('[a-z]+\\d{2}')
+
+    then:
+    node1.is(node2)
+    node1 == new RegexParser('[a-z]+\\d{2}').parse()
+  }
+
+  def 'character sets are only built once per node'() {
+    given:
+    def node = new RegexParser('[a-f0-9]').parse()
+
+    expect:
+    node.toCharSet().is(node.toCharSet())
+  }
 }
@@ -179,4 +179,16 @@ class RegexStringGeneratorSpec extends Specification {
         /[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}/
     }
   }
+
+  def 'generates a batch of strings from the same tree'() {
+    given:
+    def node = new RegexParser('[0-9a-f]{8}-[A-Z]{2,4}').parse()
+
+    when:
+    def values = new RegexStringGenerator().generate(node, ITERATIONS)
+
+    then:
+    values.size() == ITERATIONS
+    values.every { it ==~ /[0-9a-f]{8}-[A-Z]{2,4}/ }
+  }
 }
@@ -0,0 +1,51 @@
+package au.com.dius.pact.core.support.time
+
+import spock.lang.Specification
+
+import java.time.LocalDate
+
+class DateTimeFormatterCacheSpec extends Specification {
+
+  def setup() {
+    DateTimeFormatterCache.clear()
+  }
+
+  def 'returns the same formatter for the same pattern'() {
+    when:
+    def formatter1 = DateTimeFormatterCache.formatter('yyyy-MM-dd')
+    def formatter2 = DateTimeFormatterCache.formatter('yyyy-MM-dd')
+
+    then:
+    formatter1.is(formatter2)
+    !formatter1.is(DateTimeFormatterCache.formatter('dd/MM/yyyy'))
+    DateTimeFormatterCache.size() == 2
+    formatter1.format(LocalDate.of(2000, 1, 2)) == '2000-01-02'
+  }
+
+  def 'invalid patterns are not cached'() {
+    when:
+    DateTimeFormatterCache.formatter('yyyy-MM-dd{')
+
+    then:
+    thrown(IllegalArgumentException)
+    DateTimeFormatterCache.size() == 0
+  }
+
+  def 'the least recently used formatters are evicted when the cache is full'() {
+    given:
+    def first = DateTimeFormatterCache.formatter('yyyy')
+
+    when:
+    (1..DateTimeFormatterCache.CACHE_SIZE).each {
+      DateTimeFormatterCache.formatter("'$it' yyyy")
+      if (it % 100 == 0) {
+        DateTimeFormatterCache.formatter('yyyy')
+      }
+    }
+
+    then:
+    DateTimeFormatterCache.size() < DateTimeFormatterCache.CACHE_SIZE
+    DateTimeFormatterCache.formatter('yyyy').is(first)
+    !DateTimeFormatterCache.formatter("'1' yyyy").is(first)
+  }
+}
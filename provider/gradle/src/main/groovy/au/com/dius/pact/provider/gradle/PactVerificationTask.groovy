@@ -1,5 +1,6 @@
 package au.com.dius.pact.provider.gradle
 
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.provider.IProviderVerifier
 import au.com.dius.pact.provider.ProviderVerifier
 import javax.inject.Inject
@@ -46,6 +47,7 @@ abstract class PactVerificationTask extends PactVerificationBaseTask {
 
   @TaskAction
   void verifyPact() {
+    PactRuntimeConfig.refresh()
     verifier.with {
       verificationSource = 'gradle'
       projectHasProperty = { providerFactory.gradleProperty(it).present }
@@ -9,6 +9,7 @@ import au.com.dius.pact.core.model.PactSource
 import au.com.dius.pact.core.model.ProviderState
 import au.com.dius.pact.core.support.MetricEvent
 import au.com.dius.pact.core.support.Metrics
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.core.support.Result
 import au.com.dius.pact.core.support.expressions.SystemPropertyResolver
 import au.com.dius.pact.core.support.expressions.ValueResolver
@@ -264,6 +265,7 @@ open class InteractionRunner(
 
     var statement: Statement = object : Statement() {
       override fun evaluate() {
+        PactRuntimeConfig.refresh()
         setupTargetForInteraction(target)
         target.addResultCallback { result, verifier ->
           results[interaction.uniqueKey()] = Pair(result, verifier)
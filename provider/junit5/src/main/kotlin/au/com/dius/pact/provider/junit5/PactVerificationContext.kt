@@ -10,6 +10,7 @@ import au.com.dius.pact.core.model.V4Interaction
 import au.com.dius.pact.core.model.generators.GeneratorTestMode
 import au.com.dius.pact.core.support.MetricEvent
 import au.com.dius.pact.core.support.Metrics
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.core.support.Result
 import au.com.dius.pact.core.support.expressions.SystemPropertyResolver
 import au.com.dius.pact.core.support.expressions.ValueResolver
@@ -51,6 +52,7 @@ data class PactVerificationContext @JvmOverloads constructor(
    * @throws AssertionError Throws an assertion error if the verification fails.
    */
   fun verifyInteraction() {
+    PactRuntimeConfig.refresh()
     val store = context.getStore(namespace)
     val client = store.get("client")
     val request = store.get("request")
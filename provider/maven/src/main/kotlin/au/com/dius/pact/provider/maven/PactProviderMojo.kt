@@ -3,6 +3,7 @@ package au.com.dius.pact.provider.maven
 import au.com.dius.pact.core.model.FileSource
 import au.com.dius.pact.core.pactbroker.ConsumerVersionSelectors
 import au.com.dius.pact.core.pactbroker.NotFoundHalResponse
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.core.support.expressions.DataType
 import au.com.dius.pact.core.support.expressions.ExpressionParser
 import au.com.dius.pact.core.support.getOrElse
@@ -70,6 +71,7 @@ open class PactProviderMojo : PactBaseMojo() {
         System.setProperty(property, value)
       }
     }
+    PactRuntimeConfig.refresh()
 
     val verifier = providerVerifier().let { verifier ->
       verifier.verificationSource = "maven"
@@ -1,5 +1,6 @@
 package au.com.dius.pact.provider
 
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import groovy.lang.Binding
 import groovy.lang.Closure
 import groovy.lang.GroovyShell
@@ -22,6 +23,7 @@ import org.apache.hc.core5.ssl.SSLContexts
 class HttpClientFactory : IHttpClientFactory {
 
   override fun newClient(provider: IProviderInfo): CloseableHttpClient {
+    val runtimeConfig = PactRuntimeConfig.current()
     return if (provider.createClient != null) {
       if (provider.createClient is Closure<*>) {
         (provider.createClient as Closure<*>).call(provider) as CloseableHttpClient
@@ -32,20 +34,19 @@ class HttpClientFactory : IHttpClientFactory {
         shell.evaluate(provider.createClient.toString()) as CloseableHttpClient
       }
     } else if (provider.insecure) {
-      createInsecure()
+      createInsecure(runtimeConfig)
     } else if (provider.trustStore != null && provider.trustStorePassword != null) {
-      createWithTrustStore(provider)
+      createWithTrustStore(provider, runtimeConfig)
     } else {
       val builder = HttpClients.custom().useSystemProperties()
-      val enableRedirectHandling = System.getProperty("pact.verifier.enableRedirectHandling")
-      if (enableRedirectHandling.isNullOrEmpty() || enableRedirectHandling != "true") {
+      if (!runtimeConfig.enableRedirectHandling) {
         builder.disableRedirectHandling()
       }
       builder.build()
     }
   }
 
-  private fun createWithTrustStore(provider: IProviderInfo): CloseableHttpClient {
+  private fun createWithTrustStore(provider: IProviderInfo, runtimeConfig: PactRuntimeConfig): CloseableHttpClient {
     val password = provider.trustStorePassword.orEmpty().toCharArray()
     val sslcontext = SSLContexts.custom().loadTrustMaterial(provider.trustStore, password).build()
     val socketFactoryRegistry = RegistryBuilder.create<ConnectionSocketFactory>()
@@ -57,17 +58,15 @@ class HttpClientFactory : IHttpClientFactory {
       .custom()
       .useSystemProperties()
       .setConnectionManager(connManager);
-    val enableRedirectHandling = System.getProperty("pact.verifier.enableRedirectHandling")
-    if (enableRedirectHandling.isNullOrEmpty() || enableRedirectHandling != "true") {
+    if (!runtimeConfig.enableRedirectHandling) {
       builder.disableRedirectHandling()
     }
     return builder.build()
   }
 
-  private fun createInsecure(): CloseableHttpClient {
+  private fun createInsecure(runtimeConfig: PactRuntimeConfig): CloseableHttpClient {
     val b = HttpClientBuilder.create().useSystemProperties()
-    val enableRedirectHandling = System.getProperty("pact.verifier.enableRedirectHandling")
-    if (enableRedirectHandling.isNullOrEmpty() || enableRedirectHandling != "true") {
+    if (!runtimeConfig.enableRedirectHandling) {
       b.disableRedirectHandling()
     }
 
@@ -32,6 +32,7 @@ import au.com.dius.pact.core.pactbroker.IPactBrokerClient
 import au.com.dius.pact.core.support.Auth
 import au.com.dius.pact.core.support.MetricEvent
 import au.com.dius.pact.core.support.Metrics
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.core.support.Result
 import au.com.dius.pact.core.support.Result.Err
 import au.com.dius.pact.core.support.Result.Ok
@@ -1265,6 +1266,7 @@ open class ProviderVerifier @JvmOverloads constructor (
   }
 
   override fun verifyProvider(provider: IProviderInfo): List<VerificationResult> {
+    PactRuntimeConfig.refresh()
     initialiseReporters(provider)
 
     val consumers = provider.consumers.filter(::filterConsumers)
@@ -2,12 +2,14 @@ package au.com.dius.pact.provider
 
 import au.com.dius.pact.core.matchers.BodyMismatch
 import au.com.dius.pact.core.matchers.BodyTypeMismatch
+import au.com.dius.pact.core.matchers.DiffLimits
 import au.com.dius.pact.core.matchers.HeaderMismatch
 import au.com.dius.pact.core.matchers.Matching
 import au.com.dius.pact.core.matchers.MatchingConfig
 import au.com.dius.pact.core.matchers.MatchingContext
 import au.com.dius.pact.core.matchers.MetadataMismatch
 import au.com.dius.pact.core.matchers.Mismatch
+import au.com.dius.pact.core.matchers.ParallelMatching
 import au.com.dius.pact.core.matchers.ResponseMatching
 import au.com.dius.pact.core.matchers.StatusMismatch
 import au.com.dius.pact.core.matchers.generateDiff
@@ -25,6 +27,7 @@ import au.com.dius.pact.core.model.messaging.MessageInteraction
 import au.com.dius.pact.core.model.orEmpty
 import au.com.dius.pact.core.model.orEmptyBody
 import au.com.dius.pact.core.support.Json
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import au.com.dius.pact.core.support.Result
 import au.com.dius.pact.core.support.Utils.sizeOf
 import au.com.dius.pact.core.support.expressions.SystemPropertyResolver
@@ -186,11 +189,22 @@ class ResponseComparison(
       return generateDiff(expectedBodyString, actualBodyString)
     }
 
+    /**
+     * If the diff of the bodies should be generated. By default it is only generated if the bodies are within the
+     * size limit for diffs (`pact.matching.diff.maxBodySize`), setting `pact.verifier.generateDiff` to true always
+     * generates it (with larger bodies truncated), or it can be set to the maximum size of the bodies to diff.
+     */
     @JvmStatic
-    fun shouldGenerateDiff(resolver: ValueResolver, length: Int): Result<Boolean, String> {
+    @JvmOverloads
+    fun shouldGenerateDiff(
+      resolver: ValueResolver,
+      length: Int,
+      limits: DiffLimits = DiffLimits.fromRuntimeConfig(PactRuntimeConfig.current())
+    ): Result<Boolean, String> {
       val shouldIncludeDiff = resolver.resolveValue("pact.verifier.generateDiff", "NOT_SET")
       return when (val v = shouldIncludeDiff?.lowercase()) {
-        "true", "not_set" -> Result.Ok(true)
+        "not_set" -> Result.Ok(limits.withinBodySize(length))
+        "true" -> Result.Ok(true)
         "false" -> Result.Ok(false)
         else -> if (v.isNotEmpty()) {
           when (val result = sizeOf(v!!)) {
@@ -276,12 +290,13 @@ class ResponseComparison(
       metadata: Map<String, Any>?,
       pluginConfiguration: Map<String, PluginConfiguration>
     ): ComparisonResult {
+      val parallelMatching = ParallelMatching.fromRuntimeConfig(PactRuntimeConfig.current())
       val (bodyMismatches, metadataMismatches) = when (message) {
         is V4Interaction.AsynchronousMessage -> {
           val bodyContext = MatchingContext(
             message.contents.matchingRules.rulesForCategory("content")
               .orElse(message.contents.matchingRules.rulesForCategory("body")),
-            true, pluginConfiguration)
+            true, pluginConfiguration, parallelMatching = parallelMatching)
           val metadataContext = MatchingContext(message.contents.matchingRules.rulesForCategory("metadata"),
             true, pluginConfiguration)
           val bodyMismatches = compareMessageBody(message, actual, bodyContext)
@@ -299,7 +314,7 @@ class ResponseComparison(
         is Message -> {
           val bodyContext = MatchingContext(message.matchingRules.rulesForCategory("content")
             .orElse(message.matchingRules.rulesForCategory("body")),
-            true, pluginConfiguration)
+            true, pluginConfiguration, parallelMatching = parallelMatching)
           val metadataContext = MatchingContext(message.matchingRules.rulesForCategory("metadata"),
             true, pluginConfiguration)
           val bodyMismatches = compareMessageBody(message, actual, bodyContext)
@@ -40,8 +40,9 @@ sealed class VerificationFailureType {
         is BodyMismatch -> {
           var description = "${mismatch.type()}: ${t.bold(mismatch.path)} ${mismatch.description(t)}"
 
-          if (mismatch.diff.isNotEmpty()) {
-            description += "\n\n" + formatDiff(t, mismatch.diff!!) + "\n"
+          val diff = mismatch.diff
+          if (diff.isNotEmpty()) {
+            description += "\n\n" + formatDiff(t, diff!!) + "\n"
           }
 
           description
@@ -77,12 +77,12 @@ class JsonReporter(
             providerName == existingContents["provider"]["name"].asString()) {
             existingContents["metaData"] = jsonData["metaData"]
             existingContents["execution"].asArray()!!.addAll(jsonData["execution"])
-            reportFile.writeText(existingContents.serialise())
+            reportFile.bufferedWriter().use { existingContents.serialiseTo(it) }
           } else {
-            reportFile.writeText(jsonData.serialise())
+            reportFile.bufferedWriter().use { jsonData.serialiseTo(it) }
           }
         }
-        else -> reportFile.writeText(jsonData.serialise())
+        else -> reportFile.bufferedWriter().use { jsonData.serialiseTo(it) }
       }
     }
   }
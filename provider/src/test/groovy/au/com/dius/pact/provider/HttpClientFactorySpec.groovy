@@ -1,5 +1,6 @@
 package au.com.dius.pact.provider
 
+import au.com.dius.pact.core.support.PactRuntimeConfig
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient
 import org.apache.hc.client5.http.impl.classic.RedirectExec
 import org.apache.hc.client5.http.protocol.RedirectStrategy
@@ -39,6 +40,7 @@ class HttpClientFactorySpec extends Specification {
     given:
     def provider = new ProviderInfo()
     System.setProperty('pact.verifier.enableRedirectHandling', 'true')
+    PactRuntimeConfig.refresh()
 
     when:
     def client = new HttpClientFactory().newClient(provider)
@@ -46,6 +48,10 @@ class HttpClientFactorySpec extends Specification {
     then:
     client.execChain.handler instanceof RedirectExec
     client.execChain.handler.redirectStrategy instanceof RedirectStrategy
+
+    cleanup:
+    System.clearProperty('pact.verifier.enableRedirectHandling')
+    PactRuntimeConfig.refresh()
   }
 
   @Issue('#1323')
@@ -54,12 +60,17 @@ class HttpClientFactorySpec extends Specification {
     given:
     def provider = new ProviderInfo()
     System.setProperty('pact.verifier.enableRedirectHandling', 'false')
+    PactRuntimeConfig.refresh()
 
     when:
     def client = new HttpClientFactory().newClient(provider)
 
     then:
     !(client.execChain.handler instanceof RedirectExec)
+
+    cleanup:
+    System.clearProperty('pact.verifier.enableRedirectHandling')
+    PactRuntimeConfig.refresh()
   }
 
   @Issue('#1323')
@@ -1,5 +1,6 @@
 package au.com.dius.pact.provider
 
+import au.com.dius.pact.core.matchers.DiffLimits
 import au.com.dius.pact.core.matchers.MatchingContext
 import au.com.dius.pact.core.model.ContentType
 import au.com.dius.pact.core.model.OptionalBody
@@ -177,6 +178,22 @@ class ResponseComparisonSpec extends Specification {
     'if property is invalid'   | 'jhjhj' || new Result.Err("'jhjhj' is not a valid data size")
   }
 
+  @RestoreSystemProperties
+  def 'shouldGenerateDiff - uses the body size limit for diffs if the property is not set'() {
+    expect:
+    ResponseComparison.shouldGenerateDiff(SystemPropertyResolver.INSTANCE, 4 * 1024, new DiffLimits(100, 2 * 1024)) ==
+      new Result.Ok(false)
+    ResponseComparison.shouldGenerateDiff(SystemPropertyResolver.INSTANCE, 4 * 1024, new DiffLimits(100, 0)) ==
+      new Result.Ok(true)
+
+    when:
+    System.setProperty('pact.verifier.generateDiff', 'true')
+
+    then:
+    ResponseComparison.shouldGenerateDiff(SystemPropertyResolver.INSTANCE, 4 * 1024, new DiffLimits(100, 2 * 1024)) ==
+      new Result.Ok(true)
+  }
+
   @Issue('#1375')
   @RestoreSystemProperties
   def 'comparing bodies should not show all the differences if it is disabled'() {